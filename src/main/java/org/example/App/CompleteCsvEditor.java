@@ -9,41 +9,101 @@ import java.awt.datatransfer.*;
 import java.awt.event.*;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.List;
+import java.util.function.IntPredicate;
 import java.util.regex.Pattern;
+import java.util.stream.StreamSupport;
 
 
 import javafx.scene.text.Font;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+import org.example.Convert.Converter;
+import org.example.Convert.SqlDialect;
+import org.example.Convert.SqlOptions;
+import org.example.Convert.SqlPreview;
+import org.example.Convert.TableFormat;
+import org.example.Convert.TableWriter;
+import org.example.Convert.XlsxTableWriter;
+import org.example.Filters.FilterCombination;
+import org.example.Filters.FilterCompiler;
+import org.example.Filters.FilterCondition;
+import org.example.Filters.FilterOperator;
+import org.example.Filters.FilterTable;
+import org.example.Filters.Query;
+import org.example.Filters.QueryBar;
+import org.example.Filters.SelectQuery;
+import org.example.Filters.TableIndexer;
+import org.example.Models.JsonTreeModel;
+import org.example.Models.MappedCsvTableModel;
+import org.example.Models.RowListTableModel;
+import org.example.Stats.StatisticsEngine;
+import org.example.Stats.StatisticsPanel;
+import org.example.Stats.TableStatistics;
+import org.example.Utils.CsvTokenizer;
+import org.example.Utils.CsvRowSource;
+import org.example.Utils.JsonRowSource;
+import org.example.Utils.LoadProgressPanel;
+import org.example.Utils.RowSource;
+import org.example.Utils.TableLoadWorker;
+import org.example.Utils.TextNormalizer;
+import org.example.Utils.XlsxRowSource;
 
 import static javafx.scene.text.Font.*;
 
 public class CompleteCsvEditor extends JFrame {
+    private static final int MAX_EXPANDED_ROWS = 10_000;
+    private static final int JSON_AUTOSAVE_MILLIS = 30_000;
+    private static final int SQL_PREVIEW_DELAY_MILLIS = 100;
+    private static final int SQL_PREVIEW_ROWS = 100;
+
     // UI Components
     private JTable table;
-    private DefaultTableModel tableModel;
-    private TableRowSorter<DefaultTableModel> sorter;
+    private RowListTableModel tableModel;
+    private TableRowSorter<RowListTableModel> sorter;
+    private TableIndexer<String[]> indexer;
+    private IntPredicate activeFilter;
+    private Query activeQuery;
     private List<String[]> data = new ArrayList<>();
     private String[] headers;
     private File currentFile;
     private JLabel statusLabel;
+    private LoadProgressPanel progressPanel;
+    private TableLoadWorker<String[]> loadWorker;
+    private MappedCsvTableModel mappedModel;
     private JComboBox<String> delimiterCombo;
+    private JCheckBox normalizeCheck;
     private JComboBox<String> sqlQueryTypeCombo;
     private JTextArea sqlQueryArea;
+    // Statements for the current table name and columns, rebuilt when either changes
+    private SqlPreview sqlPreview;
+    private javax.swing.Timer sqlQueryTimer;
+    // Result of the last SELECT run from the SQL panel, shown in its own tab
+    private RowListTableModel sqlResultModel;
+    private JPanel sqlResultPanel;
     private JList<String> exportFormatList;
     private JTextArea previewArea;
     private String tableName = "my_table";
+    private SqlDialect sqlDialect = SqlDialect.MYSQL;
+    private int sqlBatchSize = SqlOptions.DEFAULT_BATCH_SIZE;
+    private int sqlTransactionSize = 0;
 
     // JSON Editor Components
     private JTree jsonTree;
-    private DefaultTreeModel jsonTreeModel;
+    private JsonTreeModel jsonTreeModel;
     private JPanel jsonEditorPanel;
     private JTabbedPane dataViewTabs;
     private JPopupMenu jsonPopupMenu;
-    private JsonElement currentJsonRoot;
+    private boolean jsonTreeStale;
+    // File the tree was parsed from; tree edits stay in memory until saved
+    private File jsonDocumentFile;
+    private boolean jsonDirty;
+    // Batch Update tells the JSON tree once at the end instead of once per cell
+    private boolean batchUpdating;
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
@@ -62,6 +122,7 @@ public class CompleteCsvEditor extends JFrame {
         setupTable();
         setupRightPanel();
         setupStatusBar();
+        setupJsonAutosave();
     }
 
     private void configureWindow() {
@@ -80,7 +141,8 @@ public class CompleteCsvEditor extends JFrame {
         JToolBar toolBar = new JToolBar();
         toolBar.setFloatable(false);
 
-        toolBar.add(createButton("Open CSV", "Open CSV file", e -> openFile()));
+        toolBar.add(createButton("Open CSV", "Open CSV or Excel file", e -> openFile()));
+        toolBar.add(createButton("Open Large CSV", "Open a large CSV file read-only (memory-mapped)", e -> openMappedFile()));
         toolBar.add(createButton("Open JSON", "Open JSON file", e -> openJsonFile()));
         toolBar.add(createButton("Editor XML", "Open Editor XML file", e -> openXMLFile()));
         toolBar.add(createButton("Save", "Save file", e -> saveFile()));
@@ -89,10 +151,15 @@ public class CompleteCsvEditor extends JFrame {
         toolBar.add(new JLabel("Delimiter:"));
         delimiterCombo = new JComboBox<>(new String[]{",", ";", "|", "\t"});
         toolBar.add(delimiterCombo);
+        normalizeCheck = new JCheckBox("Normalize text");
+        normalizeCheck.setToolTipText("Replace typographic quotes and dashes, no-break spaces and zero-width characters while loading");
+        toolBar.add(normalizeCheck);
         toolBar.addSeparator();
 
         toolBar.add(createButton("Filter", "Apply filters", e -> showFilterDialog()));
+        toolBar.add(createButton("Clear Filter", "Show all rows", e -> clearFilter()));
         toolBar.add(createButton("Sort", "Sort by column", e -> showSortDialog()));
+        toolBar.add(createButton("Statistics", "Show column statistics", e -> showStatistics()));
         toolBar.add(createButton("Batch Update", "Batch update values", e -> showBatchUpdateDialog()));
         toolBar.addSeparator();
 
@@ -131,30 +198,37 @@ public class CompleteCsvEditor extends JFrame {
     }
 
     private void setupTable() {
-        tableModel = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return true;
-            }
+        // Renders straight from 'data', so rows are not copied into a second structure
+        tableModel = new RowListTableModel(data) {
             @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return String.class;
+            public void setValueAt(Object value, int rowIndex, int columnIndex) {
+                super.setValueAt(value, rowIndex, columnIndex);
+                jsonCellEdited(rowIndex, columnIndex);
             }
         };
 
         table = new JTable(tableModel);
         sorter = new TableRowSorter<>(tableModel);
         table.setRowSorter(sorter);
+        // Filter index, rebuilt in the background whenever new data is loaded
+        indexer = new TableIndexer<>(tableModel, data::get,
+                (row, column) -> column < row.length && row[column] != null ? row[column] : "");
 
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        sqlQueryTimer = new javax.swing.Timer(SQL_PREVIEW_DELAY_MILLIS, e -> generateSqlQuery());
+        sqlQueryTimer.setRepeats(false);
         table.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                generateSqlQuery();
+                scheduleSqlQuery();
             }
         });
 
         JScrollPane tableScrollPane = new JScrollPane(table);
-        dataViewTabs.addTab("Table View", tableScrollPane);
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.add(new QueryBar("country = 'ES' AND age >= 18 AND email ends with '.com'",
+                this::runQuery, this::clearFilter), BorderLayout.NORTH);
+        tablePanel.add(tableScrollPane, BorderLayout.CENTER);
+        dataViewTabs.addTab("Table View", tablePanel);
 
         // Setup JSON editor
         setupJsonEditor();
@@ -164,7 +238,13 @@ public class CompleteCsvEditor extends JFrame {
         jsonEditorPanel = new JPanel(new BorderLayout());
 
         // JSON Tree
-        jsonTreeModel = new DefaultTreeModel(new DefaultMutableTreeNode("JSON Data"));
+        jsonTreeModel = new JsonTreeModel() {
+            @Override
+            public void valueForPathChanged(TreePath path, Object newValue) {
+                super.valueForPathChanged(path, newValue);
+                jsonValueChanged((JsonTreeModel.Node) path.getLastPathComponent());
+            }
+        };
         jsonTree = new JTree(jsonTreeModel);
         jsonTree.setEditable(true);
         jsonTree.getSelectionModel().setSelectionMode(TreeSelectionModel.SINGLE_TREE_SELECTION);
@@ -175,13 +255,9 @@ public class CompleteCsvEditor extends JFrame {
             @Override
             public Component getTreeCellEditorComponent(JTree tree, Object value, boolean isSelected,
                                                         boolean expanded, boolean leaf, int row) {
-                DefaultMutableTreeNode node = (DefaultMutableTreeNode) value;
-                if (node.getUserObject() instanceof JsonElementWrapper) {
-                    JsonElementWrapper wrapper = (JsonElementWrapper) node.getUserObject();
-                    if (wrapper.isPrimitive()) {
-                        return super.getTreeCellEditorComponent(tree, wrapper.getValueString(), isSelected,
-                                expanded, leaf, row);
-                    }
+                if (value instanceof JsonTreeModel.Node && ((JsonTreeModel.Node) value).isPrimitive()) {
+                    return super.getTreeCellEditorComponent(tree, ((JsonTreeModel.Node) value).getValueString(),
+                            isSelected, expanded, leaf, row);
                 }
                 return super.getTreeCellEditorComponent(tree, value, isSelected, expanded, leaf, row);
             }
@@ -220,6 +296,11 @@ public class CompleteCsvEditor extends JFrame {
         setupJsonPopupMenu();
 
         dataViewTabs.addTab("JSON View", jsonEditorPanel);
+        dataViewTabs.addChangeListener(e -> {
+            if (dataViewTabs.getSelectedComponent() == jsonEditorPanel) {
+                ensureJsonTree();
+            }
+        });
     }
 
     private void setupJsonPopupMenu() {
@@ -254,8 +335,7 @@ public class CompleteCsvEditor extends JFrame {
         TreePath path = jsonTree.getSelectionPath();
         if (path == null) return;
 
-        DefaultMutableTreeNode node = (DefaultMutableTreeNode) path.getLastPathComponent();
-        JsonElementWrapper wrapper = (JsonElementWrapper) node.getUserObject();
+        JsonTreeModel.Node node = (JsonTreeModel.Node) path.getLastPathComponent();
 
         // Enable/disable menu items based on selection
         for (Component comp : jsonPopupMenu.getComponents()) {
@@ -264,9 +344,9 @@ public class CompleteCsvEditor extends JFrame {
                 String text = item.getText();
 
                 if (text.equals("Edit Value")) {
-                    item.setEnabled(wrapper.isPrimitive());
+                    item.setEnabled(node.isPrimitive());
                 } else if (text.equals("Remove")) {
-                    item.setEnabled(node.getParent() != null); // Can't remove root
+                    item.setEnabled(node.getParent() != null && !node.isPage()); // Can't remove root or pages
                 }
             }
         }
@@ -280,217 +360,104 @@ public class CompleteCsvEditor extends JFrame {
                                                       boolean leaf, int row, boolean hasFocus) {
             super.getTreeCellRendererComponent(tree, value, sel, expanded, leaf, row, hasFocus);
 
-            DefaultMutableTreeNode node = (DefaultMutableTreeNode) value;
-            if (node.getUserObject() instanceof JsonElementWrapper) {
-                JsonElementWrapper wrapper = (JsonElementWrapper) node.getUserObject();
-                setText(wrapper.getDisplayText());
-                setIcon(wrapper.getIcon());
+            if (value instanceof JsonTreeModel.Node) {
+                JsonTreeModel.Node node = (JsonTreeModel.Node) value;
+                setText(node.getDisplayText());
+                if (node.isPage() || node.getElement().isJsonArray()) {
+                    setIcon(UIManager.getIcon("FileView.hardDriveIcon"));
+                } else if (node.getElement().isJsonObject()) {
+                    setIcon(UIManager.getIcon("FileView.directoryIcon"));
+                } else {
+                    setIcon(UIManager.getIcon("FileView.fileIcon"));
+                }
             }
 
             return this;
         }
     }
 
-    private static class JsonElementWrapper {
-        private String key;
-        private JsonElement element;
-
-        public JsonElementWrapper(String key, JsonElement element) {
-            this.key = key;
-            this.element = element;
-        }
-
-        public String getKey() {
-            return key;
-        }
-
-        public JsonElement getElement() {
-            return element;
-        }
-
-        public String getValueString() {
-            if (element.isJsonPrimitive()) {
-                return element.getAsString();
-            }
-            return getType();
-        }
-
-        public String getDisplayText() {
-            if (element.isJsonPrimitive()) {
-                return key + ": " + element.getAsString();
-            }
-            return key + " (" + getType() + ")";
-        }
-
-        public String getType() {
-            if (element.isJsonObject()) return "Object";
-            if (element.isJsonArray()) return "Array[" + element.getAsJsonArray().size() + "]";
-            if (element.isJsonPrimitive()) {
-                JsonPrimitive primitive = element.getAsJsonPrimitive();
-                if (primitive.isBoolean()) return "Boolean";
-                if (primitive.isNumber()) return "Number";
-                return "String";
-            }
-            return "Null";
-        }
-
-        public boolean isPrimitive() {
-            return element.isJsonPrimitive();
-        }
-
-        public Icon getIcon() {
-            String type = getType();
-            switch (type) {
-                case "Object": return UIManager.getIcon("FileView.directoryIcon");
-                case "Array": return UIManager.getIcon("FileView.hardDriveIcon");
-                default: return UIManager.getIcon("FileView.fileIcon");
-            }
-        }
-    }
-
+    // Children are created as rows expand, so stop before a huge document floods the tree
     private void expandAllNodes(JTree tree, int startingIndex, int rowCount) {
-        for (int i = startingIndex; i < rowCount; ++i) {
+        for (int i = startingIndex; i < rowCount && tree.getRowCount() < MAX_EXPANDED_ROWS; ++i) {
             tree.expandRow(i);
         }
 
-        if (tree.getRowCount() != rowCount) {
+        if (tree.getRowCount() != rowCount && tree.getRowCount() < MAX_EXPANDED_ROWS) {
             expandAllNodes(tree, rowCount, tree.getRowCount());
         }
     }
 
     private void addJsonKeyValue() {
-        TreePath selectedPath = jsonTree.getSelectionPath();
-        if (selectedPath == null) {
-            showError("Select a node to add key/value");
-            return;
-        }
-
-        DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) selectedPath.getLastPathComponent();
-        JsonElementWrapper selectedWrapper = (JsonElementWrapper) selectedNode.getUserObject();
-
-        if (!selectedWrapper.getElement().isJsonObject() && !selectedWrapper.getElement().isJsonArray()) {
-            showError("Can only add to Objects or Arrays");
-            return;
-        }
+        JsonTreeModel.Node target = selectedJsonContainer("Select a node to add key/value");
+        if (target == null) return;
 
-        String key = JOptionPane.showInputDialog(this, "Enter key name (leave empty for array item):");
-        if (key == null) return; // cancelled
+        String key = askJsonKey(target);
+        if (key == null) return;
 
         String value = JOptionPane.showInputDialog(this, "Enter value:");
         if (value == null) return; // cancelled
 
-        JsonElement newElement = new JsonPrimitive(value);
-
-        if (selectedWrapper.getElement().isJsonObject()) {
-            if (key.trim().isEmpty()) {
-                showError("Key cannot be empty for Object");
-                return;
-            }
-            selectedWrapper.getElement().getAsJsonObject().add(key, newElement);
-
-            DefaultMutableTreeNode newNode = new DefaultMutableTreeNode(new JsonElementWrapper(key, newElement));
-            selectedNode.add(newNode);
-        }
-        else if (selectedWrapper.getElement().isJsonArray()) {
-            selectedWrapper.getElement().getAsJsonArray().add(newElement);
-            String arrayKey = "[" + (selectedWrapper.getElement().getAsJsonArray().size() - 1) + "]";
-
-            DefaultMutableTreeNode newNode = new DefaultMutableTreeNode(new JsonElementWrapper(arrayKey, newElement));
-            selectedNode.add(newNode);
-        }
-
-        jsonTreeModel.reload(selectedNode);
-        jsonTree.expandPath(selectedPath);
-        updateJsonDataFromTree();
-        refreshDataFromJson();
+        addJsonElement(target, key, new JsonPrimitive(value));
     }
 
     private void addJsonObject() {
-        TreePath selectedPath = jsonTree.getSelectionPath();
-        if (selectedPath == null) {
-            showError("Select a node to add object");
-            return;
-        }
-
-        DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) selectedPath.getLastPathComponent();
-        JsonElementWrapper selectedWrapper = (JsonElementWrapper) selectedNode.getUserObject();
-
-        if (!selectedWrapper.getElement().isJsonObject() && !selectedWrapper.getElement().isJsonArray()) {
-            showError("Can only add to Objects or Arrays");
-            return;
-        }
-
-        String key = JOptionPane.showInputDialog(this, "Enter key name (leave empty for array item):");
-        if (key == null) return; // cancelled
+        JsonTreeModel.Node target = selectedJsonContainer("Select a node to add object");
+        if (target == null) return;
 
-        JsonObject newObject = new JsonObject();
+        String key = askJsonKey(target);
+        if (key == null) return;
 
-        if (selectedWrapper.getElement().isJsonObject()) {
-            if (key.trim().isEmpty()) {
-                showError("Key cannot be empty for Object");
-                return;
-            }
-            selectedWrapper.getElement().getAsJsonObject().add(key, newObject);
+        addJsonElement(target, key, new JsonObject());
+    }
 
-            DefaultMutableTreeNode newNode = new DefaultMutableTreeNode(new JsonElementWrapper(key, newObject));
-            selectedNode.add(newNode);
-        }
-        else if (selectedWrapper.getElement().isJsonArray()) {
-            selectedWrapper.getElement().getAsJsonArray().add(newObject);
-            String arrayKey = "[" + (selectedWrapper.getElement().getAsJsonArray().size() - 1) + "]";
+    private void addJsonArray() {
+        JsonTreeModel.Node target = selectedJsonContainer("Select a node to add array");
+        if (target == null) return;
 
-            DefaultMutableTreeNode newNode = new DefaultMutableTreeNode(new JsonElementWrapper(arrayKey, newObject));
-            selectedNode.add(newNode);
-        }
+        String key = askJsonKey(target);
+        if (key == null) return;
 
-        jsonTreeModel.reload(selectedNode);
-        jsonTree.expandPath(selectedPath);
-        updateJsonDataFromTree();
-        refreshDataFromJson();
+        addJsonElement(target, key, new JsonArray());
     }
 
-    private void addJsonArray() {
+    private JsonTreeModel.Node selectedJsonContainer(String noSelectionMessage) {
         TreePath selectedPath = jsonTree.getSelectionPath();
         if (selectedPath == null) {
-            showError("Select a node to add array");
-            return;
+            showError(noSelectionMessage);
+            return null;
         }
 
-        DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) selectedPath.getLastPathComponent();
-        JsonElementWrapper selectedWrapper = (JsonElementWrapper) selectedNode.getUserObject();
-
-        if (!selectedWrapper.getElement().isJsonObject() && !selectedWrapper.getElement().isJsonArray()) {
+        JsonTreeModel.Node node = (JsonTreeModel.Node) selectedPath.getLastPathComponent();
+        if (!node.getElement().isJsonObject() && !node.getElement().isJsonArray()) {
             showError("Can only add to Objects or Arrays");
-            return;
+            return null;
         }
+        return node;
+    }
 
+    private String askJsonKey(JsonTreeModel.Node target) {
         String key = JOptionPane.showInputDialog(this, "Enter key name (leave empty for array item):");
-        if (key == null) return; // cancelled
-
-        JsonArray newArray = new JsonArray();
+        if (key == null) return null; // cancelled
 
-        if (selectedWrapper.getElement().isJsonObject()) {
-            if (key.trim().isEmpty()) {
-                showError("Key cannot be empty for Object");
-                return;
-            }
-            selectedWrapper.getElement().getAsJsonObject().add(key, newArray);
-
-            DefaultMutableTreeNode newNode = new DefaultMutableTreeNode(new JsonElementWrapper(key, newArray));
-            selectedNode.add(newNode);
+        if (target.getElement().isJsonObject() && key.trim().isEmpty()) {
+            showError("Key cannot be empty for Object");
+            return null;
         }
-        else if (selectedWrapper.getElement().isJsonArray()) {
-            selectedWrapper.getElement().getAsJsonArray().add(newArray);
-            String arrayKey = "[" + (selectedWrapper.getElement().getAsJsonArray().size() - 1) + "]";
+        return key;
+    }
 
-            DefaultMutableTreeNode newNode = new DefaultMutableTreeNode(new JsonElementWrapper(arrayKey, newArray));
-            selectedNode.add(newNode);
-        }
+    private void addJsonElement(JsonTreeModel.Node target, String key, JsonElement element) {
+        JsonTreeModel.Node owner = jsonTreeModel.add(target, key, element);
+        jsonTree.expandPath(jsonTreeModel.getPath(owner));
 
-        jsonTreeModel.reload(selectedNode);
-        jsonTree.expandPath(selectedPath);
-        updateJsonDataFromTree();
-        refreshDataFromJson();
+        if (owner.getElement() == tableArray()) {
+            if (headers != null) {
+                tableModel.addRow(jsonRow(element));
+            }
+        } else {
+            updateTableRow(tableItem(owner));
+        }
+        markJsonDirty();
     }
 
     private void editJsonValue() {
@@ -500,57 +467,27 @@ public class CompleteCsvEditor extends JFrame {
             return;
         }
 
-        DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) selectedPath.getLastPathComponent();
-        JsonElementWrapper selectedWrapper = (JsonElementWrapper) selectedNode.getUserObject();
-
-        if (!selectedWrapper.isPrimitive()) {
+        JsonTreeModel.Node selectedNode = (JsonTreeModel.Node) selectedPath.getLastPathComponent();
+        if (!selectedNode.isPrimitive()) {
             showError("Can only edit primitive values");
             return;
         }
 
-        String currentValue = selectedWrapper.getValueString();
+        String currentValue = selectedNode.getValueString();
         String newValue = JOptionPane.showInputDialog(this, "Edit value:", currentValue);
         if (newValue == null || newValue.equals(currentValue)) return;
+        if (selectedNode.getParent() == null) return;
 
-        // Find the parent and update the actual JSON element
-        DefaultMutableTreeNode parentNode = (DefaultMutableTreeNode) selectedNode.getParent();
-        if (parentNode == null) return;
-
-        JsonElementWrapper parentWrapper = (JsonElementWrapper) parentNode.getUserObject();
-
-        if (parentWrapper.getElement().isJsonObject()) {
-            parentWrapper.getElement().getAsJsonObject().addProperty(selectedWrapper.getKey(), newValue);
-        }
-        else if (parentWrapper.getElement().isJsonArray()) {
-            int index = Integer.parseInt(selectedWrapper.getKey().replaceAll("[\\[\\]]", ""));
-            JsonPrimitive primitive = selectedWrapper.getElement().getAsJsonPrimitive();
-
-            if (primitive.isBoolean()) {
-                parentWrapper.getElement().getAsJsonArray().set(index, new JsonPrimitive(Boolean.parseBoolean(newValue)));
-            }
-            else if (primitive.isNumber()) {
-                try {
-                    parentWrapper.getElement().getAsJsonArray().set(index, new JsonPrimitive(Double.parseDouble(newValue)));
-                } catch (NumberFormatException e) {
-                    showError("Invalid number format");
-                    return;
-                }
-            }
-            else {
-                parentWrapper.getElement().getAsJsonArray().set(index, new JsonPrimitive(newValue));
-            }
+        // Booleans and numbers keep their type
+        try {
+            jsonTreeModel.setValue(selectedNode,
+                    JsonTreeModel.parsePrimitive(selectedNode.getElement().getAsJsonPrimitive(), newValue));
+        } catch (NumberFormatException e) {
+            showError("Invalid number format");
+            return;
         }
 
-        // Update the tree node
-        selectedNode.setUserObject(new JsonElementWrapper(selectedWrapper.getKey(),
-                parentWrapper.getElement().isJsonObject() ?
-                        parentWrapper.getElement().getAsJsonObject().get(selectedWrapper.getKey()) :
-                        parentWrapper.getElement().getAsJsonArray().get(
-                                Integer.parseInt(selectedWrapper.getKey().replaceAll("[\\[\\]]", "")))));
-
-        jsonTreeModel.reload(selectedNode);
-        updateJsonDataFromTree();
-        refreshDataFromJson();
+        jsonValueChanged(selectedNode);
     }
 
     private void removeJsonNode() {
@@ -560,132 +497,256 @@ public class CompleteCsvEditor extends JFrame {
             return;
         }
 
-        DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) selectedPath.getLastPathComponent();
-        JsonElementWrapper selectedWrapper = (JsonElementWrapper) selectedNode.getUserObject();
-
-        DefaultMutableTreeNode parentNode = (DefaultMutableTreeNode) selectedNode.getParent();
-        if (parentNode == null) {
+        JsonTreeModel.Node selectedNode = (JsonTreeModel.Node) selectedPath.getLastPathComponent();
+        if (selectedNode.getParent() == null) {
             showError("Cannot remove root node");
             return;
         }
+        if (selectedNode.isPage()) {
+            showError("Select an item of the page to remove");
+            return;
+        }
 
-        JsonElementWrapper parentWrapper = (JsonElementWrapper) parentNode.getUserObject();
+        JsonTreeModel.Node item = tableItem(selectedNode);
+        boolean tableArrayRemoved = selectedNode.getElement() == tableArray();
+        jsonTreeModel.remove(selectedNode);
 
-        if (parentWrapper.getElement().isJsonObject()) {
-            parentWrapper.getElement().getAsJsonObject().remove(selectedWrapper.getKey());
+        if (tableArrayRemoved) {
+            rebuildTableFromJson();
+        } else if (item == selectedNode) {
+            tableModel.removeRow(item.getPosition());
+        } else {
+            updateTableRow(item);
         }
-        else if (parentWrapper.getElement().isJsonArray()) {
-            int index = Integer.parseInt(selectedWrapper.getKey().replaceAll("[\\[\\]]", ""));
-            parentWrapper.getElement().getAsJsonArray().remove(index);
+        markJsonDirty();
+    }
+
+    private void jsonValueChanged(JsonTreeModel.Node node) {
+        updateTableRow(tableItem(node));
+        markJsonDirty();
+    }
 
-            // Update keys for remaining array items
-            for (int i = 0; i < parentNode.getChildCount(); i++) {
-                DefaultMutableTreeNode child = (DefaultMutableTreeNode) parentNode.getChildAt(i);
-                JsonElementWrapper childWrapper = (JsonElementWrapper) child.getUserObject();
-                if (childWrapper.getKey().startsWith("[")) {
-                    child.setUserObject(new JsonElementWrapper("[" + i + "]", childWrapper.getElement()));
+    // The array the table rows were read from: the root array or the first array property
+    private JsonArray tableArray() {
+        JsonElement root = jsonTreeModel.getRootElement();
+        if (root == null) return null;
+        if (root.isJsonArray()) return root.getAsJsonArray();
+        if (root.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject().entrySet()) {
+                if (entry.getValue().isJsonArray()) {
+                    return entry.getValue().getAsJsonArray();
                 }
             }
         }
+        return null;
+    }
 
-        jsonTreeModel.removeNodeFromParent(selectedNode);
-        updateJsonDataFromTree();
-        refreshDataFromJson();
+    // Item of the table array that contains the node, i.e. the table row it belongs to
+    private JsonTreeModel.Node tableItem(JsonTreeModel.Node node) {
+        JsonArray array = tableArray();
+        for (JsonTreeModel.Node current = node; current != null && current.getParent() != null;
+             current = current.getParent()) {
+            if (!current.isPage() && current.getParent().getElement() == array) {
+                return current;
+            }
+        }
+        return null;
     }
 
-    private void refreshDataFromJson() {
-        if (currentFile != null && currentFile.getName().toLowerCase().endsWith(".json")) {
-            // Clear current data
-            data.clear();
-            tableModel.setRowCount(0);
+    private void updateTableRow(JsonTreeModel.Node item) {
+        if (item == null || headers == null || item.getPosition() >= data.size()) return;
+        tableModel.setRow(item.getPosition(), jsonRow(item.getElement()));
+    }
 
-            // Reload from JSON
-            try (BufferedReader reader = new BufferedReader(new FileReader(currentFile))) {
-                JsonElement jsonElement = new Gson().fromJson(reader, JsonElement.class);
+    private String[] jsonRow(JsonElement element) {
+        return jsonRow(element, headers);
+    }
 
-                if (jsonElement.isJsonArray()) {
-                    JsonArray jsonArray = jsonElement.getAsJsonArray();
-                    if (jsonArray.size() > 0 && jsonArray.get(0).isJsonObject()) {
-                        JsonObject firstObj = jsonArray.get(0).getAsJsonObject();
-                        headers = firstObj.keySet().toArray(new String[0]);
-                        tableModel.setColumnIdentifiers(headers);
+    private static String[] jsonRow(JsonElement element, String[] columns) {
+        String[] row = new String[columns.length];
+        JsonObject obj = element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = jsonCellText(obj.get(columns[i]));
+        }
+        return row;
+    }
 
-                        for (JsonElement element : jsonArray) {
-                            if (element.isJsonObject()) {
-                                JsonObject obj = element.getAsJsonObject();
-                                String[] row = new String[headers.length];
-                                for (int i = 0; i < headers.length; i++) {
-                                    JsonElement value = obj.get(headers[i]);
-                                    row[i] = (value != null && !value.isJsonNull()) ? value.getAsString() : "";
-                                }
-                                data.add(row);
-                                tableModel.addRow(row);
-                            }
-                        }
-                    }
-                }
-                updateJsonTree();
-                generateSqlQuery(); // Refresh SQL preview
-            } catch (Exception ex) {
-                showError("Error refreshing JSON data: " + ex.getMessage());
-            }
+    // Columns of the JSON document as a table: the keys of the first item of the table array,
+    // or of the root object when there is no array; null when there are no objects
+    private String[] jsonTableHeaders() {
+        JsonArray array = tableArray();
+        JsonElement first = array == null ? jsonTreeModel.getRootElement() : array.size() > 0 ? array.get(0) : null;
+        return first != null && first.isJsonObject() ? first.getAsJsonObject().keySet().toArray(new String[0]) : null;
+    }
+
+    // Rows of the JSON document as a table, read from the tree as the writer asks for them
+    private Iterable<String[]> jsonTableRows(String[] columns, long limit) {
+        JsonArray array = tableArray();
+        Iterable<JsonElement> items = array != null ? array : Collections.singletonList(jsonTreeModel.getRootElement());
+        return () -> StreamSupport.stream(items.spliterator(), false)
+                .filter(JsonElement::isJsonObject)
+                .limit(limit)
+                .map(item -> jsonRow(item, columns))
+                .iterator();
+    }
+
+    // The table of a JSON file edits the parsed document itself, so the tree, Save and
+    // autosave all see table edits; the document is parsed on the first edit
+    private JsonArray editableJsonArray() {
+        if (currentFile == null || !currentFile.getName().toLowerCase().endsWith(".json") || jsonRoot() == null) {
+            return null;
         }
+        return tableArray();
     }
 
-    private void updateJsonTree() {
-        if (currentFile == null || !currentFile.getName().toLowerCase().endsWith(".json")) {
-            return;
+    private void jsonCellEdited(int modelRow, int column) {
+        JsonArray array = editableJsonArray();
+        if (array == null || modelRow >= array.size() || !array.get(modelRow).isJsonObject()) return;
+
+        JsonObject item = array.get(modelRow).getAsJsonObject();
+        String key = headers[column];
+        String text = tableModel.getText(modelRow, column);
+        JsonElement current = item.get(key);
+        if (text.equals(jsonCellText(current))) return;
+
+        item.add(key, jsonValue(current, text));
+        if (!batchUpdating) {
+            jsonTreeModel.elementChanged(item);
+            markJsonDirty();
         }
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(currentFile))) {
-            JsonElement jsonElement = new Gson().fromJson(reader, JsonElement.class);
-            currentJsonRoot = jsonElement;
-            DefaultMutableTreeNode rootNode = new DefaultMutableTreeNode(new JsonElementWrapper("root", jsonElement));
-            buildTree(jsonElement, rootNode);
-            jsonTreeModel.setRoot(rootNode);
-            jsonTree.setModel(jsonTreeModel); // Explicitly set model to ensure refresh
-            expandAllNodes(jsonTree, 0, jsonTree.getRowCount());
-        } catch (Exception ex) {
-            showError("Error updating JSON tree: " + ex.getMessage());
+    private void jsonRowAdded(String[] row) {
+        JsonArray array = editableJsonArray();
+        if (array == null) return;
+
+        JsonObject item = new JsonObject();
+        for (int i = 0; i < headers.length; i++) {
+            item.addProperty(headers[i], row[i]);
         }
+        array.add(item);
+        jsonTreeModel.elementChanged(array);
+        markJsonDirty();
     }
 
-    private void buildTree(JsonElement element, DefaultMutableTreeNode parentNode) {
-        if (element.isJsonObject()) {
-            JsonObject obj = element.getAsJsonObject();
-            for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-                DefaultMutableTreeNode childNode = new DefaultMutableTreeNode(
-                        new JsonElementWrapper(entry.getKey(), entry.getValue()));
-                parentNode.add(childNode);
-                buildTree(entry.getValue(), childNode);
+    private void jsonRowRemoved(int modelRow) {
+        JsonArray array = editableJsonArray();
+        if (array == null || modelRow >= array.size()) return;
+
+        array.remove(modelRow);
+        jsonTreeModel.elementChanged(array);
+        markJsonDirty();
+    }
+
+    // Cell text as a JSON value of the same kind as the one it replaces
+    private static JsonElement jsonValue(JsonElement current, String text) {
+        if (current != null && current.isJsonPrimitive()) {
+            try {
+                return JsonTreeModel.parsePrimitive(current.getAsJsonPrimitive(), text);
+            } catch (NumberFormatException e) {
+                return new JsonPrimitive(text);
             }
-        } else if (element.isJsonArray()) {
-            JsonArray array = element.getAsJsonArray();
-            for (int i = 0; i < array.size(); i++) {
-                DefaultMutableTreeNode childNode = new DefaultMutableTreeNode(
-                        new JsonElementWrapper("[" + i + "]", array.get(i)));
-                parentNode.add(childNode);
-                buildTree(array.get(i), childNode);
+        }
+        if (current != null && (current.isJsonObject() || current.isJsonArray())) {
+            try {
+                return JsonParser.parseString(text);
+            } catch (JsonParseException e) {
+                return new JsonPrimitive(text);
             }
         }
+        return new JsonPrimitive(text);
     }
 
-    private void updateJsonDataFromTree() {
-        DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) jsonTreeModel.getRoot();
-        if (rootNode == null) return;
+    // Only needed when the array behind the table itself is removed
+    private void rebuildTableFromJson() {
+        JsonArray array = tableArray();
+        List<String[]> rows = new ArrayList<>();
+        if (array != null && array.size() > 0 && array.get(0).isJsonObject()) {
+            headers = array.get(0).getAsJsonObject().keySet().toArray(new String[0]);
+            for (JsonElement element : array) {
+                rows.add(jsonRow(element));
+            }
+        } else {
+            headers = new String[0];
+        }
+        tableModel.setData(headers, rows);
+    }
+
+    private void markJsonDirty() {
+        jsonDirty = true;
+        updateStatus("JSON modified, not saved yet");
+        generateSqlQuery();
+    }
+
+    private void setupJsonAutosave() {
+        javax.swing.Timer autosaveTimer = new javax.swing.Timer(JSON_AUTOSAVE_MILLIS, e -> {
+            if (jsonDirty && saveJsonDocument()) {
+                updateStatus("JSON autosaved: " + jsonDocumentFile.getName());
+            }
+        });
+        autosaveTimer.start();
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                saveJsonDocument();
+            }
+        });
+    }
 
-        JsonElementWrapper rootWrapper = (JsonElementWrapper) rootNode.getUserObject();
-        JsonElement rootElement = rootWrapper.getElement();
+    // Writes pending tree edits; a temporary file is renamed over the original so a failed write never truncates it
+    private boolean saveJsonDocument() {
+        if (!jsonDirty || jsonDocumentFile == null) return true;
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(currentFile))) {
-            writer.write(new GsonBuilder().setPrettyPrinting().create().toJson(rootElement));
-            updateStatus("JSON data updated");
+        Path target = jsonDocumentFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+                writer.setIndent("  ");
+                new Gson().toJson(jsonTreeModel.getRootElement(), writer);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            jsonDirty = false;
+            return true;
         } catch (Exception ex) {
             showError("Error saving JSON data: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private void ensureJsonTree() {
+        if (jsonTreeStale) {
+            jsonTreeStale = false;
+            updateJsonTree();
+        }
+    }
+
+    // Root of the JSON document, parsing the file first if it has not been shown yet; null without JSON data
+    private JsonElement jsonRoot() {
+        ensureJsonTree();
+        return jsonTreeModel.getRootElement();
+    }
+
+    private void updateJsonTree() {
+        if (currentFile == null || !currentFile.getName().toLowerCase().endsWith(".json")) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(currentFile), StandardCharsets.UTF_8))) {
+            // Only the root node is created here; the model adds children as they are expanded
+            jsonTreeModel.setRoot(JsonParser.parseReader(reader));
+            jsonDocumentFile = currentFile;
+            jsonDirty = false;
+            jsonTree.expandRow(0);
+        } catch (Exception ex) {
+            showError("Error updating JSON tree: " + ex.getMessage());
         }
     }
 
     private void showBatchUpdateDialog() {
+        if (rejectIfMapped()) return;
+
         if (headers == null || headers.length == 0) {
             showError("No data loaded");
             return;
@@ -738,31 +799,41 @@ public class CompleteCsvEditor extends JFrame {
 
         int updatedCount = 0;
 
-        for (int i = 0; i < tableModel.getRowCount(); i++) {
-            String currentValue = (String) tableModel.getValueAt(i, columnIndex);
-            if (currentValue == null) continue;
-
-            String newValue;
-            if (useRegex) {
-                try {
-                    String pattern = caseSensitive ? searchValue : "(?i)" + searchValue;
-                    newValue = currentValue.replaceAll(pattern, replaceValue);
-                } catch (Exception e) {
-                    showError("Invalid regular expression: " + e.getMessage());
-                    return;
-                }
-            } else {
-                if (caseSensitive) {
-                    newValue = currentValue.replace(searchValue, replaceValue);
+        batchUpdating = true;
+        try {
+            for (int i = 0; i < tableModel.getRowCount(); i++) {
+                String currentValue = (String) tableModel.getValueAt(i, columnIndex);
+                if (currentValue == null) continue;
+
+                String newValue;
+                if (useRegex) {
+                    try {
+                        String pattern = caseSensitive ? searchValue : "(?i)" + searchValue;
+                        newValue = currentValue.replaceAll(pattern, replaceValue);
+                    } catch (Exception e) {
+                        showError("Invalid regular expression: " + e.getMessage());
+                        return;
+                    }
                 } else {
-                    newValue = currentValue.replaceAll("(?i)" + Pattern.quote(searchValue), replaceValue);
+                    if (caseSensitive) {
+                        newValue = currentValue.replace(searchValue, replaceValue);
+                    } else {
+                        newValue = currentValue.replaceAll("(?i)" + Pattern.quote(searchValue), replaceValue);
+                    }
                 }
-            }
 
-            if (!newValue.equals(currentValue)) {
-                tableModel.setValueAt(newValue, i, columnIndex);
-                data.get(i)[columnIndex] = newValue;
-                updatedCount++;
+                if (!newValue.equals(currentValue)) {
+                    tableModel.setValueAt(newValue, i, columnIndex);
+                    updatedCount++;
+                }
+            }
+        } finally {
+            batchUpdating = false;
+            // A JSON table's tree hears about the whole batch at once
+            JsonArray array = updatedCount > 0 ? editableJsonArray() : null;
+            if (array != null) {
+                jsonTreeModel.elementChanged(array);
+                markJsonDirty();
             }
         }
 
@@ -770,18 +841,20 @@ public class CompleteCsvEditor extends JFrame {
     }
 
     private void showFilterDialog() {
+        if (rejectIfMapped()) return;
+
         if (headers == null || headers.length == 0) {
             showError("No data loaded to filter");
             return;
         }
 
-        JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
+        JPanel panel = new JPanel(new GridLayout(4, 2, 5, 5));
 
         JComboBox<String> columnCombo = new JComboBox<>(headers);
-        JComboBox<String> operatorCombo = new JComboBox<>(new String[]{
-                "contains", "equals", "starts with", "ends with", "is empty", "is not empty"
-        });
+        JComboBox<FilterOperator> operatorCombo = new JComboBox<>(FilterOperator.values());
         JTextField valueField = new JTextField();
+        JComboBox<FilterCombination> combineCombo = new JComboBox<>(FilterCombination.values());
+        combineCombo.setEnabled(activeFilter != null);
 
         panel.add(new JLabel("Column:"));
         panel.add(columnCombo);
@@ -789,50 +862,83 @@ public class CompleteCsvEditor extends JFrame {
         panel.add(operatorCombo);
         panel.add(new JLabel("Value:"));
         panel.add(valueField);
+        panel.add(new JLabel("Combine:"));
+        panel.add(combineCombo);
 
         int result = JOptionPane.showConfirmDialog(
                 this, panel, "Filter Data", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
         if (result == JOptionPane.OK_OPTION) {
-            String column = (String) columnCombo.getSelectedItem();
-            String operator = (String) operatorCombo.getSelectedItem();
-            String value = valueField.getText().toLowerCase();
+            FilterCondition condition = new FilterCondition(columnCombo.getSelectedIndex(),
+                    (FilterOperator) operatorCombo.getSelectedItem(), valueField.getText());
+            applyFilter(condition, (FilterCombination) combineCombo.getSelectedItem());
+        }
+    }
 
-            int columnIndex = Arrays.asList(headers).indexOf(column);
-            applyFilter(columnIndex, operator, value);
+    private void applyFilter(FilterCondition condition, FilterCombination combination) {
+        // Compiled once; the column index answers the condition when it is ready
+        IntPredicate predicate = FilterCompiler.compile(tableModel, indexer.getIndex(), condition);
+        if (combination == FilterCombination.REPLACE) {
+            detachQuery();
         }
+        activeFilter = combination.apply(activeFilter, predicate);
+
+        sorter.setRowFilter(FilterCompiler.toRowFilter(activeFilter));
+        updateStatus("Filter applied: " + condition.getOperator() + " '" + condition.getValue() + "'"
+                + " (" + table.getRowCount() + " rows)");
     }
 
-    private void applyFilter(int columnIndex, String operator, String value) {
-        RowFilter<DefaultTableModel, Object> filter = new RowFilter<DefaultTableModel, Object>() {
-            @Override
-            public boolean include(Entry<? extends DefaultTableModel, ? extends Object> entry) {
-                String cellValue = entry.getStringValue(columnIndex).toLowerCase();
-
-                switch (operator) {
-                    case "contains":
-                        return cellValue.contains(value);
-                    case "equals":
-                        return cellValue.equals(value);
-                    case "starts with":
-                        return cellValue.startsWith(value);
-                    case "ends with":
-                        return cellValue.endsWith(value);
-                    case "is empty":
-                        return cellValue.trim().isEmpty();
-                    case "is not empty":
-                        return !cellValue.trim().isEmpty();
-                    default:
-                        return true;
-                }
-            }
-        };
+    private void runQuery(String text) {
+        if (rejectIfMapped()) return;
 
-        sorter.setRowFilter(filter);
-        updateStatus("Filter applied: " + operator + " '" + value + "'");
+        if (text.isEmpty()) {
+            clearFilter();
+            return;
+        }
+        if (headers == null || headers.length == 0) {
+            showError("No data loaded to filter");
+            return;
+        }
+
+        Query query;
+        try {
+            query = Query.compile(text, headers, tableModel, indexer.getIndex());
+        } catch (IllegalArgumentException ex) {
+            showError("Invalid query: " + ex.getMessage());
+            return;
+        }
+
+        long start = System.nanoTime();
+        int matches = query.run(data.size());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        detachQuery();
+        query.attach(tableModel);
+        activeQuery = query;
+        activeFilter = query;
+        sorter.setRowFilter(FilterCompiler.toRowFilter(activeFilter));
+        updateStatus("Query matched " + matches + " of " + data.size() + " rows (" + millis + " ms)");
+    }
+
+    private void detachQuery() {
+        if (activeQuery != null) {
+            activeQuery.detach();
+            activeQuery = null;
+        }
+    }
+
+    private void clearFilter() {
+        if (rejectIfMapped()) return;
+
+        detachQuery();
+        activeFilter = null;
+        sorter.setRowFilter(null);
+        updateStatus("Filter cleared");
     }
 
     private void showSortDialog() {
+        if (rejectIfMapped()) return;
+
         if (headers == null || headers.length == 0) {
             showError("No data loaded to sort");
             return;
@@ -919,13 +1025,22 @@ public class CompleteCsvEditor extends JFrame {
         copyButton.addActionListener(e -> copyToClipboard());
         sqlTopPanel.add(copyButton);
 
+        JButton runButton = new JButton("Run SQL");
+        runButton.setToolTipText("Run the selected text, or the SELECT statement at the cursor, against the loaded table");
+        runButton.addActionListener(e -> runSql());
+        sqlTopPanel.add(runButton);
+
         sqlPanel.add(sqlTopPanel, BorderLayout.NORTH);
 
         sqlQueryArea = new JTextArea();
         sqlQueryArea.setFont(new java.awt.Font("Monospaced", java.awt.Font.PLAIN, 12));
-        sqlQueryArea.setEditable(false);
         sqlPanel.add(new JScrollPane(sqlQueryArea), BorderLayout.CENTER);
 
+        sqlResultModel = new RowListTableModel(new ArrayList<>());
+        sqlResultModel.setEditable(false);
+        sqlResultPanel = new JPanel(new BorderLayout());
+        sqlResultPanel.add(new JScrollPane(new JTable(sqlResultModel)), BorderLayout.CENTER);
+
         rightPanel.add(exportPanel);
         rightPanel.add(previewPanel);
         rightPanel.add(sqlPanel);
@@ -998,11 +1113,10 @@ public class CompleteCsvEditor extends JFrame {
     }
 
     private String generateXmlFromJson() {
-        DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) jsonTreeModel.getRoot();
-        if (rootNode == null) return "No JSON data to convert to XML";
+        JsonElement rootElement = jsonRoot();
+        if (rootElement == null) return "No JSON data to convert to XML";
 
-        JsonElementWrapper rootWrapper = (JsonElementWrapper) rootNode.getUserObject();
-        return convertJsonToXml(rootWrapper.getElement(), "root");
+        return convertJsonToXml(rootElement, "root");
     }
 
     private String convertJsonToXml(JsonElement element, String name) {
@@ -1037,82 +1151,8 @@ public class CompleteCsvEditor extends JFrame {
         return xml.toString();
     }
 
-    private String generateSqlFromJson() {
-        DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) jsonTreeModel.getRoot();
-        if (rootNode == null) {
-            return "-- No JSON data available for SQL export";
-        }
-
-        JsonElementWrapper rootWrapper = (JsonElementWrapper) rootNode.getUserObject();
-        JsonElement rootElement = rootWrapper.getElement();
-
-        StringBuilder sql = new StringBuilder();
-        sql.append("-- SQL Export from JSON - Generated on ").append(new Date()).append("\n\n");
-
-        if (rootElement.isJsonArray()) {
-            JsonArray array = rootElement.getAsJsonArray();
-            if (array.size() > 0 && array.get(0).isJsonObject()) {
-                JsonObject firstObj = array.get(0).getAsJsonObject();
-
-                // CREATE TABLE statement
-                sql.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (\n");
-                sql.append("  id INT AUTO_INCREMENT PRIMARY KEY,\n");
-
-                for (Map.Entry<String, JsonElement> entry : firstObj.entrySet()) {
-                    sql.append("  ").append(entry.getKey()).append(" VARCHAR(255),\n");
-                }
-                sql.append(");\n\n");
-
-                // INSERT statements
-                sql.append("-- INSERT statements\n");
-                for (JsonElement element : array) {
-                    if (element.isJsonObject()) {
-                        JsonObject obj = element.getAsJsonObject();
-                        sql.append("INSERT INTO ").append(tableName).append(" (")
-                                .append(String.join(", ", obj.keySet())).append(")\nVALUES (");
-
-                        boolean first = true;
-                        for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-                            if (!first) sql.append(", ");
-                            String value = entry.getValue().isJsonNull() ? "" : entry.getValue().getAsString();
-                            sql.append("'").append(escapeSql(value)).append("'");
-                            first = false;
-                        }
-                        sql.append(");\n");
-                    }
-                }
-            }
-        } else if (rootElement.isJsonObject()) {
-            JsonObject obj = rootElement.getAsJsonObject();
-
-            // CREATE TABLE statement
-            sql.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (\n");
-            sql.append("  id INT AUTO_INCREMENT PRIMARY KEY,\n");
-
-            for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-                sql.append("  ").append(entry.getKey()).append(" VARCHAR(255),\n");
-            }
-            sql.append(");\n\n");
-
-            // INSERT statement
-            sql.append("INSERT INTO ").append(tableName).append(" (")
-                    .append(String.join(", ", obj.keySet())).append(")\nVALUES (");
-
-            boolean first = true;
-            for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-                if (!first) sql.append(", ");
-                String value = entry.getValue().isJsonNull() ? "" : entry.getValue().getAsString();
-                sql.append("'").append(escapeSql(value)).append("'");
-                first = false;
-            }
-            sql.append(");\n");
-        }
-
-        return sql.toString();
-    }
-
     private void exportJsonFromTree() {
-        if (jsonTreeModel.getRoot() == null) {
+        if (jsonRoot() == null) {
             showError("No JSON data to export");
             return;
         }
@@ -1139,7 +1179,7 @@ public class CompleteCsvEditor extends JFrame {
     }
 
     private void exportXmlFromJson() {
-        if (jsonTreeModel.getRoot() == null) {
+        if (jsonRoot() == null) {
             showError("No JSON data to export");
             return;
         }
@@ -1165,35 +1205,39 @@ public class CompleteCsvEditor extends JFrame {
         }
     }
 
-    private void exportSqlFromJson() {
-        if (jsonTreeModel.getRoot() == null) {
-            showError("No JSON data to export");
-            return;
+    // SQL export preview of a JSON document, from its first rows
+    private String generateSqlFromJson() {
+        if (jsonRoot() == null) {
+            return "-- No JSON data available for SQL export";
         }
+        String[] columns = jsonTableHeaders();
+        if (columns == null) {
+            return "-- No JSON objects to export";
+        }
+        try {
+            String sql = Converter.toText(TableFormat.SQL, columns, jsonTableRows(columns, SQL_PREVIEW_ROWS),
+                    delimiterCombo.getSelectedItem().toString(), sqlOptions());
+            JsonArray array = tableArray();
+            return array != null && array.size() > SQL_PREVIEW_ROWS
+                    ? sql + "\n-- Preview of the first " + SQL_PREVIEW_ROWS + " of " + array.size() + " rows\n"
+                    : sql;
+        } catch (IOException ex) {
+            return "Error: " + ex.getMessage();
+        }
+    }
 
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new javax.swing.filechooser.FileFilter() {
-            @Override public boolean accept(File f) {
-                return f.isDirectory() || f.getName().toLowerCase().endsWith(".sql");
-            }
-            @Override public String getDescription() {
-                return "SQL Files (*.sql)";
-            }
-        });
-
-        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            File file = ensureFileExtension(fileChooser.getSelectedFile(), "sql");
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(generateSqlFromJson());
-                updateStatus("SQL data exported to: " + file.getName());
-            } catch (Exception ex) {
-                showError("Error exporting SQL: " + ex.getMessage());
-            }
+    // Streams the JSON document's rows into the writer without building the output in memory
+    private void writeJsonTable(File file, TableFormat format) throws IOException {
+        String[] columns = jsonRoot() != null ? jsonTableHeaders() : null;
+        if (columns == null) {
+            throw new IOException("No JSON objects to export");
         }
+        Converter.write(columns, jsonTableRows(columns, Long.MAX_VALUE), Converter.openWriter(format,
+                Files.newOutputStream(file.toPath()), delimiterCombo.getSelectedItem().toString(), sqlOptions()));
     }
 
     private void exportExcelFromJson() {
-        if (jsonTreeModel.getRoot() == null) {
+        if (jsonRoot() == null) {
             showError("No JSON data to export");
             return;
         }
@@ -1210,77 +1254,40 @@ public class CompleteCsvEditor extends JFrame {
 
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = ensureFileExtension(fileChooser.getSelectedFile(), "xlsx");
+            if (file.exists() && !confirmWorkbookOverwrite(file)) {
+                return;
+            }
 
-            try (Workbook workbook = new XSSFWorkbook()) {
-                Sheet sheet = workbook.createSheet("JSON Data");
-
-                // Get JSON data
-                DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) jsonTreeModel.getRoot();
-                JsonElementWrapper rootWrapper = (JsonElementWrapper) rootNode.getUserObject();
-                JsonElement rootElement = rootWrapper.getElement();
-
-                // Create header style
-                CellStyle headerStyle = workbook.createCellStyle();
-                org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
-                headerFont.setBold(true);
-                headerStyle.setFont(headerFont);
+            // Get JSON data
+            JsonElement rootElement = jsonRoot();
 
+            try (TableWriter writer = new XlsxTableWriter(
+                    new BufferedOutputStream(Files.newOutputStream(file.toPath())), "JSON Data")) {
                 if (rootElement.isJsonArray()) {
                     JsonArray array = rootElement.getAsJsonArray();
                     if (array.size() > 0 && array.get(0).isJsonObject()) {
-                        // Write headers from first object
-                        JsonObject firstObj = array.get(0).getAsJsonObject();
-                        Row headerRow = sheet.createRow(0);
-                        int col = 0;
-                        for (String key : firstObj.keySet()) {
-                            Cell cell = headerRow.createCell(col++);
-                            cell.setCellValue(key);
-                            cell.setCellStyle(headerStyle);
-                        }
-
-                        // Write data
-                        int rowNum = 1;
+                        // Headers from the first object; values are looked up by key
+                        String[] headers = array.get(0).getAsJsonObject().keySet().toArray(new String[0]);
+                        writer.headers(headers);
                         for (JsonElement element : array) {
                             if (element.isJsonObject()) {
                                 JsonObject obj = element.getAsJsonObject();
-                                Row row = sheet.createRow(rowNum++);
-                                int cellNum = 0;
-                                for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-                                    row.createCell(cellNum++).setCellValue(entry.getValue().getAsString());
+                                String[] row = new String[headers.length];
+                                for (int i = 0; i < headers.length; i++) {
+                                    row[i] = jsonCellText(obj.get(headers[i]));
                                 }
+                                writer.row(row);
                             }
                         }
                     }
                 } else if (rootElement.isJsonObject()) {
                     // For single object, create two-column layout (key, value)
-                    JsonObject obj = rootElement.getAsJsonObject();
-
-                    // Write headers
-                    Row headerRow = sheet.createRow(0);
-                    headerRow.createCell(0).setCellValue("Key");
-                    headerRow.createCell(1).setCellValue("Value");
-                    headerRow.getCell(0).setCellStyle(headerStyle);
-                    headerRow.getCell(1).setCellStyle(headerStyle);
-
-                    // Write data
-                    int rowNum = 1;
-                    for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-                        Row row = sheet.createRow(rowNum++);
-                        row.createCell(0).setCellValue(entry.getKey());
-                        row.createCell(1).setCellValue(entry.getValue().getAsString());
+                    writer.headers(new String[]{"Key", "Value"});
+                    for (Map.Entry<String, JsonElement> entry : rootElement.getAsJsonObject().entrySet()) {
+                        writer.row(new String[]{entry.getKey(), jsonCellText(entry.getValue())});
                     }
                 }
 
-                // Auto-size columns
-                for (int i = 0; i < sheet.getRow(0).getLastCellNum(); i++) {
-                    sheet.autoSizeColumn(i);
-                }
-
-                // Save file
-                try (FileOutputStream outputStream = new FileOutputStream(file)) {
-                    workbook.write(outputStream);
-                }
-
                 updateStatus("JSON data exported to Excel: " + file.getName());
             } catch (Exception ex) {
                 showError("Error exporting Excel: " + ex.getMessage());
@@ -1288,85 +1295,76 @@ public class CompleteCsvEditor extends JFrame {
         }
     }
 
+    private static String jsonCellText(JsonElement value) {
+        if (value == null || value.isJsonNull()) return "";
+        return value.isJsonPrimitive() ? value.getAsString() : value.toString();
+    }
+
     private String generateJson() {
         if (data.isEmpty()) return "No data to export";
-
-        JsonArray jsonArray = new JsonArray();
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-        for (String[] row : data) {
-            JsonObject jsonObject = new JsonObject();
-            for (int j = 0; j < headers.length; j++) {
-                jsonObject.addProperty(headers[j], row[j] != null ? row[j] : "");
-            }
-            jsonArray.add(jsonObject);
-        }
-
-        return gson.toJson(jsonArray);
+        return generateTable(TableFormat.JSON);
     }
 
     private String generateJsonFromTree() {
-        DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) jsonTreeModel.getRoot();
-        if (rootNode == null) return "No JSON data";
+        JsonElement rootElement = jsonRoot();
+        if (rootElement == null) return "No JSON data";
 
-        JsonElementWrapper rootWrapper = (JsonElementWrapper) rootNode.getUserObject();
-        return new GsonBuilder().setPrettyPrinting().create().toJson(rootWrapper.getElement());
+        return new GsonBuilder().setPrettyPrinting().create().toJson(rootElement);
     }
 
     private String generateXml() {
         if (data.isEmpty()) return "No data to export";
-
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<data>\n");
-
-        for (String[] row : data) {
-            xml.append("  <row>\n");
-            for (int j = 0; j < headers.length; j++) {
-                String value = row[j] != null ? escapeXml(row[j]) : "";
-                xml.append(String.format("    <%s>%s</%s>\n", headers[j], value, headers[j]));
-            }
-            xml.append("  </row>\n");
-        }
-
-        xml.append("</data>");
-        return xml.toString();
+        return generateTable(TableFormat.XML);
     }
 
     private String generateSqlExport() {
         if (data.isEmpty() || headers == null || headers.length == 0) {
             return "-- No data available for SQL export";
         }
+        return generateTable(TableFormat.SQL);
+    }
 
-        StringBuilder sql = new StringBuilder();
-        sql.append("-- SQL Export - Generated on ").append(new Date()).append("\n\n");
+    // Preview text from the same writers the exports and the command line use
+    private String generateTable(TableFormat format) {
+        try {
+            return Converter.toText(format, headers, data, delimiterCombo.getSelectedItem().toString(), sqlOptions());
+        } catch (IOException ex) {
+            return "Error: " + ex.getMessage();
+        }
+    }
 
-        // CREATE TABLE statement
-        sql.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (\n");
-        sql.append("  id INT AUTO_INCREMENT PRIMARY KEY,\n");
+    private void writeTable(File file, TableFormat format) throws IOException {
+        Converter.write(headers, data, Converter.openWriter(format,
+                Files.newOutputStream(file.toPath()), delimiterCombo.getSelectedItem().toString(), sqlOptions()));
+    }
 
-        for (int i = 0; i < headers.length; i++) {
-            sql.append("  ").append(headers[i]).append(" VARCHAR(255)");
-            if (i < headers.length - 1) sql.append(",");
-            sql.append("\n");
-        }
-        sql.append(");\n\n");
+    private SqlOptions sqlOptions() {
+        return new SqlOptions(tableName, sqlDialect, sqlBatchSize, sqlTransactionSize);
+    }
 
-        // INSERT statements
-        sql.append("-- INSERT statements\n");
-        for (String[] row : data) {
-            sql.append("INSERT INTO ").append(tableName).append(" (")
-                    .append(String.join(", ", headers)).append(")\nVALUES (");
+    // Dialect, rows per INSERT and rows per transaction of the SQL export
+    private boolean showSqlOptionsDialog() {
+        JComboBox<SqlDialect> dialectCombo = new JComboBox<>(SqlDialect.values());
+        dialectCombo.setSelectedItem(sqlDialect);
+        JSpinner batchSpinner = new JSpinner(new SpinnerNumberModel(sqlBatchSize, 1, 100_000, 100));
+        JSpinner transactionSpinner = new JSpinner(new SpinnerNumberModel(sqlTransactionSize, 0, 10_000_000, 1000));
 
-            for (int j = 0; j < headers.length; j++) {
-                String value = row[j] != null ? escapeSql(row[j]) : "";
-                sql.append("'").append(value).append("'");
-                if (j < headers.length - 1) sql.append(", ");
-            }
-            sql.append(");\n");
-        }
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(new JLabel("Dialect:"));
+        panel.add(dialectCombo);
+        panel.add(new JLabel("Rows per INSERT:"));
+        panel.add(batchSpinner);
+        panel.add(new JLabel("Commit every (rows, 0 = off):"));
+        panel.add(transactionSpinner);
 
-        return sql.toString();
+        if (JOptionPane.showConfirmDialog(this, panel, "SQL Export", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return false;
+        }
+        sqlDialect = (SqlDialect) dialectCombo.getSelectedItem();
+        sqlBatchSize = (Integer) batchSpinner.getValue();
+        sqlTransactionSize = (Integer) transactionSpinner.getValue();
+        return true;
     }
 
     private void exportToJson() {
@@ -1388,8 +1386,8 @@ public class CompleteCsvEditor extends JFrame {
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = ensureFileExtension(fileChooser.getSelectedFile(), "json");
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(generateJson());
+            try {
+                writeTable(file, TableFormat.JSON);
                 updateStatus("Data exported to JSON: " + file.getName());
             } catch (Exception ex) {
                 showError("Error exporting JSON: " + ex.getMessage());
@@ -1416,8 +1414,8 @@ public class CompleteCsvEditor extends JFrame {
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = ensureFileExtension(fileChooser.getSelectedFile(), "xml");
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(generateXml());
+            try {
+                writeTable(file, TableFormat.XML);
                 updateStatus("Data exported to XML: " + file.getName());
             } catch (Exception ex) {
                 showError("Error exporting XML: " + ex.getMessage());
@@ -1443,14 +1441,17 @@ public class CompleteCsvEditor extends JFrame {
 
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = ensureFileExtension(fileChooser.getSelectedFile(), "sql");
+            boolean fromJson = currentFile != null && currentFile.getName().toLowerCase().endsWith(".json");
+            if (!showSqlOptionsDialog()) {
+                return;
+            }
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                // Generate appropriate SQL based on file type
-                String sqlContent = currentFile != null && currentFile.getName().toLowerCase().endsWith(".json")
-                        ? generateSqlFromJson()
-                        : generateSqlExport();
-
-                writer.write(sqlContent);
+            try {
+                if (fromJson) {
+                    writeJsonTable(file, TableFormat.SQL);
+                } else {
+                    writeTable(file, TableFormat.SQL);
+                }
                 updateStatus("Data exported to SQL: " + file.getName());
             } catch (Exception ex) {
                 showError("Error exporting SQL: " + ex.getMessage());
@@ -1476,42 +1477,12 @@ public class CompleteCsvEditor extends JFrame {
 
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = ensureFileExtension(fileChooser.getSelectedFile(), "xlsx");
+            if (file.exists() && !confirmWorkbookOverwrite(file)) {
+                return;
+            }
 
-            try (Workbook workbook = new XSSFWorkbook()) {
-                Sheet sheet = workbook.createSheet("Data");
-
-                // Create header style
-                CellStyle headerStyle = workbook.createCellStyle();
-                org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
-                headerFont.setBold(true);
-                headerStyle.setFont(headerFont);
-
-                // Write headers
-                Row headerRow = sheet.createRow(0);
-                for (int i = 0; i < headers.length; i++) {
-                    Cell cell = headerRow.createCell(i);
-                    cell.setCellValue(headers[i]);
-                    cell.setCellStyle(headerStyle);
-                }
-
-                // Write data
-                for (int i = 0; i < data.size(); i++) {
-                    Row row = sheet.createRow(i + 1);
-                    for (int j = 0; j < headers.length; j++) {
-                        row.createCell(j).setCellValue(data.get(i)[j]);
-                    }
-                }
-
-                // Auto-size columns
-                for (int i = 0; i < headers.length; i++) {
-                    sheet.autoSizeColumn(i);
-                }
-
-                // Save file
-                try (FileOutputStream outputStream = new FileOutputStream(file)) {
-                    workbook.write(outputStream);
-                }
-
+            try {
+                writeTable(file, TableFormat.XLSX);
                 updateStatus("Data exported to Excel: " + file.getName());
             } catch (Exception ex) {
                 showError("Error exporting Excel: " + ex.getMessage());
@@ -1544,25 +1515,15 @@ public class CompleteCsvEditor extends JFrame {
                 .replace("'", "&apos;");
     }
 
-    private String escapeSql(String str) {
-        if (str == null) return "";
-        return str.replace("'", "''")
-                .replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\b", "\\b")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
-    }
-
     private void openFile() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new javax.swing.filechooser.FileFilter() {
             @Override public boolean accept(File f) {
-                return f.isDirectory() || f.getName().toLowerCase().endsWith(".csv");
+                String name = f.getName().toLowerCase();
+                return f.isDirectory() || name.endsWith(".csv") || name.endsWith(".xlsx");
             }
             @Override public String getDescription() {
-                return "CSV Files (*.csv)";
+                return "CSV and Excel Files (*.csv, *.xlsx)";
             }
         });
 
@@ -1591,105 +1552,201 @@ public class CompleteCsvEditor extends JFrame {
 
     private void loadCsvFile() {
         String delimiter = delimiterCombo.getSelectedItem().toString();
-
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(currentFile), StandardCharsets.UTF_8))) {
-
-            // Read headers
-            String headerLine = br.readLine();
-            if (headerLine == null) {
-                showError("Empty file");
-                return;
+        File file = currentFile;
+        TextNormalizer normalizer = normalizeCheck.isSelected() ? TextNormalizer.standard() : new TextNormalizer();
+        // Excel sheets are streamed with the SAX reader into the same row list
+        RowSource source = isExcelFile(file)
+                ? Converter.normalized(new XlsxRowSource(file), normalizer)
+                : new CsvRowSource(file, delimiter, StandardCharsets.UTF_8, normalizer);
+
+        loadTable(source, file, new TableLoadWorker.Listener<String[]>() {
+            @Override
+            public void headersLoaded(String[] headerRow) {
+                headers = headerRow;
+                tableModel.setColumns(headers);
             }
 
-            headers = headerLine.split(delimiter);
-            tableModel.setColumnIdentifiers(headers);
-
-            // Read data
-            data.clear();
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] row = line.split(delimiter, -1); // -1 to keep empty fields
-                data.add(row);
-                tableModel.addRow(row);
+            @Override
+            public void rowsLoaded(List<String[]> rows) {
+                tableModel.addRows(rows);
+                updateStatus("Loading " + file.getName() + "... " + data.size() + " rows");
             }
 
-            updateStatus("Loaded " + data.size() + " rows from " + currentFile.getName());
+            @Override
+            public void loadFinished(int rowCount, boolean cancelled, Exception error) {
+                indexer.rebuild();
+                if (error != null) {
+                    showError("Error reading file: " + error.getMessage());
+                } else if (cancelled) {
+                    updateStatus("Load cancelled. " + data.size() + " rows loaded from " + file.getName());
+                } else if (headers == null) {
+                    showError("Empty file");
+                } else {
+                    updateStatus("Loaded " + data.size() + " rows from " + file.getName());
+                }
+            }
+        });
+    }
 
-        } catch (Exception ex) {
-            showError("Error reading file: " + ex.getMessage());
+    // Parse on a background thread; rows show up in the table as they arrive
+    private void loadTable(RowSource source, File file, TableLoadWorker.Listener<String[]> listener) {
+        saveJsonDocument();
+        if (loadWorker != null) {
+            loadWorker.supersede();
         }
+        useListModel();
+        indexer.pause();
+        tableModel.clear();
+        headers = null;
+
+        loadWorker = new TableLoadWorker<>(source, row -> row, listener);
+        progressPanel.track(loadWorker);
+        loadWorker.execute();
     }
 
-    private void loadJsonFile() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(currentFile))) {
-            Gson gson = new Gson();
-            JsonElement jsonElement = gson.fromJson(reader, JsonElement.class);
+    private void openMappedFile() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileFilter() {
+            @Override public boolean accept(File f) {
+                return f.isDirectory() || f.getName().toLowerCase().endsWith(".csv");
+            }
+            @Override public String getDescription() {
+                return "CSV Files (*.csv)";
+            }
+        });
 
-            JsonArray jsonArray = null;
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
 
-            if (jsonElement.isJsonArray()) {
-                jsonArray = jsonElement.getAsJsonArray();
+        File file = fileChooser.getSelectedFile();
+        char delimiter = CsvTokenizer.toDelimiterChar(delimiterCombo.getSelectedItem().toString());
+        updateStatus("Indexing " + file.getName() + "...");
+
+        // Only the row index is built here; cells are decoded when the table paints them
+        SwingWorker<MappedCsvTableModel, Void> worker = new SwingWorker<MappedCsvTableModel, Void>() {
+            @Override
+            protected MappedCsvTableModel doInBackground() throws Exception {
+                return MappedCsvTableModel.open(file, delimiter, this::setProgress);
             }
-            else if (jsonElement.isJsonObject()) {
-                JsonObject jsonObject = jsonElement.getAsJsonObject();
-                for (Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
-                    if (entry.getValue().isJsonArray()) {
-                        jsonArray = entry.getValue().getAsJsonArray();
-                        break;
-                    }
+
+            @Override
+            protected void done() {
+                try {
+                    useMappedModel(get());
+                    currentFile = file;
+                    updateStatus("Opened " + file.getName() + " read-only: " + mappedModel.getRowCount() + " rows");
+                } catch (java.util.concurrent.CancellationException ex) {
+                    updateStatus("Opening cancelled");
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    showError("Error opening file: " + cause.getMessage());
                 }
             }
+        };
 
-            if (jsonArray == null) {
-                showError("Formato JSON no compatible. Se esperaba un array o un objeto con una propiedad que contenga un array.");
-                return;
-            }
+        progressPanel.track(worker);
+        worker.execute();
+    }
 
-            if (jsonArray.size() == 0) {
-                showError("El array JSON está vacío");
-                return;
-            }
+    private void useMappedModel(MappedCsvTableModel model) {
+        if (loadWorker != null) {
+            loadWorker.supersede();
+        }
+        closeMappedModel();
+        tableModel.clear();
 
-            if (!jsonArray.get(0).isJsonObject()) {
-                showError("El array debe contener objetos JSON");
-                return;
-            }
+        mappedModel = model;
+        headers = model.getColumns();
+        // Sorting or filtering would have to decode every row, so the sorter is removed
+        table.setRowSorter(null);
+        table.setModel(model);
+        generateSqlQuery();
+    }
 
-            JsonObject firstObj = jsonArray.get(0).getAsJsonObject();
-            Set<String> headerSet = firstObj.keySet();
-            headers = headerSet.toArray(new String[0]);
-            tableModel.setColumnIdentifiers(headers);
+    private void useListModel() {
+        if (mappedModel == null) return;
 
-            data.clear();
-            for (JsonElement element : jsonArray) {
-                JsonObject obj = element.getAsJsonObject();
-                String[] row = new String[headers.length];
+        closeMappedModel();
+        table.setModel(tableModel);
+        table.setRowSorter(sorter);
+    }
 
-                for (int i = 0; i < headers.length; i++) {
-                    JsonElement value = obj.get(headers[i]);
-                    row[i] = (value != null && !value.isJsonNull()) ? value.getAsString() : "";
-                }
+    private void closeMappedModel() {
+        if (mappedModel == null) return;
 
-                data.add(row);
-                tableModel.addRow(row);
+        try {
+            mappedModel.close();
+        } catch (IOException ex) {
+            // Nothing left to release
+        }
+        mappedModel = null;
+    }
+
+    private boolean rejectIfMapped() {
+        if (mappedModel != null) {
+            showError("Not available for large files opened read-only");
+            return true;
+        }
+        return false;
+    }
+
+    private String[] rowAt(int modelRow) {
+        return mappedModel != null ? mappedModel.getRow(modelRow) : data.get(modelRow);
+    }
+
+    private void loadJsonFile() {
+        File file = currentFile;
+
+        // Rows come straight from the token stream; the tree is only parsed when it is shown
+        loadTable(new JsonRowSource(file), file, new TableLoadWorker.Listener<String[]>() {
+            @Override
+            public void headersLoaded(String[] headerRow) {
+                headers = headerRow;
+                tableModel.setColumns(headers);
             }
 
-            updateStatus("Cargados " + data.size() + " registros desde: " + currentFile.getName());
-            updateJsonTree();
+            @Override
+            public void rowsLoaded(List<String[]> rows) {
+                tableModel.addRows(rows);
+                updateStatus("Cargando " + file.getName() + "... " + data.size() + " registros");
+            }
 
-        } catch (Exception ex) {
-            showError("Error al leer JSON: " + ex.getMessage());
-        }
+            @Override
+            public void loadFinished(int rowCount, boolean cancelled, Exception error) {
+                indexer.rebuild();
+                if (error != null) {
+                    showError("Error al leer JSON: " + error.getMessage());
+                } else if (cancelled) {
+                    updateStatus("Carga cancelada. " + data.size() + " registros cargados desde: " + file.getName());
+                } else {
+                    updateStatus("Cargados " + data.size() + " registros desde: " + file.getName());
+                    if (dataViewTabs.getSelectedComponent() == jsonEditorPanel) {
+                        ensureJsonTree();
+                    }
+                }
+            }
+        });
+        jsonTreeModel.setRoot(null);
+        jsonDocumentFile = null;
+        jsonTreeStale = true;
     }
 
     private void saveFile() {
-        if (currentFile == null) {
+        if (rejectIfMapped()) return;
+
+        // Workbooks are import-only: writing one back would keep a single sheet of text
+        if (currentFile == null || isExcelFile(currentFile)) {
             saveAsFile();
             return;
         }
 
-        if (currentFile.getName().toLowerCase().endsWith(".json")) {
+        if (jsonDirty && currentFile.equals(jsonDocumentFile)) {
+            // Keep the whole edited document, not just the array shown in the table
+            if (saveJsonDocument()) {
+                updateStatus("Data saved to JSON: " + currentFile.getName());
+            }
+        } else if (currentFile.getName().toLowerCase().endsWith(".json")) {
             saveToJsonFile(currentFile);
         } else {
             saveToCsvFile(currentFile);
@@ -1718,52 +1775,74 @@ public class CompleteCsvEditor extends JFrame {
             }
         });
 
+        fileChooser.addChoosableFileFilter(new javax.swing.filechooser.FileFilter() {
+            @Override public boolean accept(File f) {
+                return f.isDirectory() || isExcelFile(f);
+            }
+            @Override public String getDescription() {
+                return "Excel Files (*.xlsx)";
+            }
+        });
+
+        // An opened workbook is offered as CSV next to it rather than over it
+        if (isExcelFile(currentFile)) {
+            String name = currentFile.getName();
+            fileChooser.setSelectedFile(new File(currentFile.getParentFile(), name.substring(0, name.length() - 5) + ".csv"));
+        }
+
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            javax.swing.filechooser.FileFilter selectedFilter = fileChooser.getFileFilter();
-            String extension = selectedFilter.getDescription().contains("JSON") ? "json" : "csv";
+            String description = fileChooser.getFileFilter().getDescription();
+            String extension = description.contains("JSON") ? "json" : description.contains("Excel") ? "xlsx" : "csv";
 
             File file = ensureFileExtension(fileChooser.getSelectedFile(), extension);
+            if (extension.equals("xlsx") && file.exists() && !confirmWorkbookOverwrite(file)) {
+                return;
+            }
             currentFile = file;
 
             if (extension.equals("json")) {
                 saveToJsonFile(file);
+            } else if (extension.equals("xlsx")) {
+                saveToExcelFile(file);
             } else {
                 saveToCsvFile(file);
             }
         }
     }
 
-    private void saveToCsvFile(File file) {
-        String delimiter = delimiterCombo.getSelectedItem().toString();
-
-        try (BufferedWriter bw = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
-
-            // Write headers
-            bw.write(String.join(delimiter, headers));
-            bw.newLine();
-
-            // Write data
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                String[] row = new String[tableModel.getColumnCount()];
-                for (int j = 0; j < row.length; j++) {
-                    Object value = tableModel.getValueAt(i, j);
-                    row[j] = (value != null) ? value.toString() : "";
-                }
-                bw.write(String.join(delimiter, row));
-                bw.newLine();
-            }
+    private boolean confirmWorkbookOverwrite(File file) {
+        return JOptionPane.showConfirmDialog(this,
+                file.getName() + " already exists. It will be replaced by a single sheet with the table as text:\n"
+                        + "its other sheets, formulas, styles and number/date cell types will be lost.\n"
+                        + "Overwrite it?",
+                "Overwrite Workbook", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE) == JOptionPane.YES_OPTION;
+    }
 
+    private void saveToCsvFile(File file) {
+        try {
+            writeTable(file, TableFormat.CSV);
             updateStatus("Data saved to " + file.getName());
-
         } catch (Exception ex) {
             showError("Error saving: " + ex.getMessage());
         }
     }
 
+    private void saveToExcelFile(File file) {
+        try {
+            writeTable(file, TableFormat.XLSX);
+            updateStatus("Data saved to Excel: " + file.getName());
+        } catch (Exception ex) {
+            showError("Error saving Excel: " + ex.getMessage());
+        }
+    }
+
+    private static boolean isExcelFile(File file) {
+        return file != null && file.getName().toLowerCase().endsWith(".xlsx");
+    }
+
     private void saveToJsonFile(File file) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write(generateJson());
+        try {
+            writeTable(file, TableFormat.JSON);
             updateStatus("Data saved to JSON: " + file.getName());
         } catch (Exception ex) {
             showError("Error saving JSON: " + ex.getMessage());
@@ -1771,6 +1850,8 @@ public class CompleteCsvEditor extends JFrame {
     }
 
     private void showAddRowDialog() {
+        if (rejectIfMapped()) return;
+
         if (headers == null) {
             showError("No data loaded");
             return;
@@ -1793,14 +1874,16 @@ public class CompleteCsvEditor extends JFrame {
             for (int i = 0; i < headers.length; i++) {
                 newRow[i] = fields[i].getText();
             }
-            data.add(newRow);
             tableModel.addRow(newRow);
+            jsonRowAdded(newRow);
             updateStatus("Row added");
             generateSqlQuery();
         }
     }
 
     private void deleteRow() {
+        if (rejectIfMapped()) return;
+
         int selectedRow = table.getSelectedRow();
         if (selectedRow == -1) {
             showError("Select a row to delete");
@@ -1809,100 +1892,101 @@ public class CompleteCsvEditor extends JFrame {
 
         int modelRow = table.convertRowIndexToModel(selectedRow);
         tableModel.removeRow(modelRow);
-        data.remove(modelRow);
+        jsonRowRemoved(modelRow);
         updateStatus("Row deleted");
     }
 
+    // Coalesces selection changes, e.g. while the arrow keys move through the table
+    private void scheduleSqlQuery() {
+        String queryType = (String) sqlQueryTypeCombo.getSelectedItem();
+        // SELECT and INSERT do not depend on the selected row
+        if ("UPDATE".equals(queryType) || "DELETE".equals(queryType)) {
+            sqlQueryTimer.restart();
+        }
+    }
+
     private void generateSqlQuery() {
+        sqlQueryTimer.stop();
         if (headers == null || headers.length == 0) {
             sqlQueryArea.setText("-- No data loaded");
             return;
         }
 
+        if (sqlPreview == null || !sqlPreview.matches(tableName, headers)) {
+            sqlPreview = new SqlPreview(tableName, headers, SqlPreview.Language.ENGLISH);
+        }
+
         String queryType = (String) sqlQueryTypeCombo.getSelectedItem();
         int selectedRow = table.getSelectedRow();
         int modelRow = selectedRow >= 0 ? table.convertRowIndexToModel(selectedRow) : -1;
 
         switch (queryType) {
             case "SELECT":
-                sqlQueryArea.setText(generateSelect());
+                sqlQueryArea.setText(sqlPreview.select());
                 break;
             case "INSERT":
-                sqlQueryArea.setText(generateInsert());
+                sqlQueryArea.setText(sqlPreview.insert(table.getModel().getRowCount() > 0 ? rowAt(0) : null));
                 break;
             case "UPDATE":
                 sqlQueryArea.setText(modelRow >= 0 ?
-                        generateUpdate(modelRow) : "-- Select a row for UPDATE");
+                        sqlPreview.update(rowAt(modelRow)) : "-- Select a row for UPDATE");
                 break;
             case "DELETE":
                 sqlQueryArea.setText(modelRow >= 0 ?
-                        generateDelete(modelRow) : "-- Select a row for DELETE");
+                        sqlPreview.delete(rowAt(modelRow)) : "-- Select a row for DELETE");
                 break;
         }
     }
 
-    private String generateSelect() {
-        return String.format(
-                "SELECT %s\nFROM %s;\n\n-- Example with WHERE:\nSELECT *\nFROM %s\nWHERE %s = 'value';",
-                String.join(", ", headers), tableName, tableName, headers[0]);
-    }
-
-    private String generateInsert() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("INSERT INTO ").append(tableName).append(" (")
-                .append(String.join(", ", headers)).append(")\nVALUES (");
-
-        for (int i = 0; i < headers.length; i++) {
-            sb.append("?");
-            if (i < headers.length - 1) sb.append(", ");
+    private void runSql() {
+        if (headers == null || headers.length == 0) {
+            showError("No data loaded to query");
+            return;
         }
-        sb.append(");\n\n");
-
-        if (!data.isEmpty()) {
-            sb.append("-- Example with values:\nINSERT INTO ").append(tableName)
-                    .append(" (").append(String.join(", ", headers)).append(")\nVALUES (");
-
-            for (int i = 0; i < data.get(0).length; i++) {
-                sb.append("'").append(data.get(0)[i] != null ? data.get(0)[i] : "").append("'");
-                if (i < data.get(0).length - 1) sb.append(", ");
-            }
-            sb.append(");");
+        String sql = sqlQueryArea.getSelectedText();
+        if (sql == null || sql.trim().isEmpty()) {
+            sql = SelectQuery.statementAt(sqlQueryArea.getText(), sqlQueryArea.getCaretPosition());
         }
 
-        return sb.toString();
-    }
-
-    private String generateUpdate(int rowIndex) {
-        String[] row = data.get(rowIndex);
-        StringBuilder sb = new StringBuilder();
-        sb.append("UPDATE ").append(tableName).append("\nSET ");
-
-        for (int i = 0; i < headers.length; i++) {
-            sb.append(headers[i]).append(" = ?");
-            if (i < headers.length - 1) sb.append(",\n    ");
+        // Read-only large files are queried through their rows; the filter index only covers loaded data
+        FilterTable source = mappedModel != null ? mappedTable(mappedModel) : tableModel;
+        int rowCount = mappedModel != null ? mappedModel.getRowCount() : data.size();
+        SelectQuery query;
+        try {
+            query = SelectQuery.compile(sql, tableName, headers, source, mappedModel != null ? null : indexer.getIndex());
+        } catch (IllegalArgumentException ex) {
+            showError("Invalid SQL: " + ex.getMessage());
+            return;
         }
 
-        sb.append("\nWHERE ").append(headers[0]).append(" = '").append(row[0]).append("';\n\n");
-
-        sb.append("-- Complete example:\nUPDATE ").append(tableName).append("\nSET ");
+        long start = System.nanoTime();
+        SelectQuery.Result result = query.run(rowCount);
+        long millis = (System.nanoTime() - start) / 1_000_000;
 
-        for (int i = 0; i < headers.length; i++) {
-            sb.append(headers[i]).append(" = '").append(row[i] != null ? row[i] : "").append("'");
-            if (i < headers.length - 1) sb.append(",\n    ");
+        sqlResultModel.setData(result.getColumns(), result.getRows());
+        if (dataViewTabs.indexOfComponent(sqlResultPanel) < 0) {
+            dataViewTabs.addTab("SQL Result", sqlResultPanel);
         }
-
-        sb.append("\nWHERE ").append(headers[0]).append(" = '").append(row[0]).append("';");
-
-        return sb.toString();
+        dataViewTabs.setSelectedComponent(sqlResultPanel);
+        updateStatus("SQL returned " + result.getRows().size() + " rows, " + result.getMatchedRows()
+                + " of " + rowCount + " rows matched (" + millis + " ms)");
     }
 
-    private String generateDelete(int rowIndex) {
-        String[] row = data.get(rowIndex);
-        return String.format(
-                "DELETE FROM %s\nWHERE %s = '%s';\n\n-- Safer version:\nDELETE FROM %s\nWHERE %s = '%s'\nAND %s = '%s';",
-                tableName, headers[0], row[0],
-                tableName, headers[0], row[0],
-                headers[1], row.length > 1 ? row[1] : "");
+    // Keeps the last decoded row, as a statement reads several cells of each row in turn
+    private static FilterTable mappedTable(MappedCsvTableModel model) {
+        return new FilterTable() {
+            private int cachedRow = -1;
+            private String[] cached;
+
+            @Override
+            public String getText(int row, int column) {
+                if (row != cachedRow) {
+                    cached = model.getRow(row);
+                    cachedRow = row;
+                }
+                return column < cached.length && cached[column] != null ? cached[column] : "";
+            }
+        };
     }
 
     private void copyToClipboard() {
@@ -1950,14 +2034,52 @@ public class CompleteCsvEditor extends JFrame {
     }
 
     private void setupStatusBar() {
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+
         statusLabel = new JLabel("Ready");
-        statusLabel.setBorder(BorderFactory.createEtchedBorder());
-        add(statusLabel, BorderLayout.SOUTH);
+        progressPanel = new LoadProgressPanel("Cancel");
+
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(progressPanel, BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
+    }
+
+    private void showStatistics() {
+        if (rejectIfMapped()) return;
+        if (headers == null || headers.length == 0) {
+            showError("No data loaded");
+            return;
+        }
+
+        // Snapshot on the EDT; the engine aggregates every column in one parallel pass
+        List<String[]> snapshot = new ArrayList<>(data);
+        String[] columns = headers.clone();
+        updateStatus("Computing statistics...");
+
+        new SwingWorker<TableStatistics, Void>() {
+            @Override
+            protected TableStatistics doInBackground() {
+                return StatisticsEngine.compute(columns, snapshot,
+                        (row, column) -> column < row.length ? row[column] : null, StatisticsEngine.DEFAULT_TOP_K);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    TableStatistics statistics = get();
+                    updateStatus("Statistics computed in " + statistics.getElapsedMillis() + " ms");
+                    StatisticsPanel.showDialog(CompleteCsvEditor.this, "Statistics", statistics, null);
+                } catch (Exception e) {
+                    showError("Error computing statistics: " + e.getMessage());
+                }
+            }
+        }.execute();
     }
 
     private void updateStatus(String message) {
         String fileType = currentFile != null ?
-                (currentFile.getName().toLowerCase().endsWith(".json") ? "JSON" : "CSV") : "";
+                (currentFile.getName().toLowerCase().endsWith(".json") ? "JSON" : isExcelFile(currentFile) ? "Excel" : "CSV") : "";
         statusLabel.setText(message + (fileType.isEmpty() ? "" : " (" + fileType + ")"));
     }
 
@@ -0,0 +1,131 @@
+package org.example.Convert;
+
+import org.example.Utils.CsvRowSource;
+import org.example.Utils.CsvTokenizer;
+import org.example.Utils.JsonRowSource;
+import org.example.Utils.RowSink;
+import org.example.Utils.RowSource;
+import org.example.Utils.TextNormalizer;
+import org.example.Utils.XlsxRowSource;
+import org.example.Utils.XmlRowSource;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Table conversions shared by the editors and the command line: sources and writers
+ * by format, and the loops that pipe rows from one into the other.
+ */
+public final class Converter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private Converter() {
+    }
+
+    public static RowSource openSource(File file, TableFormat format, String delimiter) {
+        return openSource(file, format, delimiter, new TextNormalizer());
+    }
+
+    // CSV and XML text is normalized while it streams in, other formats cell by cell
+    public static RowSource openSource(File file, TableFormat format, String delimiter, TextNormalizer normalizer) {
+        switch (format) {
+            case CSV:
+                return new CsvRowSource(file, delimiter, StandardCharsets.UTF_8, normalizer);
+            case JSON:
+                return normalized(new JsonRowSource(file), normalizer);
+            case XML:
+                return new XmlRowSource(file, normalizer);
+            case XLSX:
+                return normalized(new XlsxRowSource(file), normalizer);
+            default:
+                throw new IllegalArgumentException(format + " files cannot be read");
+        }
+    }
+
+    // Normalizes the headers and cells of every row the source produces
+    public static RowSource normalized(RowSource source, TextNormalizer normalizer) {
+        if (normalizer.isEmpty()) {
+            return source;
+        }
+        return sink -> source.read(new RowSink() {
+            @Override
+            public void headers(String[] headers) {
+                normalizer.normalize(headers);
+                sink.headers(headers);
+            }
+
+            @Override
+            public boolean row(String[] row) {
+                normalizer.normalize(row);
+                return sink.row(row);
+            }
+
+            @Override
+            public void progress(int percent) {
+                sink.progress(percent);
+            }
+        });
+    }
+
+    public static TableWriter openWriter(TableFormat format, OutputStream out, String delimiter, String tableName) {
+        return openWriter(format, out, delimiter, new SqlOptions(tableName));
+    }
+
+    // The writer owns the stream, buffers it and closes it
+    public static TableWriter openWriter(TableFormat format, OutputStream out, String delimiter, SqlOptions sql) {
+        switch (format) {
+            case CSV:
+                return new CsvTableWriter(utf8(out), CsvTokenizer.toDelimiterChar(delimiter));
+            case JSON:
+                return new JsonTableWriter(utf8(out));
+            case XML:
+                return new XmlTableWriter(utf8(out));
+            case SQL:
+                return new SqlTableWriter(utf8(out), sql);
+            default:
+                return new XlsxTableWriter(new BufferedOutputStream(out, BUFFER_SIZE), "Data");
+        }
+    }
+
+    // Writes the table and closes the writer; returns the number of rows written
+    public static int write(String[] headers, Iterable<String[]> rows, TableWriter writer) throws IOException {
+        try (TableWriter target = writer) {
+            target.headers(headers);
+            for (String[] row : rows) {
+                target.row(row);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return writer.getRowCount();
+    }
+
+    // Streams every row of the source into the writer and closes it
+    public static int convert(RowSource source, TableWriter writer) throws Exception {
+        try (TableWriter target = writer) {
+            source.read(target);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return writer.getRowCount();
+    }
+
+    // Text of a small table, e.g. for previews
+    public static String toText(TableFormat format, String[] headers, Iterable<String[]> rows,
+                                String delimiter, SqlOptions sql) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(headers, rows, openWriter(format, out, delimiter, sql));
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static BufferedWriter utf8(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
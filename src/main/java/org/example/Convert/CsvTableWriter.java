@@ -0,0 +1,69 @@
+package org.example.Convert;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Delimited text; cells with the delimiter, quotes or line breaks are quoted
+ * so CsvTokenizer reads them back unchanged.
+ */
+public class CsvTableWriter extends TableWriter {
+    private final Writer writer;
+    private final char delimiter;
+
+    public CsvTableWriter(Writer writer, char delimiter) {
+        this.writer = writer;
+        this.delimiter = delimiter;
+    }
+
+    @Override
+    protected void begin() throws IOException {
+        writeLine(headers);
+    }
+
+    @Override
+    protected void write(String[] row) throws IOException {
+        writeLine(row);
+    }
+
+    private void writeLine(String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            writeCell(values[i] != null ? values[i] : "");
+        }
+        writer.write(System.lineSeparator());
+    }
+
+    private void writeCell(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
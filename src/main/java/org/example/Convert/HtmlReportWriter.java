@@ -0,0 +1,445 @@
+package org.example.Convert;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTML report of the XmlDocuments.flatten rows (type, node, value, path), written as
+ * the rows arrive. TABLE is the single DataTables page the editor has always exported,
+ * PAGED splits the rows into pages of PAGE_ROWS behind an index page, and DATA embeds
+ * the rows as a compact JSON array that DataTables draws with virtual scrolling.
+ */
+public class HtmlReportWriter extends TableWriter {
+    public static final int PAGE_ROWS = 5000;
+
+    private static final String DATATABLES = "https://cdn.datatables.net/1.11.5";
+    private static final String SCROLLER = "https://cdn.datatables.net/scroller/2.0.5";
+    private static final String LANGUAGE = "https://cdn.datatables.net/plug-ins/1.11.5/i18n/es-ES.json";
+
+    public enum Layout {
+        TABLE("table"), PAGED("paged"), DATA("data");
+
+        private final String label;
+
+        Layout(String label) {
+            this.label = label;
+        }
+
+        public static Layout fromName(String name) {
+            for (Layout layout : values()) {
+                if (layout.label.equalsIgnoreCase(name)) {
+                    return layout;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final File output;
+    private final String title;
+    private final Layout layout;
+    private final Date date = new Date();
+    private final Map<String, Integer> typeCounts = new LinkedHashMap<>();
+    private Writer out;
+    private JsonWriter json;
+    // Paged layout: first path of every page written so far, and rows on the open page
+    private final List<String> pageStarts = new ArrayList<>();
+    private int pageRows;
+
+    public HtmlReportWriter(File output, String title, Layout layout) throws IOException {
+        this.output = output;
+        this.title = title;
+        this.layout = layout;
+        if (layout != Layout.PAGED) {
+            out = open(output);
+        }
+    }
+
+    // Page n (1-based) of the paged layout, next to the index file
+    public static File pageFile(File output, int page) {
+        String name = output.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return new File(output.getAbsoluteFile().getParentFile(), base + "-" + page + ".html");
+    }
+
+    public int getPageCount() {
+        return pageStarts.size();
+    }
+
+    @Override
+    protected void begin() throws IOException {
+        if (layout == Layout.TABLE) {
+            writeHead(null, true);
+            writeTableStart();
+        } else if (layout == Layout.DATA) {
+            writeHead("    <link rel='stylesheet' href='" + SCROLLER + "/css/scroller.bootstrap5.min.css'>\n", true);
+            out.write("                <table id='xmlTable' class='table table-striped table-hover table-bordered w-100'>\n"
+                    + "                    <thead class='table-light'><tr><th>Tipo</th><th>Nodo</th><th>Valor</th><th>Ruta</th></tr></thead>\n"
+                    + "                </table>\n");
+            out.write("    <script>\n        var rows = ");
+            json = new JsonWriter(out);
+            // Escapes '<' and '&', so no value can end the script element
+            json.setHtmlSafe(true);
+            json.beginArray();
+        }
+    }
+
+    @Override
+    protected void write(String[] row) throws IOException {
+        String type = cell(row, 0);
+        typeCounts.merge(type, 1, Integer::sum);
+
+        if (layout == Layout.DATA) {
+            json.beginArray();
+            for (int i = 0; i < 4; i++) {
+                json.value(cell(row, i));
+            }
+            json.endArray();
+            return;
+        }
+        if (layout == Layout.PAGED && (out == null || pageRows == PAGE_ROWS)) {
+            if (out != null) {
+                finishPage(true);
+            }
+            pageStarts.add(cell(row, 3));
+            pageRows = 0;
+            int page = pageStarts.size();
+            out = open(pageFile(output, page));
+            writeHead(null, true);
+            writePageLinks(page, false);
+            writeTableStart();
+        }
+        writeRow(row);
+        pageRows++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (headers == null) {
+            begin();
+        }
+        try {
+            if (layout == Layout.TABLE) {
+                writeTableEnd(true);
+            } else if (layout == Layout.DATA) {
+                json.endArray();
+                json.flush();
+                out.write(";\n    </script>\n");
+                writeDataScripts();
+            } else {
+                if (out != null) {
+                    finishPage(false);
+                }
+                out = open(output);
+                writeIndex();
+            }
+        } finally {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    private static Writer open(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    private void finishPage(boolean hasNext) throws IOException {
+        out.write("                        </tbody>\n"
+                + "                    </table>\n"
+                + "                </div>\n");
+        writePageLinks(pageStarts.size(), hasNext);
+        writeTableEnd(false);
+        out.close();
+        out = null;
+    }
+
+    private void writePageLinks(int page, boolean hasNext) throws IOException {
+        out.write("                <nav class='mb-3 d-flex gap-2'>\n");
+        out.write("                    <a class='btn btn-sm btn-outline-secondary' href='" + escapeHtml(output.getName()) + "'>Índice</a>\n");
+        if (page > 1) {
+            out.write("                    <a class='btn btn-sm btn-outline-primary' href='" + escapeHtml(pageFile(output, page - 1).getName()) + "'>&laquo; Anterior</a>\n");
+        }
+        out.write("                    <span class='align-self-center'>Página " + page + "</span>\n");
+        if (hasNext) {
+            out.write("                    <a class='btn btn-sm btn-outline-primary' href='" + escapeHtml(pageFile(output, page + 1).getName()) + "'>Siguiente &raquo;</a>\n");
+        }
+        out.write("                </nav>\n");
+    }
+
+    private void writeIndex() throws IOException {
+        writeHead(null, false);
+        out.write("                <p>Total nodos: " + getRowCount());
+        for (Map.Entry<String, Integer> count : typeCounts.entrySet()) {
+            out.write(" &middot; " + typeLabel(count.getKey()) + ": " + count.getValue());
+        }
+        out.write("</p>\n");
+        out.write("                <table class='table table-striped table-hover table-bordered w-100'>\n"
+                + "                    <thead class='table-light'><tr><th>Página</th><th>Filas</th><th>Desde</th></tr></thead>\n"
+                + "                    <tbody>\n");
+        for (int i = 0; i < pageStarts.size(); i++) {
+            int first = i * PAGE_ROWS + 1;
+            int last = Math.min(getRowCount(), first + PAGE_ROWS - 1);
+            out.write("<tr><td><a href='" + escapeHtml(pageFile(output, i + 1).getName()) + "'>Página " + (i + 1) + "</a></td>"
+                    + "<td>" + first + "–" + last + "</td><td>" + escapeHtml(pageStarts.get(i)) + "</td></tr>\n");
+        }
+        out.write("                    </tbody>\n"
+                + "                </table>\n");
+        writeFooter();
+        out.write("</body>\n</html>");
+    }
+
+    private void writeHead(String extraHead, boolean filters) throws IOException {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n")
+                .append("<html lang='es'>\n")
+                .append("<head>\n")
+                .append("    <meta charset='UTF-8'>\n")
+                .append("    <meta name='viewport' content='width=device-width, initial-scale=1.0'>\n")
+                .append("    <title>XML Export - ").append(escapeHtml(title)).append("</title>\n")
+                .append("    <link rel='stylesheet' href='https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css'>\n")
+                .append("    <link href='https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/css/bootstrap.min.css' rel='stylesheet'>\n")
+                .append("    <link rel='stylesheet' href='").append(DATATABLES).append("/css/dataTables.bootstrap5.min.css'>\n");
+        if (extraHead != null) {
+            html.append(extraHead);
+        }
+        html.append("    <style>\n")
+                .append("        body { padding: 20px; background-color: #f8f9fa; }\n")
+                .append("        .card { border-radius: 10px; box-shadow: 0 4px 6px rgba(0,0,0,0.1); }\n")
+                .append("        .card-header { background-color: #0d6efd; color: white; border-radius: 10px 10px 0 0 !important; }\n")
+                .append("        .attribute { color: #0d6efd; font-weight: bold; }\n")
+                .append("        .text-node { color: #198754; font-style: italic; }\n")
+                .append("        .cdata-node { color: #6c757d; }\n")
+                .append("        .comment-node { color: #6c757d; font-style: italic; }\n")
+                .append("        .badge-type { background-color: #6c757d; }\n")
+                .append("        #searchBox { margin-bottom: 15px; }\n")
+                .append("        .dataTables_filter, .dataTables_length { margin-bottom: 15px; }\n")
+                .append("        table.dataTable thead th { border-bottom: 2px solid #dee2e6; }\n")
+                .append("    </style>\n")
+                .append("</head>\n")
+                .append("<body>\n")
+                .append("    <div class='container-fluid'>\n")
+                .append("        <div class='card'>\n")
+                .append("            <div class='card-header d-flex justify-content-between align-items-center'>\n")
+                .append("                <h5 class='mb-0'><i class='fas fa-file-code me-2'></i>XML Explorer: ").append(escapeHtml(title)).append("</h5>\n")
+                .append("                <div class='badge bg-light text-dark'><i class='fas fa-calendar-alt me-1'></i>").append(date).append("</div>\n")
+                .append("            </div>\n")
+                .append("            <div class='card-body'>\n");
+        if (filters) {
+            html.append("                <div class='row mb-3'>\n")
+                    .append("                    <div class='col-md-6'>\n")
+                    .append("                        <div class='input-group'>\n")
+                    .append("                            <span class='input-group-text'><i class='fas fa-search'></i></span>\n")
+                    .append("                            <input type='text' id='searchBox' class='form-control' placeholder='Buscar en todos los datos...'>\n")
+                    .append("                        </div>\n")
+                    .append("                    </div>\n")
+                    .append("                    <div class='col-md-6 text-end'>\n")
+                    .append("                        <div class='btn-group'>\n")
+                    .append("                            <button class='btn btn-sm btn-outline-secondary' onclick='filterTable(\"all\")'>\n")
+                    .append("                                <i class='fas fa-list'></i> Todos\n")
+                    .append("                            </button>\n")
+                    .append("                            <button class='btn btn-sm btn-outline-primary' onclick='filterTable(\"attribute\")'>\n")
+                    .append("                                <i class='fas fa-tag'></i> Atributos\n")
+                    .append("                            </button>\n")
+                    .append("                            <button class='btn btn-sm btn-outline-success' onclick='filterTable(\"element\")'>\n")
+                    .append("                                <i class='fas fa-code'></i> Elementos\n")
+                    .append("                            </button>\n")
+                    .append("                            <button class='btn btn-sm btn-outline-info' onclick='filterTable(\"text\")'>\n")
+                    .append("                                <i class='fas fa-font'></i> Texto\n")
+                    .append("                            </button>\n")
+                    .append("                        </div>\n")
+                    .append("                    </div>\n")
+                    .append("                </div>\n");
+        }
+        out.write(html.toString());
+    }
+
+    private void writeTableStart() throws IOException {
+        out.write("                <div class='table-responsive'>\n"
+                + "                    <table id='xmlTable' class='table table-striped table-hover table-bordered w-100'>\n"
+                + "                        <thead class='table-light'>\n"
+                + "                            <tr>\n"
+                + "                                <th>Tipo</th>\n"
+                + "                                <th>Nodo</th>\n"
+                + "                                <th>Valor</th>\n"
+                + "                                <th>Ruta</th>\n"
+                + "                            </tr>\n"
+                + "                        </thead>\n"
+                + "                        <tbody>\n");
+    }
+
+    // Closes the table (unless already closed), the card and the page, with the DataTables script
+    private void writeTableEnd(boolean closeTable) throws IOException {
+        if (closeTable) {
+            out.write("                        </tbody>\n"
+                    + "                    </table>\n"
+                    + "                </div>\n");
+        }
+        writeFooter();
+        writeScripts(false);
+        out.write("    <script>\n"
+                + "        $(document).ready(function() {\n"
+                + "            var table = $('#xmlTable').DataTable({\n"
+                + "                dom: '<\"top\"lf>rt<\"bottom\"ip>',\n"
+                + "                pageLength: 25,\n"
+                + "                language: {\n"
+                + "                    url: '" + LANGUAGE + "'\n"
+                + "                },\n"
+                + "                initComplete: function() {\n"
+                + "                    $('#totalNodes').text(this.api().data().length);\n"
+                + "                }\n"
+                + "            });\n\n");
+        writeSearchScript();
+    }
+
+    private void writeDataScripts() throws IOException {
+        writeFooter();
+        writeScripts(true);
+        out.write("    <script>\n"
+                + "        var TYPES = {\n"
+                + "            element: ['bg-primary', 'fa-code', 'Elemento', ''],\n"
+                + "            attribute: ['bg-info', 'fa-tag', 'Atributo', 'attribute'],\n"
+                + "            text: ['bg-success', 'fa-font', 'Texto', 'text-node'],\n"
+                + "            cdata: ['bg-secondary', 'fa-file-code', 'CDATA', 'cdata-node'],\n"
+                + "            comment: ['bg-warning text-dark', 'fa-comment', 'Comentario', 'comment-node']\n"
+                + "        };\n"
+                + "        var escape = $.fn.dataTable.render.text().display;\n\n"
+                + "        $(document).ready(function() {\n"
+                + "            var table = $('#xmlTable').DataTable({\n"
+                + "                data: rows,\n"
+                + "                deferRender: true,\n"
+                + "                scrollY: '70vh',\n"
+                + "                scrollCollapse: true,\n"
+                + "                scroller: true,\n"
+                + "                dom: '<\"top\"f>rt<\"bottom\"i>',\n"
+                + "                language: {\n"
+                + "                    url: '" + LANGUAGE + "'\n"
+                + "                },\n"
+                + "                columns: [\n"
+                + "                    { render: function(data, type) {\n"
+                + "                        var t = TYPES[data] || TYPES.comment;\n"
+                + "                        return type === 'display'\n"
+                + "                            ? \"<span class='badge \" + t[0] + \"'><i class='fas \" + t[1] + \" me-1'></i>\" + t[2] + '</span>'\n"
+                + "                            : data;\n"
+                + "                    } },\n"
+                + "                    { render: function(data, type, row) {\n"
+                + "                        if (type !== 'display') return data;\n"
+                + "                        var t = TYPES[row[0]] || TYPES.comment;\n"
+                + "                        return row[0] === 'element' ? '<strong>' + escape(data) + '</strong>'\n"
+                + "                            : \"<span class='\" + t[3] + \"'>\" + escape(data) + '</span>';\n"
+                + "                    } },\n"
+                + "                    { render: $.fn.dataTable.render.text() },\n"
+                + "                    { render: $.fn.dataTable.render.text() }\n"
+                + "                ]\n"
+                + "            });\n"
+                + "            $('#totalNodes').text(rows.length);\n\n");
+        writeSearchScript();
+    }
+
+    private void writeFooter() throws IOException {
+        out.write("            </div>\n"
+                + "            <div class='card-footer text-muted small'>\n"
+                + "                <div class='d-flex justify-content-between'>\n"
+                + "                    <div>Total nodos: <span id='totalNodes'></span></div>\n"
+                + "                    <div>Exportado con XML Editor - " + date + "</div>\n"
+                + "                </div>\n"
+                + "            </div>\n"
+                + "        </div>\n"
+                + "    </div>\n\n");
+    }
+
+    private void writeScripts(boolean scroller) throws IOException {
+        out.write("    <script src='https://code.jquery.com/jquery-3.6.0.min.js'></script>\n"
+                + "    <script src='https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/js/bootstrap.bundle.min.js'></script>\n"
+                + "    <script src='" + DATATABLES + "/js/jquery.dataTables.min.js'></script>\n"
+                + "    <script src='" + DATATABLES + "/js/dataTables.bootstrap5.min.js'></script>\n");
+        if (scroller) {
+            out.write("    <script src='" + SCROLLER + "/js/dataTables.scroller.min.js'></script>\n");
+        }
+    }
+
+    // Search box and type buttons; the type column is searched by its raw type name
+    private void writeSearchScript() throws IOException {
+        out.write("            $('#searchBox').keyup(function() {\n"
+                + "                table.search(this.value).draw();\n"
+                + "            });\n"
+                + "        });\n\n"
+                + "        function filterTable(type) {\n"
+                + "            var table = $('#xmlTable').DataTable();\n"
+                + "            if (type === 'all') {\n"
+                + "                table.columns(0).search('').draw();\n"
+                + "            } else {\n"
+                + "                table.columns(0).search('^' + type + '$', true, false).draw();\n"
+                + "            }\n"
+                + "        }\n"
+                + "    </script>\n"
+                + "</body>\n"
+                + "</html>");
+    }
+
+    private static String typeLabel(String type) {
+        switch (type) {
+            case "element": return "Elementos";
+            case "attribute": return "Atributos";
+            case "text": return "Texto";
+            case "cdata": return "CDATA";
+            default: return "Comentarios";
+        }
+    }
+
+    private void writeRow(String[] row) throws IOException {
+        String badge;
+        String icon;
+        String label;
+        String nodeClass;
+        switch (row[0]) {
+            case "element":
+                badge = "bg-primary"; icon = "fa-code"; label = "Elemento"; nodeClass = null;
+                break;
+            case "attribute":
+                badge = "bg-info"; icon = "fa-tag"; label = "Atributo"; nodeClass = "attribute";
+                break;
+            case "text":
+                badge = "bg-success"; icon = "fa-font"; label = "Texto"; nodeClass = "text-node";
+                break;
+            case "cdata":
+                badge = "bg-secondary"; icon = "fa-file-code"; label = "CDATA"; nodeClass = "cdata-node";
+                break;
+            default:
+                badge = "bg-warning text-dark"; icon = "fa-comment"; label = "Comentario"; nodeClass = "comment-node";
+        }
+
+        // data-search lets the type buttons match the raw type instead of the Spanish label
+        out.write("<tr><td data-search='" + escapeHtml(row[0]) + "'><span class='badge " + badge + "'><i class='fas " + icon + " me-1'></i>" + label + "</span></td>");
+        if (nodeClass == null) {
+            out.write("<td><strong>" + escapeHtml(row[1]) + "</strong></td><td>");
+        } else if (nodeClass.equals("attribute")) {
+            out.write("<td class='attribute'>" + escapeHtml(row[1]) + "</td><td>");
+        } else {
+            out.write("<td class='" + nodeClass + "'>" + escapeHtml(row[1]) + "</td><td class='" + nodeClass + "'>");
+        }
+        out.write(escapeHtml(row[2]));
+        out.write("</td><td>" + escapeHtml(row[3]) + "</td></tr>\n");
+    }
+
+    static String escapeHtml(String str) {
+        return str.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#39;");
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.Convert;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Array of objects, one property per column, written with a streaming JsonWriter.
+ */
+public class JsonTableWriter extends TableWriter {
+    private final JsonWriter json;
+
+    public JsonTableWriter(Writer writer) {
+        this.json = new JsonWriter(writer);
+        json.setIndent("  ");
+    }
+
+    @Override
+    protected void begin() throws IOException {
+        json.beginArray();
+    }
+
+    @Override
+    protected void write(String[] row) throws IOException {
+        json.beginObject();
+        for (int i = 0; i < headers.length; i++) {
+            json.name(headers[i]).value(cell(row, i));
+        }
+        json.endObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (headers == null) {
+            json.beginArray();
+        }
+        json.endArray();
+        json.close();
+    }
+}
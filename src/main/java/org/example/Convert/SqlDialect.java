@@ -0,0 +1,91 @@
+package org.example.Convert;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * SQL syntax differences between the databases the dumps target: identifier quoting,
+ * the generated key column, text type, transaction start and string escaping.
+ */
+public enum SqlDialect {
+    MYSQL("MySQL", '`', "id INT AUTO_INCREMENT PRIMARY KEY", "VARCHAR(255)", "START TRANSACTION;"),
+    POSTGRESQL("PostgreSQL", '"', "id SERIAL PRIMARY KEY", "TEXT", "BEGIN;"),
+    SQLITE("SQLite", '"', "id INTEGER PRIMARY KEY AUTOINCREMENT", "TEXT", "BEGIN TRANSACTION;");
+
+    private final String label;
+    private final char identifierQuote;
+    private final String keyColumn;
+    private final String textType;
+    private final String beginTransaction;
+
+    SqlDialect(String label, char identifierQuote, String keyColumn, String textType, String beginTransaction) {
+        this.label = label;
+        this.identifierQuote = identifierQuote;
+        this.keyColumn = keyColumn;
+        this.textType = textType;
+        this.beginTransaction = beginTransaction;
+    }
+
+    public String quoteIdentifier(String name) {
+        String quote = String.valueOf(identifierQuote);
+        return quote + name.replace(quote, quote + quote) + quote;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public String getTextType() {
+        return textType;
+    }
+
+    public String getBeginTransaction() {
+        return beginTransaction;
+    }
+
+    // Writes a quoted string literal without building an escaped copy
+    public void writeString(Writer writer, String value) throws IOException {
+        writer.write('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'') {
+                writer.write("''");
+            } else if (this == MYSQL) {
+                // MySQL treats backslashes as escapes inside literals
+                switch (c) {
+                    case '\\': writer.write("\\\\"); break;
+                    case '"': writer.write("\\\""); break;
+                    case '\b': writer.write("\\b"); break;
+                    case '\n': writer.write("\\n"); break;
+                    case '\r': writer.write("\\r"); break;
+                    case '\t': writer.write("\\t"); break;
+                    case '\0': writer.write("\\0"); break;
+                    default: writer.write(c);
+                }
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('\'');
+    }
+
+    // Dialect by name ("mysql", "postgres", "sqlite"...), or null
+    public static SqlDialect fromName(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("postgres") || lower.equals("pg")) {
+            return POSTGRESQL;
+        }
+        for (SqlDialect dialect : values()) {
+            if (dialect.name().equalsIgnoreCase(lower) || dialect.label.equalsIgnoreCase(lower)) {
+                return dialect;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
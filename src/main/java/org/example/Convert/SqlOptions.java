@@ -0,0 +1,44 @@
+package org.example.Convert;
+
+/**
+ * How SqlTableWriter writes a dump: target table and dialect, rows per INSERT
+ * statement, and rows per transaction (0 writes no transaction statements).
+ */
+public class SqlOptions {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final String tableName;
+    private final SqlDialect dialect;
+    private final int batchSize;
+    private final int transactionSize;
+
+    public SqlOptions(String tableName) {
+        this(tableName, SqlDialect.MYSQL, DEFAULT_BATCH_SIZE, 0);
+    }
+
+    public SqlOptions(String tableName, SqlDialect dialect, int batchSize, int transactionSize) {
+        if (batchSize < 1 || transactionSize < 0) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize + " or transaction size " + transactionSize);
+        }
+        this.tableName = tableName;
+        this.dialect = dialect;
+        this.batchSize = batchSize;
+        this.transactionSize = transactionSize;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getTransactionSize() {
+        return transactionSize;
+    }
+}
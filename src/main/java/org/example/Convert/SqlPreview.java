@@ -0,0 +1,141 @@
+package org.example.Convert;
+
+import java.util.Arrays;
+
+/**
+ * Example SELECT/INSERT/UPDATE/DELETE statements for the editors' SQL panel. Everything
+ * that depends only on the table name and columns is joined once per schema, so showing
+ * the statement for another row only appends its values between cached fragments.
+ */
+public class SqlPreview {
+    // Comment lines of the examples, in the language of the editor showing them
+    public enum Language {
+        ENGLISH("-- Example with WHERE:", "value", "-- Example with values:", "-- Complete example:", "-- Safer version:"),
+        SPANISH("-- Ejemplo con WHERE:", "valor", "-- Ejemplo con valores:", "-- Ejemplo completo:", "-- Versión más segura:");
+
+        private final String whereExample;
+        private final String placeholder;
+        private final String valuesExample;
+        private final String completeExample;
+        private final String saferVersion;
+
+        Language(String whereExample, String placeholder, String valuesExample, String completeExample, String saferVersion) {
+            this.whereExample = whereExample;
+            this.placeholder = placeholder;
+            this.valuesExample = valuesExample;
+            this.completeExample = completeExample;
+            this.saferVersion = saferVersion;
+        }
+    }
+
+    private final String tableName;
+    private final String[] headers;
+    private final String select;
+    // INSERT: the statement with placeholders and the start of the example with values
+    private final String insertStatement;
+    private final String insertExample;
+    // UPDATE: placeholders up to the key value, then "column = '" before each example value
+    private final String updateHead;
+    private final String updateExample;
+    private final String[] setPrefixes;
+    private final String updateWhere;
+    // DELETE: up to the key value, between the key values, and before the second column's value
+    private final String deleteHead;
+    private final String deleteSafer;
+    private final String deleteAnd;
+
+    public SqlPreview(String tableName, String[] headers, Language language) {
+        this.tableName = tableName;
+        this.headers = headers.clone();
+        String columns = String.join(", ", headers);
+        String key = headers[0];
+
+        select = "SELECT " + columns + "\nFROM " + tableName + ";\n\n" + language.whereExample
+                + "\nSELECT *\nFROM " + tableName + "\nWHERE " + key + " = '" + language.placeholder + "';";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("INSERT INTO ").append(tableName).append(" (").append(columns).append(")\nVALUES (");
+        for (int i = 0; i < headers.length; i++) {
+            sb.append(i > 0 ? ", ?" : "?");
+        }
+        insertStatement = sb.append(");\n\n").toString();
+        insertExample = language.valuesExample + "\nINSERT INTO " + tableName + " (" + columns + ")\nVALUES (";
+
+        sb.setLength(0);
+        sb.append("UPDATE ").append(tableName).append("\nSET ");
+        for (int i = 0; i < headers.length; i++) {
+            sb.append(i > 0 ? ",\n    " : "").append(headers[i]).append(" = ?");
+        }
+        sb.append("\nWHERE ").append(key).append(" = '");
+        updateHead = sb.toString();
+        updateExample = "';\n\n" + language.completeExample + "\nUPDATE " + tableName + "\nSET ";
+        setPrefixes = new String[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            setPrefixes[i] = (i > 0 ? "',\n    " : "") + headers[i] + " = '";
+        }
+        updateWhere = "'\nWHERE " + key + " = '";
+
+        deleteHead = "DELETE FROM " + tableName + "\nWHERE " + key + " = '";
+        deleteSafer = "';\n\n" + language.saferVersion + "\n" + deleteHead;
+        deleteAnd = headers.length > 1 ? "'\nAND " + headers[1] + " = '" : null;
+    }
+
+    // True if the statements were built for this table and these columns
+    public boolean matches(String tableName, String[] headers) {
+        return this.tableName.equals(tableName) && Arrays.equals(this.headers, headers);
+    }
+
+    public String select() {
+        return select;
+    }
+
+    // The first row is the example; null when the table is empty
+    public String insert(String[] firstRow) {
+        if (firstRow == null) {
+            return insertStatement;
+        }
+        StringBuilder sb = new StringBuilder(insertStatement.length() + insertExample.length() + 16 * firstRow.length);
+        sb.append(insertStatement).append(insertExample);
+        for (int i = 0; i < firstRow.length; i++) {
+            appendValue(sb.append(i > 0 ? ", '" : "'"), firstRow[i]).append('\'');
+        }
+        return sb.append(");").toString();
+    }
+
+    public String update(String[] row) {
+        StringBuilder sb = new StringBuilder(updateHead.length() * 2 + 16 * headers.length);
+        appendValue(sb.append(updateHead), cell(row, 0)).append(updateExample);
+        for (int i = 0; i < headers.length; i++) {
+            appendValue(sb.append(setPrefixes[i]), cell(row, i));
+        }
+        appendValue(sb.append(updateWhere), cell(row, 0));
+        return sb.append("';").toString();
+    }
+
+    public String delete(String[] row) {
+        StringBuilder sb = new StringBuilder(deleteSafer.length() * 2);
+        appendValue(sb.append(deleteHead), cell(row, 0)).append(deleteSafer);
+        appendValue(sb, cell(row, 0));
+        if (deleteAnd != null) {
+            appendValue(sb.append(deleteAnd), cell(row, 1));
+        }
+        return sb.append("';").toString();
+    }
+
+    private static String cell(String[] row, int column) {
+        return column < row.length && row[column] != null ? row[column] : "";
+    }
+
+    // Doubles single quotes, so the value stays inside its literal
+    private static StringBuilder appendValue(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb;
+        }
+        int run = 0;
+        for (int i = value.indexOf('\''); i >= 0; i = value.indexOf('\'', i + 1)) {
+            sb.append(value, run, i + 1).append('\'');
+            run = i + 1;
+        }
+        return sb.append(value, run, value.length());
+    }
+}
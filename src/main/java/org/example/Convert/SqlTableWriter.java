@@ -0,0 +1,115 @@
+package org.example.Convert;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+
+/**
+ * Streaming SQL dump: CREATE TABLE, then multi-row INSERT statements of up to
+ * batchSize rows, optionally wrapped in a transaction every transactionSize rows.
+ * Nothing is buffered beyond the underlying writer, so dumps of any size stream out.
+ */
+public class SqlTableWriter extends TableWriter {
+    private final Writer writer;
+    private final SqlOptions options;
+    private final SqlDialect dialect;
+    private String insertPrefix;
+    private int rowsInBatch;
+    private int rowsInTransaction;
+    private boolean inTransaction;
+
+    public SqlTableWriter(Writer writer, SqlOptions options) {
+        this.writer = writer;
+        this.options = options;
+        this.dialect = options.getDialect();
+    }
+
+    @Override
+    protected void begin() throws IOException {
+        String table = dialect.quoteIdentifier(options.getTableName());
+        writer.write("-- SQL Export (" + dialect + ") - Generated on " + new Date() + "\n\n");
+
+        writer.write("CREATE TABLE IF NOT EXISTS " + table + " (\n");
+        // A generated key only when the data has no id column of its own
+        if (!hasIdColumn()) {
+            writer.write("  " + dialect.getKeyColumn() + ",\n");
+        }
+        StringBuilder columns = new StringBuilder();
+        for (int i = 0; i < headers.length; i++) {
+            String column = dialect.quoteIdentifier(headers[i]);
+            writer.write("  " + column + " " + dialect.getTextType());
+            if (i < headers.length - 1) writer.write(",");
+            writer.write("\n");
+
+            if (i > 0) columns.append(", ");
+            columns.append(column);
+        }
+        writer.write(");\n\n");
+
+        writer.write("-- INSERT statements\n");
+        // The column list is written once per batch, not once per row
+        insertPrefix = "INSERT INTO " + table + " (" + columns + ") VALUES\n";
+    }
+
+    @Override
+    protected void write(String[] row) throws IOException {
+        if (options.getTransactionSize() > 0 && !inTransaction) {
+            writer.write(dialect.getBeginTransaction());
+            writer.write('\n');
+            inTransaction = true;
+        }
+
+        writer.write(rowsInBatch == 0 ? insertPrefix : ",\n");
+        writer.write("  (");
+        for (int j = 0; j < headers.length; j++) {
+            if (j > 0) writer.write(", ");
+            dialect.writeString(writer, cell(row, j));
+        }
+        writer.write(')');
+
+        if (++rowsInBatch == options.getBatchSize()) {
+            endBatch();
+        }
+        if (inTransaction && ++rowsInTransaction == options.getTransactionSize()) {
+            endTransaction();
+        }
+    }
+
+    private boolean hasIdColumn() {
+        for (String header : headers) {
+            if (header.trim().equalsIgnoreCase("id")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void endBatch() throws IOException {
+        if (rowsInBatch > 0) {
+            writer.write(";\n");
+            rowsInBatch = 0;
+        }
+    }
+
+    private void endTransaction() throws IOException {
+        endBatch();
+        writer.write("COMMIT;\n");
+        inTransaction = false;
+        rowsInTransaction = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (headers == null) {
+                writer.write("-- No data available for SQL export\n");
+            }
+            endBatch();
+            if (inTransaction) {
+                endTransaction();
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.Convert;
+
+import java.util.Locale;
+
+/**
+ * Table formats the converter can read and/or write.
+ */
+public enum TableFormat {
+    CSV("csv", true),
+    JSON("json", true),
+    XML("xml", true),
+    SQL("sql", false),
+    XLSX("xlsx", true);
+
+    private final String extension;
+    private final boolean readable;
+
+    TableFormat(String extension, boolean readable) {
+        this.extension = extension;
+        this.readable = readable;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public boolean isReadable() {
+        return readable;
+    }
+
+    // Format of a file name by extension, or null
+    public static TableFormat fromFileName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? null : fromName(fileName.substring(dot + 1));
+    }
+
+    // Format by name or extension ("csv", "excel"...), or null
+    public static TableFormat fromName(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.equals("excel") || lower.equals("xls")) {
+            return XLSX;
+        }
+        for (TableFormat format : values()) {
+            if (format.extension.equals(lower)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
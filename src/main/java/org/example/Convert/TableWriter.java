@@ -0,0 +1,51 @@
+package org.example.Convert;
+
+import org.example.Utils.RowSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams rows into an output format. Rows are written as they arrive, so a
+ * RowSource can be piped into a writer without holding the table in memory.
+ * close() finishes the document; a writer that never got headers writes an empty one.
+ */
+public abstract class TableWriter implements RowSink, Closeable {
+    protected String[] headers;
+    private int rowCount;
+
+    @Override
+    public final void headers(String[] headers) {
+        this.headers = headers;
+        try {
+            begin();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final boolean row(String[] row) {
+        try {
+            write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rowCount++;
+        return true;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    // Cell of a row, "" when missing or null
+    protected String cell(String[] row, int column) {
+        return column < row.length && row[column] != null ? row[column] : "";
+    }
+
+    protected abstract void begin() throws IOException;
+
+    protected abstract void write(String[] row) throws IOException;
+}
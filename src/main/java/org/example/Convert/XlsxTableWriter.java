@@ -0,0 +1,124 @@
+package org.example.Convert;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming Excel workbook. Only a window of rows stays in memory (older rows are
+ * flushed to a temporary file), column widths are estimated from the first rows
+ * instead of autoSizeColumn, and tables over the sheet row limit continue on new sheets.
+ */
+public class XlsxTableWriter extends TableWriter {
+    private static final int ROW_WINDOW = 200;
+    private static final int WIDTH_SAMPLE_ROWS = 1000;
+    private static final int MAX_COLUMN_CHARS = 80;
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final int MAX_TEXT_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+    private final String sheetName;
+    private CellStyle headerStyle;
+    private Sheet sheet;
+    private int sheetCount;
+    private int nextRow;
+    private int sampledRows;
+    private int[] columnChars;
+
+    public XlsxTableWriter(OutputStream out, String sheetName) {
+        this.out = out;
+        this.sheetName = sheetName;
+        workbook.setCompressTempFiles(true);
+    }
+
+    @Override
+    protected void begin() {
+        headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+
+        columnChars = new int[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            columnChars[i] = length(headers[i]);
+        }
+        startSheet();
+    }
+
+    private void startSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + " (" + sheetCount + ")");
+        nextRow = 0;
+
+        Row headerRow = sheet.createRow(nextRow++);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        if (sampledRows >= WIDTH_SAMPLE_ROWS) {
+            applyColumnWidths();
+        }
+    }
+
+    @Override
+    protected void write(String[] row) {
+        if (nextRow == MAX_ROWS) {
+            startSheet();
+        }
+
+        Row sheetRow = sheet.createRow(nextRow++);
+        for (int j = 0; j < headers.length; j++) {
+            String value = cell(row, j);
+            if (value.length() > MAX_TEXT_LENGTH) {
+                value = value.substring(0, MAX_TEXT_LENGTH);
+            }
+            sheetRow.createCell(j).setCellValue(value);
+        }
+
+        if (sampledRows < WIDTH_SAMPLE_ROWS) {
+            for (int j = 0; j < headers.length; j++) {
+                columnChars[j] = Math.max(columnChars[j], length(cell(row, j)));
+            }
+            if (++sampledRows == WIDTH_SAMPLE_ROWS) {
+                applyColumnWidths();
+            }
+        }
+    }
+
+    // Widths in 1/256 of a character, with a little padding
+    private void applyColumnWidths() {
+        for (int i = 0; i < columnChars.length; i++) {
+            sheet.setColumnWidth(i, (Math.min(columnChars[i], MAX_COLUMN_CHARS) + 2) * 256);
+        }
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (headers != null && sampledRows < WIDTH_SAMPLE_ROWS) {
+                applyColumnWidths();
+            }
+            if (sheet == null) {
+                workbook.createSheet(sheetName);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+            out.close();
+        }
+    }
+}
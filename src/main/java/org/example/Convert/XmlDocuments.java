@@ -0,0 +1,397 @@
+package org.example.Convert;
+
+import org.example.Utils.EntityFixingReader;
+import org.example.Utils.RowSink;
+import org.example.Utils.TextNormalizer;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Document-level XML conversions shared by CorrectorXML and the command line:
+ * the flat node listing behind the HTML report (HtmlReportWriter) and the table exports.
+ * The JSON shapes are in XmlJsonWriter.
+ */
+public final class XmlDocuments {
+    public static final String[] NODE_COLUMNS = {"Type", "Node", "Value", "Path"};
+    // JDK StAX property; without it CDATA sections arrive as plain CHARACTERS
+    private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    private XmlDocuments() {
+    }
+
+    // Parses a UTF-8 file, escaping stray '&' on the way in (see EntityFixingReader)
+    public static Document parse(File file) throws Exception {
+        return parse(file, percent -> {
+        });
+    }
+
+    /**
+     * Same as parse(File), reporting progress in percent of the bytes read. An interrupted
+     * thread stops the parse with an InterruptedIOException.
+     */
+    public static Document parse(File file, IntConsumer progress) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        Document doc;
+        try (Reader reader = EntityFixingReader.open(new ProgressInputStream(new FileInputStream(file), file.length(), progress))) {
+            doc = builder.parse(new InputSource(reader));
+        }
+        doc.getDocumentElement().normalize();
+        return doc;
+    }
+
+    // Normalizes every text node under the node, walking the tree without building NodeLists
+    public static void normalizeText(Node root, TextNormalizer normalizer) {
+        Node node = root;
+        while (node != null) {
+            if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+                String text = node.getNodeValue();
+                String normalized = normalizer.normalize(text);
+                if (normalized != text) {
+                    node.setNodeValue(normalized);
+                }
+            }
+
+            if (node.getFirstChild() != null) {
+                node = node.getFirstChild();
+            } else {
+                while (node != root && node.getNextSibling() == null) {
+                    node = node.getParentNode();
+                }
+                node = node != root ? node.getNextSibling() : null;
+            }
+        }
+    }
+
+    /**
+     * Copies the element and its descendants into target, in document order, until about
+     * maxChars of names, attributes and text have been copied. Whitespace-only text is left
+     * out, as an indenting serializer adds its own. The copy shares nothing with the source,
+     * so it can be serialized on another thread while the source is edited.
+     *
+     * @return false if the copy stopped before the end of the subtree
+     */
+    public static boolean copyWindow(Node root, Document target, int maxChars) {
+        int budget = maxChars;
+        Node parent = target;
+        Node node = root;
+        while (node != null) {
+            Node copy = null;
+            if (node.getNodeType() != Node.TEXT_NODE || !node.getNodeValue().trim().isEmpty()) {
+                copy = target.importNode(node, false);
+                parent.appendChild(copy);
+            }
+
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                budget -= 2 * node.getNodeName().length() + 5;
+                NamedNodeMap attributes = node.getAttributes();
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    budget -= attributes.item(i).getNodeName().length() + attributes.item(i).getNodeValue().length() + 4;
+                }
+            } else if (node.getNodeValue() != null) {
+                budget -= node.getNodeValue().length();
+            }
+            if (budget < 0) {
+                return false;
+            }
+
+            if (node.getNodeType() == Node.ELEMENT_NODE && node.getFirstChild() != null) {
+                node = node.getFirstChild();
+                parent = copy;
+            } else {
+                while (node != root && node.getNextSibling() == null) {
+                    node = node.getParentNode();
+                    parent = parent.getParentNode();
+                }
+                node = node != root ? node.getNextSibling() : null;
+            }
+        }
+        return true;
+    }
+
+    // Trimmed text plus CDATA directly under an element
+    public static String elementContent(Node element) {
+        StringBuilder content = new StringBuilder();
+        NodeList children = element.getChildNodes();
+
+        for (int i = 0; i < children.getLength(); i++) {
+            Node child = children.item(i);
+            if (child.getNodeType() == Node.TEXT_NODE) {
+                content.append(child.getTextContent().trim());
+            }
+            else if (child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                content.append(child.getTextContent());
+            }
+        }
+
+        return content.toString();
+    }
+
+    /**
+     * Node/value pairs of one element: its attributes, child elements (with their
+     * attributes), text, CDATA and comments. This is what the editor's table shows.
+     */
+    public static List<String[]> nodeRows(Node xmlNode) {
+        List<String[]> rows = new ArrayList<>();
+
+        if (xmlNode == xmlNode.getOwnerDocument().getDocumentElement()) {
+            rows.add(new String[]{"Document", xmlNode.getNodeName()});
+        }
+
+        NamedNodeMap attributes = xmlNode.getAttributes();
+        if (attributes != null) {
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Node attr = attributes.item(i);
+                rows.add(new String[]{"@" + attr.getNodeName(), attr.getNodeValue()});
+            }
+        }
+
+        NodeList children = xmlNode.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node child = children.item(i);
+
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                rows.add(new String[]{child.getNodeName(), elementContent(child)});
+
+                if (child.hasAttributes()) {
+                    NamedNodeMap childAttrs = child.getAttributes();
+                    for (int j = 0; j < childAttrs.getLength(); j++) {
+                        Node attr = childAttrs.item(j);
+                        rows.add(new String[]{child.getNodeName() + "/@" + attr.getNodeName(), attr.getNodeValue()});
+                    }
+                }
+            }
+            else if (child.getNodeType() == Node.TEXT_NODE && !child.getTextContent().trim().isEmpty()) {
+                rows.add(new String[]{"#text", child.getTextContent().trim()});
+            }
+            else if (child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                rows.add(new String[]{"#cdata", child.getTextContent()});
+            }
+            else if (child.getNodeType() == Node.COMMENT_NODE) {
+                rows.add(new String[]{"#comment", child.getTextContent()});
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The same rows as nodeRows(Node), read with StAX from the source text of one element
+     * (e.g. a slice of a file too large for a DOM). Stops after maxRows rows.
+     */
+    public static List<String[]> nodeRows(Reader element, boolean documentElement, int maxRows) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        if (factory.isPropertySupported(REPORT_CDATA)) {
+            factory.setProperty(REPORT_CDATA, true);
+        }
+        XMLStreamReader xml = factory.createXMLStreamReader(element);
+
+        List<String[]> rows = new ArrayList<>();
+        try {
+            String[] childRow = null;
+            StringBuilder content = new StringBuilder();
+            // Text between two other nodes, like a normalized DOM text node
+            StringBuilder text = new StringBuilder();
+            int depth = 0;
+
+            while (xml.hasNext() && rows.size() < maxRows) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+                    text.append(xml.getText());
+                    continue;
+                }
+                if (text.length() > 0) {
+                    String trimmed = text.toString().trim();
+                    if (depth == 1 && !trimmed.isEmpty()) {
+                        rows.add(new String[]{"#text", trimmed});
+                    } else if (depth == 2) {
+                        content.append(trimmed);
+                    }
+                    text.setLength(0);
+                }
+
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        if (depth == 1) {
+                            if (documentElement) {
+                                rows.add(new String[]{"Document", xml.getLocalName()});
+                            }
+                            for (int i : attributeOrder(xml)) {
+                                rows.add(new String[]{"@" + attributeName(xml, i), xml.getAttributeValue(i)});
+                            }
+                        } else if (depth == 2) {
+                            childRow = new String[]{xml.getLocalName(), ""};
+                            content.setLength(0);
+                            rows.add(childRow);
+                            for (int i : attributeOrder(xml)) {
+                                rows.add(new String[]{childRow[0] + "/@" + attributeName(xml, i), xml.getAttributeValue(i)});
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (depth == 2) {
+                            childRow[1] = content.toString();
+                        }
+                        if (--depth == 0) {
+                            return rows;
+                        }
+                        break;
+                    case XMLStreamConstants.CDATA:
+                        if (depth == 1) {
+                            rows.add(new String[]{"#cdata", xml.getText()});
+                        } else if (depth == 2) {
+                            content.append(xml.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        if (depth == 1) {
+                            rows.add(new String[]{"#comment", xml.getText()});
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (childRow != null && depth >= 2) {
+                childRow[1] = content.toString();
+            }
+            return rows;
+        } finally {
+            xml.close();
+        }
+    }
+
+    // Attribute indexes sorted by name, the order a DOM NamedNodeMap lists them in
+    private static Integer[] attributeOrder(XMLStreamReader xml) {
+        Integer[] order = new Integer[xml.getAttributeCount()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> attributeName(xml, i)));
+        return order;
+    }
+
+    private static String attributeName(XMLStreamReader xml, int i) {
+        String prefix = xml.getAttributePrefix(i);
+        String name = xml.getAttributeLocalName(i);
+        return prefix == null || prefix.isEmpty() ? name : prefix + ":" + name;
+    }
+
+    /**
+     * Every node of the tree as a NODE_COLUMNS row, in document order. Types are
+     * "element", "attribute", "text", "cdata" and "comment".
+     */
+    public static void flatten(Node node, RowSink sink) {
+        sink.headers(NODE_COLUMNS);
+        flatten(node, "", sink);
+    }
+
+    private static boolean flatten(Node node, String path, RowSink sink) {
+        switch (node.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                String currentPath = path + "/" + node.getNodeName();
+                if (!sink.row(new String[]{"element", node.getNodeName(), elementContent(node), currentPath})) {
+                    return false;
+                }
+
+                NamedNodeMap attributes = node.getAttributes();
+                if (attributes != null) {
+                    for (int i = 0; i < attributes.getLength(); i++) {
+                        Node attr = attributes.item(i);
+                        if (!sink.row(new String[]{"attribute", "@" + attr.getNodeName(), attr.getNodeValue(), currentPath})) {
+                            return false;
+                        }
+                    }
+                }
+
+                NodeList children = node.getChildNodes();
+                for (int i = 0; i < children.getLength(); i++) {
+                    if (!flatten(children.item(i), currentPath, sink)) {
+                        return false;
+                    }
+                }
+                return true;
+
+            case Node.TEXT_NODE:
+                String text = node.getTextContent().trim();
+                return text.isEmpty() || sink.row(new String[]{"text", "#text", text, path});
+
+            case Node.CDATA_SECTION_NODE:
+                return sink.row(new String[]{"cdata", "#cdata", node.getTextContent(), path});
+
+            case Node.COMMENT_NODE:
+                return sink.row(new String[]{"comment", "#comment", node.getTextContent(), path});
+
+            default:
+                return true;
+        }
+    }
+
+    private static final class ProgressInputStream extends FilterInputStream {
+        private final long length;
+        private final IntConsumer progress;
+        private long count;
+        private int percent = -1;
+
+        ProgressInputStream(InputStream in, long length, IntConsumer progress) {
+            super(in);
+            this.length = Math.max(1, length);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        private void advance(int bytes) throws InterruptedIOException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("XML parsing cancelled");
+            }
+            count += bytes;
+            int current = (int) Math.min(99, count * 100 / length);
+            if (current != percent) {
+                percent = current;
+                progress.accept(current);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.Convert;
+
+import com.google.gson.stream.JsonWriter;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes an element tree as JSON tokens while walking it. Open elements are kept on a
+ * heap stack instead of the call stack, so the depth of the document does not matter.
+ */
+public class XmlJsonWriter {
+
+    public enum Shape {
+        // {"nodeName", "attributes", "content", "children"} objects, as the editor has always exported
+        NODE_NAME("nodeName"),
+        // {"root": {"@attr": "...", "$": "text", "child": {...}}}, repeated children as arrays
+        BADGERFISH("BadgerFish");
+
+        private final String label;
+
+        Shape(String label) {
+            this.label = label;
+        }
+
+        public static Shape fromName(String name) {
+            for (Shape shape : values()) {
+                if (shape.label.equalsIgnoreCase(name) || shape.name().equalsIgnoreCase(name.replace('-', '_'))) {
+                    return shape;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final JsonWriter json;
+    private final Shape shape;
+
+    public XmlJsonWriter(Writer writer, Shape shape) {
+        this.json = new JsonWriter(writer);
+        this.shape = shape;
+    }
+
+    public void write(Node root) throws IOException {
+        if (root.getNodeType() != Node.ELEMENT_NODE) {
+            return;
+        }
+        if (shape == Shape.BADGERFISH) {
+            json.beginObject().name(root.getNodeName());
+        }
+
+        Deque<Element> open = new ArrayDeque<>();
+        open.push(new Element(root));
+        while (!open.isEmpty()) {
+            Node child = open.peek().nextChild();
+            if (child != null) {
+                open.push(new Element(child));
+            } else {
+                open.pop().end();
+            }
+        }
+
+        if (shape == Shape.BADGERFISH) {
+            json.endObject();
+        }
+        json.flush();
+    }
+
+    /**
+     * An element whose object is open: its attributes and content are written, and its
+     * child elements are handed out grouped under their property names.
+     */
+    private final class Element {
+        private final List<String> names = new ArrayList<>();
+        private final List<List<Node>> groups = new ArrayList<>();
+        private int group;
+        private int item;
+
+        Element(Node node) throws IOException {
+            json.beginObject();
+            if (shape == Shape.NODE_NAME) {
+                json.name("nodeName").value(node.getNodeName());
+            }
+
+            NamedNodeMap attributes = node.getAttributes();
+            if (attributes != null && attributes.getLength() > 0) {
+                if (shape == Shape.NODE_NAME) {
+                    json.name("attributes").beginObject();
+                }
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    Node attr = attributes.item(i);
+                    json.name(shape == Shape.NODE_NAME ? attr.getNodeName() : "@" + attr.getNodeName())
+                            .value(attr.getNodeValue());
+                }
+                if (shape == Shape.NODE_NAME) {
+                    json.endObject();
+                }
+            }
+
+            String content = XmlDocuments.elementContent(node);
+            if (!content.isEmpty()) {
+                json.name(shape == Shape.NODE_NAME ? "content" : "$").value(content);
+            }
+
+            Map<String, List<Node>> byName = new LinkedHashMap<>();
+            for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    String name = shape == Shape.NODE_NAME ? "children" : child.getNodeName();
+                    byName.computeIfAbsent(name, k -> new ArrayList<>()).add(child);
+                }
+            }
+            names.addAll(byName.keySet());
+            groups.addAll(byName.values());
+        }
+
+        // Next child element to write, after opening its property; null once all are written
+        Node nextChild() throws IOException {
+            while (group < groups.size()) {
+                List<Node> nodes = groups.get(group);
+                boolean array = shape == Shape.NODE_NAME || nodes.size() > 1;
+                if (item == 0) {
+                    json.name(names.get(group));
+                    if (array) {
+                        json.beginArray();
+                    }
+                }
+                if (item < nodes.size()) {
+                    return nodes.get(item++);
+                }
+                if (array) {
+                    json.endArray();
+                }
+                group++;
+                item = 0;
+            }
+            return null;
+        }
+
+        void end() throws IOException {
+            json.endObject();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.Convert;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * &lt;data&gt;&lt;row&gt;&lt;column&gt;value&lt;/column&gt;...&lt;/row&gt;&lt;/data&gt;, the layout XmlRowSource reads back.
+ * Column names that are not valid element names are adjusted (spaces become '_').
+ */
+public class XmlTableWriter extends TableWriter {
+    private final Writer writer;
+    private String[] elementNames;
+
+    public XmlTableWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    protected void begin() throws IOException {
+        elementNames = new String[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            elementNames[i] = toElementName(headers[i]);
+        }
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<data>\n");
+    }
+
+    @Override
+    protected void write(String[] row) throws IOException {
+        writer.write("  <row>\n");
+        for (int i = 0; i < elementNames.length; i++) {
+            writer.write("    <");
+            writer.write(elementNames[i]);
+            writer.write('>');
+            writeEscaped(cell(row, i));
+            writer.write("</");
+            writer.write(elementNames[i]);
+            writer.write(">\n");
+        }
+        writer.write("  </row>\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (headers == null) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<data>\n");
+        }
+        writer.write("</data>");
+        writer.close();
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&': writer.write("&amp;"); break;
+                case '<': writer.write("&lt;"); break;
+                case '>': writer.write("&gt;"); break;
+                case '"': writer.write("&quot;"); break;
+                case '\'': writer.write("&apos;"); break;
+                default: writer.write(c);
+            }
+        }
+    }
+
+    static String toElementName(String name) {
+        StringBuilder result = new StringBuilder(name.length() + 1);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+            result.append(valid ? c : '_');
+        }
+        if (result.length() == 0 || !(Character.isLetter(result.charAt(0)) || result.charAt(0) == '_')
+                || name.regionMatches(true, 0, "xml", 0, 3)) {
+            result.insert(0, '_');
+        }
+        return result.toString();
+    }
+}
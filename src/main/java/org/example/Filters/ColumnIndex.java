@@ -0,0 +1,211 @@
+package org.example.Filters;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index over the distinct (lowercased) values of one column. Every distinct value gets an
+ * id; queries return the ids of the matching values, so a filter never looks at a cell twice.
+ * Hash lookup for equals, sorted keys for starts with, trigrams for contains and ends with.
+ */
+class ColumnIndex {
+    private static final int GRAM = 3;
+    // Longer values (notes, descriptions) are scanned instead of exploding the gram table
+    private static final int MAX_GRAM_KEY_LENGTH = 64;
+
+    private static final class Key {
+        final String value;
+        final int id;
+        int rows;
+
+        Key(String value, int id) {
+            this.value = value;
+            this.id = id;
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size > 0 && values[size - 1] == value) return; // same key, repeated gram
+            if (size == values.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+    }
+
+    private final Map<String, Key> keys = new HashMap<>();
+    private final TreeMap<String, Key> sortedKeys = new TreeMap<>();
+    private final Map<Long, IntList> grams = new HashMap<>();
+    // Values with no trigram or too long to index them are tested one by one
+    private final Set<Key> shortKeys = new HashSet<>();
+    private final Set<Key> longKeys = new HashSet<>();
+    // Ids are never reused; removed keys leave a null here and are skipped by the gram lists
+    private final List<Key> keysById = new ArrayList<>();
+
+    // Both key and value are already lowercased
+    static boolean matches(String key, FilterOperator operator, String value) {
+        switch (operator) {
+            case CONTAINS: return key.contains(value);
+            case EQUALS: return key.equals(value);
+            case STARTS_WITH: return key.startsWith(value);
+            case ENDS_WITH: return key.endsWith(value);
+            case EMPTY: return key.trim().isEmpty();
+            case NOT_EMPTY: return !key.trim().isEmpty();
+            default: return false;
+        }
+    }
+
+    int add(String value) {
+        Key key = keys.get(value);
+        if (key == null) {
+            key = new Key(value, keysById.size());
+            keys.put(value, key);
+            sortedKeys.put(value, key);
+            keysById.add(key);
+            indexGrams(key);
+        }
+        key.rows++;
+        return key.id;
+    }
+
+    void release(int id) {
+        Key key = keysById.get(id);
+        if (key != null && --key.rows == 0) {
+            keys.remove(key.value);
+            sortedKeys.remove(key.value);
+            shortKeys.remove(key);
+            longKeys.remove(key);
+            keysById.set(id, null);
+        }
+    }
+
+    String getKey(int id) {
+        Key key = keysById.get(id);
+        return key != null ? key.value : "";
+    }
+
+    // Ids at or above this value were created after a query and are not in its result
+    int getKeyLimit() {
+        return keysById.size();
+    }
+
+    BitSet match(FilterOperator operator, String value) {
+        BitSet result = new BitSet(keysById.size());
+
+        if (operator == FilterOperator.EQUALS) {
+            Key key = keys.get(value);
+            if (key != null) {
+                result.set(key.id);
+            }
+        } else if (operator == FilterOperator.STARTS_WITH) {
+            for (Key key : sortedKeys.subMap(value, true, value + Character.MAX_VALUE, false).values()) {
+                result.set(key.id);
+            }
+        } else if (operator == FilterOperator.CONTAINS && !value.isEmpty()) {
+            if (value.length() >= GRAM) {
+                matchGrams(operator, value, result);
+            } else {
+                matchShortValue(value, result);
+            }
+        } else if (operator == FilterOperator.ENDS_WITH && value.length() >= GRAM) {
+            matchGrams(operator, value, result);
+        } else {
+            // Emptiness and short ends with: one test per distinct value
+            for (Key key : keys.values()) {
+                if (matches(key.value, operator, value)) {
+                    result.set(key.id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void matchGrams(FilterOperator operator, String value, BitSet result) {
+        // Candidates come from the rarest trigram of the value, then are verified
+        IntList candidates = null;
+        int first = operator == FilterOperator.ENDS_WITH ? value.length() - GRAM : 0;
+        for (int i = first; i + GRAM <= value.length(); i++) {
+            IntList list = grams.get(gram(value, i));
+            if (list == null) {
+                candidates = null;
+                break;
+            }
+            if (candidates == null || list.size < candidates.size) {
+                candidates = list;
+            }
+        }
+
+        if (candidates != null) {
+            for (int i = 0; i < candidates.size; i++) {
+                Key key = keysById.get(candidates.values[i]);
+                if (key != null && matches(key.value, operator, value)) {
+                    result.set(key.id);
+                }
+            }
+        }
+
+        for (Key key : longKeys) {
+            if (matches(key.value, operator, value)) {
+                result.set(key.id);
+            }
+        }
+    }
+
+    // A trigram containing a one or two char value means all its keys match, no verification
+    private void matchShortValue(String value, BitSet result) {
+        for (Map.Entry<Long, IntList> entry : grams.entrySet()) {
+            long gram = entry.getKey();
+            String text = new String(new char[]{(char) (gram >>> 32), (char) (gram >>> 16), (char) gram});
+            if (text.contains(value)) {
+                IntList ids = entry.getValue();
+                for (int i = 0; i < ids.size; i++) {
+                    if (keysById.get(ids.values[i]) != null) {
+                        result.set(ids.values[i]);
+                    }
+                }
+            }
+        }
+
+        for (Key key : shortKeys) {
+            if (key.value.contains(value)) {
+                result.set(key.id);
+            }
+        }
+        for (Key key : longKeys) {
+            if (key.value.contains(value)) {
+                result.set(key.id);
+            }
+        }
+    }
+
+    private void indexGrams(Key key) {
+        String value = key.value;
+        if (value.length() < GRAM) {
+            shortKeys.add(key);
+            return;
+        }
+        if (value.length() > MAX_GRAM_KEY_LENGTH) {
+            longKeys.add(key);
+            return;
+        }
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.computeIfAbsent(gram(value, i), g -> new IntList()).add(key.id);
+        }
+    }
+
+    private static long gram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.Filters;
+
+import java.util.function.IntPredicate;
+
+/**
+ * How a new condition from a filter dialog joins the filter already applied.
+ */
+public enum FilterCombination {
+    REPLACE("Replace current filter"),
+    AND("AND with current filter"),
+    OR("OR with current filter");
+
+    private final String label;
+
+    FilterCombination(String label) {
+        this.label = label;
+    }
+
+    public IntPredicate apply(IntPredicate current, IntPredicate added) {
+        if (current == null || this == REPLACE) {
+            return added;
+        }
+        return this == AND ? current.and(added) : current.or(added);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
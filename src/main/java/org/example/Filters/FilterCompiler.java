@@ -0,0 +1,125 @@
+package org.example.Filters;
+
+import org.example.Utils.DateCodec;
+import org.example.Utils.StringDictionary;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Turns filter conditions into predicates on model rows. All the per-condition work
+ * (operator dispatch, case folding, number parsing, dictionary lookups) happens once
+ * here, so the row filter only runs the specialized test.
+ */
+public final class FilterCompiler {
+
+    private FilterCompiler() {
+    }
+
+    /**
+     * Compiles one condition. When an index is given it answers the condition; the
+     * compiled scan takes over if the index is later dropped (e.g. a new file is loaded).
+     * Number and date comparisons always scan: the index only matches the text, so
+     * "id = 05" would find other rows once the index is live.
+     */
+    public static IntPredicate compile(FilterTable table, TableIndex<?> index, FilterCondition condition) {
+        IntPredicate scan = compileScan(table, condition);
+        IntPredicate indexed = index != null && !isTypedComparison(table, condition)
+                ? index.matcher(condition.getColumn(), condition.getOperator(), condition.getValue())
+                : null;
+        if (indexed == null) {
+            return scan;
+        }
+        return row -> index.isLive() ? indexed.test(row) : scan.test(row);
+    }
+
+    public static IntPredicate compile(FilterTable table, TableIndex<?> index,
+                                       List<FilterCondition> conditions, boolean matchAll) {
+        IntPredicate result = null;
+        for (FilterCondition condition : conditions) {
+            IntPredicate predicate = compile(table, index, condition);
+            if (result == null) {
+                result = predicate;
+            } else {
+                result = matchAll ? result.and(predicate) : result.or(predicate);
+            }
+        }
+        return result != null ? result : row -> true;
+    }
+
+    // Row filter for a TableRowSorter over the model the predicate was compiled for
+    public static <M> RowFilter<M, Integer> toRowFilter(IntPredicate predicate) {
+        return new RowFilter<M, Integer>() {
+            @Override
+            public boolean include(Entry<? extends M, ? extends Integer> entry) {
+                return predicate.test(entry.getIdentifier());
+            }
+        };
+    }
+
+    // True if compileScan compares the column's numbers or epoch days instead of its text
+    private static boolean isTypedComparison(FilterTable table, FilterCondition condition) {
+        int column = condition.getColumn();
+        FilterOperator operator = condition.getOperator();
+        boolean comparable = operator == FilterOperator.EQUALS
+                || operator == FilterOperator.NOT_EQUALS || operator.isOrdering();
+        if (!comparable || table.getDictionary(column) != null) {
+            return false;
+        }
+        if (table.isDate(column) && DateCodec.parseEpochDay(condition.getValue().trim()) != DateCodec.INVALID) {
+            return true;
+        }
+        return table.isNumeric(column) && !Double.isNaN(TextMatcher.parseNumber(condition.getValue()));
+    }
+
+    private static IntPredicate compileScan(FilterTable table, FilterCondition condition) {
+        int column = condition.getColumn();
+        FilterOperator operator = condition.getOperator();
+        Predicate<String> text = TextMatcher.compile(operator, condition.getValue());
+
+        StringDictionary dictionary = table.getDictionary(column);
+        if (dictionary != null) {
+            // Each distinct value is tested once; codes added after compiling are tested on the fly.
+            // A table cleared since then has a new dictionary, and its rows are tested as text.
+            boolean[] matches = new boolean[dictionary.size()];
+            for (int code = 0; code < matches.length; code++) {
+                matches[code] = text.test(dictionary.decode(code));
+            }
+            return row -> {
+                if (table.getDictionary(column) != dictionary) {
+                    return text.test(table.getText(row, column));
+                }
+                int code = table.getCode(row, column);
+                return code < matches.length ? matches[code] : text.test(dictionary.decode(code));
+            };
+        }
+
+        boolean comparable = operator == FilterOperator.EQUALS
+                || operator == FilterOperator.NOT_EQUALS || operator.isOrdering();
+
+        if (table.isDate(column) && comparable) {
+            int day = DateCodec.parseEpochDay(condition.getValue().trim());
+            if (day != DateCodec.INVALID) {
+                // Rows without a date only satisfy "not equals"
+                return row -> {
+                    long rowDay = table.getNumber(row, column);
+                    return rowDay == DateCodec.INVALID
+                            ? operator == FilterOperator.NOT_EQUALS
+                            : operator.accepts(Long.compare(rowDay, day));
+                };
+            }
+        }
+
+        if (table.isNumeric(column) && comparable) {
+            double number = TextMatcher.parseNumber(condition.getValue());
+            if (!Double.isNaN(number)) {
+                return row -> operator.accepts(Double.compare(table.getNumber(row, column), number));
+            }
+            // Not a number: compare the text like any other column
+        }
+
+        return row -> text.test(table.getText(row, column));
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.Filters;
+
+/**
+ * One "column operator value" condition from a filter dialog.
+ */
+public class FilterCondition {
+    private final int column;
+    private final FilterOperator operator;
+    private final String value;
+
+    public FilterCondition(int column, FilterOperator operator, String value) {
+        this.column = column;
+        this.operator = operator;
+        this.value = value != null ? value : "";
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public FilterOperator getOperator() {
+        return operator;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.Filters;
+
+/**
+ * Operators offered by the filter dialogs and the query bar. Text comparisons ignore
+ * case; ordering operators compare numbers when the value is a number.
+ */
+public enum FilterOperator {
+    CONTAINS("contains"),
+    EQUALS("equals"),
+    STARTS_WITH("starts with"),
+    ENDS_WITH("ends with"),
+    EMPTY("is empty"),
+    NOT_EMPTY("is not empty"),
+    NOT_EQUALS("not equals"),
+    LESS("less than"),
+    LESS_OR_EQUAL("at most"),
+    GREATER("greater than"),
+    GREATER_OR_EQUAL("at least");
+
+    private final String label;
+
+    FilterOperator(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean needsValue() {
+        return this != EMPTY && this != NOT_EMPTY;
+    }
+
+    public boolean isOrdering() {
+        return this == LESS || this == LESS_OR_EQUAL || this == GREATER || this == GREATER_OR_EQUAL;
+    }
+
+    // Operators answered by the column index (see ColumnIndex)
+    public boolean isIndexed() {
+        return ordinal() <= NOT_EMPTY.ordinal();
+    }
+
+    // Result of compare(cell, value) accepted by this operator
+    boolean accepts(int comparison) {
+        switch (this) {
+            case EQUALS: return comparison == 0;
+            case NOT_EQUALS: return comparison != 0;
+            case LESS: return comparison < 0;
+            case LESS_OR_EQUAL: return comparison <= 0;
+            case GREATER: return comparison > 0;
+            case GREATER_OR_EQUAL: return comparison >= 0;
+            default: throw new IllegalStateException(this + " is not a comparison");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
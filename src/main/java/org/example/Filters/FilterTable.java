@@ -0,0 +1,35 @@
+package org.example.Filters;
+
+import org.example.Utils.StringDictionary;
+
+/**
+ * Column access used by compiled filters. Tables with typed columns override the
+ * defaults so numbers and dictionary codes are compared without building Strings.
+ */
+public interface FilterTable {
+
+    // Cell text of a model row; "" for missing cells
+    String getText(int row, int column);
+
+    default boolean isNumeric(int column) {
+        return false;
+    }
+
+    // Date columns return epoch days (DateCodec) from getNumber
+    default boolean isDate(int column) {
+        return false;
+    }
+
+    default long getNumber(int row, int column) {
+        throw new UnsupportedOperationException("Column " + column + " is not numeric");
+    }
+
+    // Dictionary of a low-cardinality column, or null
+    default StringDictionary getDictionary(int column) {
+        return null;
+    }
+
+    default int getCode(int row, int column) {
+        throw new UnsupportedOperationException("Column " + column + " is not dictionary encoded");
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.Filters;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+/**
+ * A compiled query from the query bar, e.g.
+ * {@code country = 'ES' AND clientGroupId > 3 AND email ends with '.com'}.
+ *
+ * run() evaluates it column at a time: each condition scans one column over the rows
+ * still selected by the conditions before it and produces a selection bitmap; AND, OR
+ * and NOT combine bitmaps. The row filter then only reads bits. While attached to the
+ * model, edited and appended rows are re-tested one by one to keep the bitmap current.
+ */
+public class Query implements IntPredicate, TableModelListener {
+
+    interface Node {
+        // Subset of the candidate rows matching this node
+        BitSet select(BitSet candidates);
+
+        boolean test(int row);
+
+        void compile(FilterTable table, TableIndex<?> index);
+    }
+
+    static final class Condition implements Node {
+        private final FilterCondition condition;
+        private IntPredicate predicate;
+        private IntPredicate scan;
+
+        Condition(FilterCondition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public void compile(FilterTable table, TableIndex<?> index) {
+            predicate = FilterCompiler.compile(table, index, condition);
+            // Single rows are re-tested from model events, possibly before the index has seen them
+            scan = index != null ? FilterCompiler.compile(table, null, condition) : predicate;
+        }
+
+        @Override
+        public BitSet select(BitSet candidates) {
+            BitSet result = new BitSet(candidates.length());
+            for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                if (predicate.test(row)) {
+                    result.set(row);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean test(int row) {
+            return scan.test(row);
+        }
+    }
+
+    static final class And implements Node {
+        private final Node left;
+        private final Node right;
+
+        And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public void compile(FilterTable table, TableIndex<?> index) {
+            left.compile(table, index);
+            right.compile(table, index);
+        }
+
+        @Override
+        public BitSet select(BitSet candidates) {
+            // The right side only looks at rows the left side kept
+            return right.select(left.select(candidates));
+        }
+
+        @Override
+        public boolean test(int row) {
+            return left.test(row) && right.test(row);
+        }
+    }
+
+    static final class Or implements Node {
+        private final Node left;
+        private final Node right;
+
+        Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public void compile(FilterTable table, TableIndex<?> index) {
+            left.compile(table, index);
+            right.compile(table, index);
+        }
+
+        @Override
+        public BitSet select(BitSet candidates) {
+            // The right side only looks at rows the left side rejected
+            BitSet result = left.select(candidates);
+            BitSet rest = (BitSet) candidates.clone();
+            rest.andNot(result);
+            result.or(right.select(rest));
+            return result;
+        }
+
+        @Override
+        public boolean test(int row) {
+            return left.test(row) || right.test(row);
+        }
+    }
+
+    static final class Not implements Node {
+        private final Node child;
+
+        Not(Node child) {
+            this.child = child;
+        }
+
+        @Override
+        public void compile(FilterTable table, TableIndex<?> index) {
+            child.compile(table, index);
+        }
+
+        @Override
+        public BitSet select(BitSet candidates) {
+            BitSet result = (BitSet) candidates.clone();
+            result.andNot(child.select(candidates));
+            return result;
+        }
+
+        @Override
+        public boolean test(int row) {
+            return !child.test(row);
+        }
+    }
+
+    private final Node root;
+    private BitSet selection;
+    private int selectedRows;
+    private TableModel model;
+
+    private Query(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Parses and compiles a query against the given headers.
+     *
+     * @throws IllegalArgumentException with a readable message when the query is invalid
+     */
+    public static Query compile(String text, String[] columns, FilterTable table, TableIndex<?> index) {
+        Node root = new QueryParser(text, columns).parse();
+        root.compile(table, index);
+        return new Query(root);
+    }
+
+    // Rows of the first rowCount model rows matching a parsed condition, e.g. a WHERE clause
+    static BitSet select(Node root, FilterTable table, TableIndex<?> index, int rowCount) {
+        root.compile(table, index);
+        BitSet all = new BitSet(rowCount);
+        all.set(0, rowCount);
+        return root.select(all);
+    }
+
+    // Evaluates the query over the first rowCount model rows; returns the number of matches
+    public int run(int rowCount) {
+        BitSet all = new BitSet(rowCount);
+        all.set(0, rowCount);
+        selection = root.select(all);
+        selectedRows = rowCount;
+        return selection.cardinality();
+    }
+
+    public void attach(TableModel tableModel) {
+        detach();
+        model = tableModel;
+        model.addTableModelListener(this);
+    }
+
+    public void detach() {
+        if (model != null) {
+            model.removeTableModelListener(this);
+            model = null;
+        }
+    }
+
+    @Override
+    public boolean test(int row) {
+        if (selection != null && row < selectedRows) {
+            return selection.get(row);
+        }
+        return root.test(row);
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        if (selection == null) {
+            return;
+        }
+        int first = e.getFirstRow();
+        int last = e.getLastRow();
+
+        if (first == TableModelEvent.HEADER_ROW || last == Integer.MAX_VALUE) {
+            selection = null;
+        } else if (e.getType() == TableModelEvent.UPDATE) {
+            for (int row = first; row <= last && row < selectedRows; row++) {
+                selection.set(row, root.test(row));
+            }
+        } else if (e.getType() == TableModelEvent.INSERT && first == selectedRows) {
+            for (int row = first; row <= last; row++) {
+                selection.set(row, root.test(row));
+            }
+            selectedRows = last + 1;
+        } else {
+            // Rows removed or inserted in the middle: positions moved, test rows directly
+            selection = null;
+        }
+    }
+}
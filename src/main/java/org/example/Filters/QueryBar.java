@@ -0,0 +1,39 @@
+package org.example.Filters;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.Consumer;
+
+/**
+ * One-line query field shown above the tables. Enter or Run hands the text to the
+ * editor; Clear empties the field and removes the filter.
+ */
+public class QueryBar extends JPanel {
+    private final JTextField queryField = new JTextField();
+
+    public QueryBar(String example, Consumer<String> onRun, Runnable onClear) {
+        super(new BorderLayout(5, 0));
+        setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+
+        queryField.setToolTipText("<html>Example: " + example + "<br>"
+                + "Operators: = != &lt; &lt;= &gt; &gt;= contains, starts with, ends with, is [not] empty<br>"
+                + "Combine with AND, OR, NOT and parentheses</html>");
+        queryField.addActionListener(e -> onRun.accept(queryField.getText().trim()));
+
+        JButton runButton = new JButton("Run");
+        runButton.addActionListener(e -> onRun.accept(queryField.getText().trim()));
+        JButton clearButton = new JButton("Clear");
+        clearButton.addActionListener(e -> {
+            queryField.setText("");
+            onClear.run();
+        });
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        buttons.add(runButton);
+        buttons.add(clearButton);
+
+        add(new JLabel("Query:"), BorderLayout.WEST);
+        add(queryField, BorderLayout.CENTER);
+        add(buttons, BorderLayout.EAST);
+    }
+}
@@ -0,0 +1,299 @@
+package org.example.Filters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive descent parser for the query bar:
+ *
+ * <pre>
+ *   query     := or
+ *   or        := and (OR and)*
+ *   and       := not (AND not)*
+ *   not       := NOT not | '(' query ')' | condition
+ *   condition := column operator [value] | column [NOT] LIKE 'pattern'
+ * </pre>
+ *
+ * Columns are bare words or "quoted"/`quoted` names and match headers ignoring case,
+ * spaces and punctuation (clientGroupId finds "Client Group ID"). Values are 'quoted'
+ * strings, numbers or bare words. SelectParser reuses the grammar for WHERE clauses.
+ */
+class QueryParser {
+    private static final String SYMBOLS = "()=<>!&|";
+    // Commas and '*' may appear in bare values of the query bar, but separate SQL tokens
+    private static final String SQL_SYMBOLS = SYMBOLS + ",*;";
+
+    enum TokenType { WORD, STRING, QUOTED_NAME, SYMBOL, END }
+
+    static final class Token {
+        final TokenType type;
+        final String text;
+        final int position;
+
+        Token(TokenType type, String text, int position) {
+            this.type = type;
+            this.text = text;
+            this.position = position;
+        }
+
+        boolean isWord(String word) {
+            return type == TokenType.WORD && text.equalsIgnoreCase(word);
+        }
+
+        boolean isSymbol(String symbol) {
+            return type == TokenType.SYMBOL && text.equals(symbol);
+        }
+    }
+
+    private final String[] normalizedColumns;
+    private final List<Token> tokens;
+    private int next;
+
+    QueryParser(String query, String[] columns) {
+        this(query, columns, false);
+    }
+
+    // In SQL mode ',', '*' and ';' are symbols and "--" starts a comment
+    QueryParser(String query, String[] columns, boolean sql) {
+        normalizedColumns = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            normalizedColumns[i] = normalizeName(columns[i]);
+        }
+        tokens = tokenize(query, sql);
+    }
+
+    Query.Node parse() {
+        Query.Node node = parseOr();
+        if (peek().type != TokenType.END) {
+            throw error("Unexpected '" + peek().text + "'");
+        }
+        return node;
+    }
+
+    Query.Node parseOr() {
+        Query.Node node = parseAnd();
+        while (peek().isWord("or") || peek().isSymbol("||")) {
+            next++;
+            node = new Query.Or(node, parseAnd());
+        }
+        return node;
+    }
+
+    private Query.Node parseAnd() {
+        Query.Node node = parseNot();
+        while (peek().isWord("and") || peek().isSymbol("&&")) {
+            next++;
+            node = new Query.And(node, parseNot());
+        }
+        return node;
+    }
+
+    private Query.Node parseNot() {
+        Token token = peek();
+        if (token.isWord("not") || token.isSymbol("!")) {
+            next++;
+            return new Query.Not(parseNot());
+        }
+        if (token.isSymbol("(")) {
+            next++;
+            Query.Node node = parseOr();
+            expectSymbol(")");
+            return node;
+        }
+        return parseCondition();
+    }
+
+    private Query.Node parseCondition() {
+        Token name = take();
+        if (name.type != TokenType.WORD && name.type != TokenType.QUOTED_NAME) {
+            throw error("Expected a column name at position " + (name.position + 1));
+        }
+        int column = resolveColumn(name.text);
+
+        boolean negated = peek().isWord("not");
+        if (negated || peek().isWord("like")) {
+            if (negated) next++;
+            expectWord("like");
+            Query.Node like = parseLike(column);
+            return negated ? new Query.Not(like) : like;
+        }
+
+        FilterOperator operator = parseOperator();
+        String value = "";
+        if (operator.needsValue()) {
+            Token token = take();
+            if (token.type != TokenType.STRING && token.type != TokenType.WORD) {
+                throw error("Expected a value after '" + name.text + " " + operator + "'");
+            }
+            value = token.text;
+        }
+        return new Query.Condition(new FilterCondition(column, operator, value));
+    }
+
+    // Patterns with '%' at the start and/or end map to ends with, starts with and contains
+    private Query.Node parseLike(int column) {
+        Token token = take();
+        if (token.type != TokenType.STRING) {
+            throw error("Expected a 'pattern' after LIKE");
+        }
+        String pattern = token.text;
+        boolean leading = pattern.startsWith("%");
+        boolean trailing = pattern.length() > (leading ? 1 : 0) && pattern.endsWith("%");
+        String value = pattern.substring(leading ? 1 : 0, pattern.length() - (trailing ? 1 : 0));
+        if (value.indexOf('%') >= 0 || value.indexOf('_') >= 0) {
+            throw error("LIKE only supports '%' at the start or end of the pattern");
+        }
+
+        FilterOperator operator = leading && trailing ? FilterOperator.CONTAINS
+                : leading ? FilterOperator.ENDS_WITH
+                : trailing ? FilterOperator.STARTS_WITH
+                : FilterOperator.EQUALS;
+        return new Query.Condition(new FilterCondition(column, operator, value));
+    }
+
+    private FilterOperator parseOperator() {
+        Token token = take();
+        if (token.type == TokenType.SYMBOL) {
+            switch (token.text) {
+                case "=":
+                case "==": return FilterOperator.EQUALS;
+                case "!=":
+                case "<>": return FilterOperator.NOT_EQUALS;
+                case "<": return FilterOperator.LESS;
+                case "<=": return FilterOperator.LESS_OR_EQUAL;
+                case ">": return FilterOperator.GREATER;
+                case ">=": return FilterOperator.GREATER_OR_EQUAL;
+                default: break;
+            }
+        } else if (token.type == TokenType.WORD) {
+            switch (token.text.toLowerCase()) {
+                case "contains": return FilterOperator.CONTAINS;
+                case "equals": return FilterOperator.EQUALS;
+                case "starts": expectWord("with"); return FilterOperator.STARTS_WITH;
+                case "ends": expectWord("with"); return FilterOperator.ENDS_WITH;
+                case "is":
+                    boolean negated = peek().isWord("not");
+                    if (negated) next++;
+                    Token empty = take();
+                    if (!empty.isWord("empty") && !empty.isWord("null")) {
+                        throw error("Expected 'empty' or 'null'");
+                    }
+                    return negated ? FilterOperator.NOT_EMPTY : FilterOperator.EMPTY;
+                default: break;
+            }
+        }
+        throw error("Unknown operator '" + token.text + "'");
+    }
+
+    int resolveColumn(String name) {
+        String normalized = normalizeName(name);
+        for (int i = 0; i < normalizedColumns.length; i++) {
+            if (normalizedColumns[i].equals(normalized)) {
+                return i;
+            }
+        }
+        throw error("Unknown column '" + name + "'");
+    }
+
+    static String normalizeName(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    Token peek() {
+        return tokens.get(next);
+    }
+
+    // The token after peek()
+    Token peekNext() {
+        return tokens.get(Math.min(next + 1, tokens.size() - 1));
+    }
+
+    Token take() {
+        Token token = tokens.get(next);
+        if (token.type != TokenType.END) {
+            next++;
+        }
+        return token;
+    }
+
+    void expectWord(String word) {
+        if (!take().isWord(word)) {
+            throw error("Expected '" + word + "'");
+        }
+    }
+
+    void expectSymbol(String symbol) {
+        if (!take().isSymbol(symbol)) {
+            throw error("Expected '" + symbol + "'");
+        }
+    }
+
+    static IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message);
+    }
+
+    private static List<Token> tokenize(String query, boolean sql) {
+        String symbols = sql ? SQL_SYMBOLS : SYMBOLS;
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int length = query.length();
+
+        while (i < length) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (sql && query.startsWith("--", i)) {
+                while (i < length && query.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                // 'value', "column name" or `column name`; a doubled quote escapes itself
+                StringBuilder sb = new StringBuilder();
+                int start = i++;
+                while (true) {
+                    if (i >= length) {
+                        throw error("Unterminated " + c + " at position " + (start + 1));
+                    }
+                    char ch = query.charAt(i++);
+                    if (ch == c) {
+                        if (i < length && query.charAt(i) == c) {
+                            sb.append(c);
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        sb.append(ch);
+                    }
+                }
+                tokens.add(new Token(c == '\'' ? TokenType.STRING : TokenType.QUOTED_NAME, sb.toString(), start));
+            } else if (symbols.indexOf(c) >= 0) {
+                int start = i++;
+                if (i < length) {
+                    String pair = query.substring(start, i + 1);
+                    if (pair.equals("<=") || pair.equals(">=") || pair.equals("!=") || pair.equals("<>")
+                            || pair.equals("==") || pair.equals("&&") || pair.equals("||")) {
+                        i++;
+                    }
+                }
+                tokens.add(new Token(TokenType.SYMBOL, query.substring(start, i), start));
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(query.charAt(i))
+                        && symbols.indexOf(query.charAt(i)) < 0 && "'\"`".indexOf(query.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.WORD, query.substring(start, i), start));
+            }
+        }
+        tokens.add(new Token(TokenType.END, "end of query", length));
+        return tokens;
+    }
+}
@@ -0,0 +1,254 @@
+package org.example.Filters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parser for the SELECT statements run from the editors' SQL panel:
+ *
+ * <pre>
+ *   select := SELECT [DISTINCT] item (',' item)* [FROM table] [WHERE query]
+ *             [GROUP BY column (',' column)*] [ORDER BY order (',' order)*]
+ *             [LIMIT count [OFFSET skip]] [';']
+ *   item   := '*' | expr [[AS] alias]
+ *   expr   := column | function '(' ('*' | column) ')'
+ *   order  := (alias | position | expr) [ASC | DESC]
+ * </pre>
+ *
+ * Functions are COUNT, SUM, AVG, MIN and MAX; the WHERE query is the query bar's
+ * grammar (see QueryParser). ORDER BY terms that are not selected become hidden items.
+ */
+class SelectParser extends QueryParser {
+    private static final Set<String> CLAUSES = Set.of("from", "where", "group", "order", "limit", "offset");
+
+    private final String tableName;
+    private final String[] columns;
+
+    final List<SelectQuery.Item> items = new ArrayList<>();
+    int visibleItems;
+    Query.Node where;
+    final List<Integer> groupColumns = new ArrayList<>();
+    boolean grouped;
+    final List<SelectQuery.Order> orders = new ArrayList<>();
+    long limit = -1;
+    long offset;
+
+    SelectParser(String sql, String tableName, String[] columns) {
+        super(sql, columns, true);
+        this.tableName = tableName;
+        this.columns = columns;
+    }
+
+    SelectParser parseSelect() {
+        if (!peek().isWord("select")) {
+            throw error("Only SELECT statements can be run (found '" + peek().text + "')");
+        }
+        take();
+        boolean distinct = acceptWord("distinct");
+        do {
+            parseItem();
+        } while (acceptSymbol(","));
+        visibleItems = items.size();
+
+        if (acceptWord("from")) {
+            parseTable();
+        }
+        if (acceptWord("where")) {
+            where = parseOr();
+        }
+        if (acceptWord("group")) {
+            expectWord("by");
+            do {
+                groupColumns.add(parseColumn(take()));
+            } while (acceptSymbol(","));
+        }
+        if (acceptWord("order")) {
+            expectWord("by");
+            do {
+                parseOrder();
+            } while (acceptSymbol(","));
+        }
+        if (acceptWord("limit")) {
+            limit = parseCount("LIMIT");
+            if (acceptSymbol(",")) {
+                // MySQL form: LIMIT skip, count
+                offset = limit;
+                limit = parseCount("LIMIT");
+            } else if (acceptWord("offset")) {
+                offset = parseCount("OFFSET");
+            }
+        }
+        acceptSymbol(";");
+        if (peek().type != TokenType.END) {
+            throw error("Unexpected '" + peek().text + "'");
+        }
+
+        validate(distinct);
+        return this;
+    }
+
+    private void parseItem() {
+        if (acceptSymbol("*")) {
+            for (int i = 0; i < columns.length; i++) {
+                items.add(new SelectQuery.Item(columns[i], i, null));
+            }
+            return;
+        }
+
+        SelectQuery.Item item = parseExpression();
+        Token alias = peek();
+        if (acceptWord("as")) {
+            alias = take();
+            if (alias.type != TokenType.WORD && alias.type != TokenType.QUOTED_NAME) {
+                throw error("Expected an alias after AS");
+            }
+            item = item.withLabel(alias.text);
+        } else if (alias.type == TokenType.QUOTED_NAME
+                || alias.type == TokenType.WORD && !CLAUSES.contains(alias.text.toLowerCase(Locale.ROOT))) {
+            take();
+            item = item.withLabel(alias.text);
+        }
+        items.add(item);
+    }
+
+    private SelectQuery.Item parseExpression() {
+        Token name = take();
+        if (name.type != TokenType.WORD || !peek().isSymbol("(")) {
+            int column = parseColumn(name);
+            return new SelectQuery.Item(columns[column], column, null);
+        }
+
+        SelectQuery.Function function;
+        try {
+            function = SelectQuery.Function.valueOf(name.text.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw error("Unknown function '" + name.text + "'");
+        }
+        take();
+        int column = -1;
+        if (!(function == SelectQuery.Function.COUNT && acceptSymbol("*"))) {
+            column = parseColumn(take());
+        }
+        expectSymbol(")");
+        String argument = column >= 0 ? columns[column] : "*";
+        return new SelectQuery.Item(function + "(" + argument + ")", column, function);
+    }
+
+    private int parseColumn(Token name) {
+        if (name.type != TokenType.WORD && name.type != TokenType.QUOTED_NAME) {
+            throw error("Expected a column name at position " + (name.position + 1));
+        }
+        return resolveColumn(name.text);
+    }
+
+    private void parseTable() {
+        Token name = take();
+        if (name.type != TokenType.WORD && name.type != TokenType.QUOTED_NAME) {
+            throw error("Expected a table name after FROM");
+        }
+        if (tableName != null && !name.text.equalsIgnoreCase(tableName)) {
+            throw error("Unknown table '" + name.text + "', the loaded table is '" + tableName + "'");
+        }
+    }
+
+    private void parseOrder() {
+        Token token = peek();
+        int item = -1;
+        if (token.type == TokenType.WORD && isDigits(token.text)) {
+            long position = parseCount("ORDER BY");
+            if (position < 1 || position > visibleItems) {
+                throw error("ORDER BY position " + position + " is not in the select list");
+            }
+            item = (int) position - 1;
+        } else if (token.type == TokenType.WORD || token.type == TokenType.QUOTED_NAME) {
+            for (int i = 0; i < visibleItems && item < 0; i++) {
+                if (items.get(i).label.equalsIgnoreCase(token.text)) {
+                    item = i;
+                }
+            }
+            if (item >= 0 && !(token.type == TokenType.WORD && peekNext().isSymbol("("))) {
+                take();
+            } else {
+                item = itemIndex(parseExpression());
+            }
+        } else {
+            throw error("Expected a column after ORDER BY");
+        }
+
+        boolean descending = acceptWord("desc");
+        if (!descending) {
+            acceptWord("asc");
+        }
+        orders.add(new SelectQuery.Order(item, descending));
+    }
+
+    // Index of an equal item, adding it as a hidden item when it is not selected
+    private int itemIndex(SelectQuery.Item item) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).sameAs(item)) {
+                return i;
+            }
+        }
+        items.add(item);
+        return items.size() - 1;
+    }
+
+    private void validate(boolean distinct) {
+        boolean aggregates = items.stream().anyMatch(SelectQuery.Item::isAggregate);
+        if (distinct) {
+            if (aggregates || !groupColumns.isEmpty()) {
+                throw error("DISTINCT cannot be combined with GROUP BY or aggregate functions");
+            }
+            if (items.size() > visibleItems) {
+                throw error("ORDER BY columns must be in the select list with DISTINCT");
+            }
+            for (SelectQuery.Item item : items) {
+                groupColumns.add(item.column);
+            }
+        }
+
+        grouped = distinct || aggregates || !groupColumns.isEmpty();
+        if (grouped) {
+            for (SelectQuery.Item item : items) {
+                if (!item.isAggregate() && !groupColumns.contains(item.column)) {
+                    throw error("Column '" + columns[item.column] + "' must be in GROUP BY or inside an aggregate function");
+                }
+            }
+        }
+    }
+
+    private long parseCount(String clause) {
+        Token token = take();
+        if (token.type != TokenType.WORD || !isDigits(token.text) || token.text.length() > 18) {
+            throw error("Expected a number after " + clause);
+        }
+        return Long.parseLong(token.text);
+    }
+
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return !text.isEmpty();
+    }
+
+    private boolean acceptWord(String word) {
+        if (peek().isWord(word)) {
+            take();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptSymbol(String symbol) {
+        if (peek().isSymbol(symbol)) {
+            take();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,477 @@
+package org.example.Filters;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A SELECT statement run against the loaded table, e.g.
+ * {@code SELECT country, COUNT(*), AVG(age) FROM clients WHERE email ends with '.com'
+ * GROUP BY country ORDER BY 2 DESC LIMIT 10}.
+ *
+ * WHERE is evaluated like a query bar query (column at a time, using the column index
+ * when there is one). Plain selects only read the cells of the rows they return. ORDER BY
+ * sorts each term's distinct values once and then the rows by their ranks; with a small
+ * LIMIT the first rows are kept in a heap instead. Text is compared ignoring case, numbers as numbers, and blank cells count as
+ * NULL for the aggregate functions.
+ */
+public class SelectQuery {
+
+    enum Function { COUNT, SUM, AVG, MIN, MAX }
+
+    // A source column or an aggregate of one; the column is -1 for COUNT(*)
+    static final class Item {
+        final String label;
+        final int column;
+        final Function function;
+
+        Item(String label, int column, Function function) {
+            this.label = label;
+            this.column = column;
+            this.function = function;
+        }
+
+        Item withLabel(String alias) {
+            return new Item(alias, column, function);
+        }
+
+        boolean isAggregate() {
+            return function != null;
+        }
+
+        boolean sameAs(Item other) {
+            return column == other.column && function == other.function;
+        }
+    }
+
+    static final class Order {
+        final int item;
+        final boolean descending;
+
+        Order(int item, boolean descending) {
+            this.item = item;
+            this.descending = descending;
+        }
+    }
+
+    public static final class Result {
+        private final String[] columns;
+        private final List<String[]> rows;
+        private final int matchedRows;
+
+        Result(String[] columns, List<String[]> rows, int matchedRows) {
+            this.columns = columns;
+            this.rows = rows;
+            this.matchedRows = matchedRows;
+        }
+
+        public String[] getColumns() {
+            return columns;
+        }
+
+        public List<String[]> getRows() {
+            return rows;
+        }
+
+        // Rows that passed WHERE, before grouping and LIMIT
+        public int getMatchedRows() {
+            return matchedRows;
+        }
+    }
+
+    // Cell of an intermediate row: a matched table row, or a group
+    private interface Cells {
+        String get(int position, int item);
+    }
+
+    private final List<Item> items;
+    private final int visibleItems;
+    private final Query.Node where;
+    private final int[] groupColumns;
+    private final boolean grouped;
+    private final List<Order> orders;
+    private final long limit;
+    private final long offset;
+    private final FilterTable table;
+    private final TableIndex<?> index;
+
+    private SelectQuery(SelectParser statement, FilterTable table, TableIndex<?> index) {
+        items = statement.items;
+        visibleItems = statement.visibleItems;
+        where = statement.where;
+        groupColumns = statement.groupColumns.stream().mapToInt(Integer::intValue).toArray();
+        grouped = statement.grouped;
+        orders = statement.orders;
+        limit = statement.limit;
+        offset = statement.offset;
+        this.table = table;
+        this.index = index;
+    }
+
+    /**
+     * Parses a SELECT statement against the given headers. FROM is optional; when given
+     * it must name tableName.
+     *
+     * @throws IllegalArgumentException with a readable message when the statement is invalid
+     */
+    public static SelectQuery compile(String sql, String tableName, String[] columns,
+                                      FilterTable table, TableIndex<?> index) {
+        return new SelectQuery(new SelectParser(sql, tableName, columns).parseSelect(), table, index);
+    }
+
+    /**
+     * The statement of a script (statements separated by ';') that contains the given
+     * position, e.g. the caret of the SQL panel. Quotes and "--" comments are skipped.
+     */
+    public static String statementAt(String script, int position) {
+        int start = 0;
+        char quote = 0;
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                // A doubled quote closes and reopens the literal
+                if (c == quote) quote = 0;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '-' && script.startsWith("--", i)) {
+                int end = script.indexOf('\n', i);
+                i = end >= 0 ? end : script.length();
+            } else if (c == ';') {
+                // The caret right after ';' still belongs to the statement it ends
+                if (position <= i + 1) {
+                    return script.substring(start, i);
+                }
+                start = i + 1;
+            }
+        }
+        return script.substring(start);
+    }
+
+    // Runs the statement over the first rowCount model rows
+    public Result run(int rowCount) {
+        BitSet selected;
+        if (where != null) {
+            selected = Query.select(where, table, index, rowCount);
+        } else {
+            selected = new BitSet(rowCount);
+            selected.set(0, rowCount);
+        }
+        int matched = selected.cardinality();
+
+        int count;
+        Cells cells;
+        if (grouped) {
+            List<String[]> groups = aggregate(selected);
+            count = groups.size();
+            cells = (position, item) -> groups.get(position)[item];
+        } else {
+            int[] rows = selected.stream().toArray();
+            count = rows.length;
+            cells = (position, item) -> table.getText(rows[position], items.get(item).column);
+        }
+
+        int first = (int) Math.min(offset, count);
+        int end = limit >= 0 ? (int) Math.min(count, first + limit) : count;
+        int[] positions = orders.isEmpty() ? identity(end) : sort(cells, count, end);
+
+        List<String[]> result = new ArrayList<>(end - first);
+        for (int i = first; i < end; i++) {
+            String[] row = new String[visibleItems];
+            for (int item = 0; item < visibleItems; item++) {
+                row[item] = cells.get(positions[i], item);
+            }
+            result.add(row);
+        }
+
+        String[] columns = new String[visibleItems];
+        for (int item = 0; item < visibleItems; item++) {
+            columns[item] = items.get(item).label;
+        }
+        return new Result(columns, result, matched);
+    }
+
+    // One row of item values per group, in order of first appearance
+    private List<String[]> aggregate(BitSet selected) {
+        Map<Object, Group> groups = new LinkedHashMap<>();
+        String[] key = new String[groupColumns.length];
+        for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+            for (int i = 0; i < key.length; i++) {
+                key[i] = table.getText(row, groupColumns[i]);
+            }
+            Object groupKey = key.length == 1 ? key[0] : Arrays.asList(key.clone());
+            Group group = groups.get(groupKey);
+            if (group == null) {
+                group = new Group(row);
+                groups.put(groupKey, group);
+            }
+            group.add(row);
+        }
+        // Aggregates without GROUP BY return one row, even when nothing matched
+        if (groupColumns.length == 0 && groups.isEmpty()) {
+            groups.put(Collections.emptyList(), new Group(-1));
+        }
+
+        List<String[]> rows = new ArrayList<>(groups.size());
+        for (Group group : groups.values()) {
+            rows.add(group.finish());
+        }
+        return rows;
+    }
+
+    private final class Group {
+        private final String[] values = new String[items.size()];
+        private final Accumulator[] accumulators = new Accumulator[items.size()];
+
+        Group(int firstRow) {
+            for (int item = 0; item < values.length; item++) {
+                Item it = items.get(item);
+                if (it.isAggregate()) {
+                    accumulators[item] = new Accumulator(it);
+                } else {
+                    values[item] = firstRow >= 0 ? table.getText(firstRow, it.column) : "";
+                }
+            }
+        }
+
+        void add(int row) {
+            for (Accumulator accumulator : accumulators) {
+                if (accumulator != null) {
+                    accumulator.add(row);
+                }
+            }
+        }
+
+        String[] finish() {
+            for (int item = 0; item < values.length; item++) {
+                if (accumulators[item] != null) {
+                    values[item] = accumulators[item].result();
+                }
+            }
+            return values;
+        }
+    }
+
+    private final class Accumulator {
+        private final Function function;
+        private final int column;
+        private final boolean typed;
+        private long count;
+        private long numbers;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private String minText;
+        private String maxText;
+
+        Accumulator(Item item) {
+            function = item.function;
+            column = item.column;
+            typed = column >= 0 && table.isNumeric(column) && !table.isDate(column);
+        }
+
+        void add(int row) {
+            if (column < 0) {
+                count++;
+                return;
+            }
+            String text = table.getText(row, column);
+            if (text.isBlank()) {
+                return;
+            }
+            count++;
+            if (function == Function.COUNT) {
+                return;
+            }
+
+            double number = typed ? table.getNumber(row, column) : TextMatcher.parseNumber(text);
+            if (!Double.isNaN(number)) {
+                numbers++;
+                sum += number;
+                min = Math.min(min, number);
+                max = Math.max(max, number);
+            }
+            if (function == Function.MIN || function == Function.MAX) {
+                if (minText == null || String.CASE_INSENSITIVE_ORDER.compare(text, minText) < 0) minText = text;
+                if (maxText == null || String.CASE_INSENSITIVE_ORDER.compare(text, maxText) > 0) maxText = text;
+            }
+        }
+
+        String result() {
+            switch (function) {
+                case COUNT: return Long.toString(count);
+                case SUM: return numbers > 0 ? formatNumber(sum) : "";
+                case AVG: return numbers > 0 ? formatNumber(sum / numbers) : "";
+                // MIN and MAX compare as numbers only if every value is one
+                case MIN: return count == 0 ? "" : numbers == count ? formatNumber(min) : minText;
+                case MAX: return count == 0 ? "" : numbers == count ? formatNumber(max) : maxText;
+                default: throw new IllegalStateException(function.toString());
+            }
+        }
+    }
+
+    // Positions of the first `end` rows in ORDER BY order; ties keep the table order
+    private int[] sort(Cells cells, int count, int end) {
+        if (end < count / 8) {
+            return top(cells, count, end);
+        }
+        int terms = orders.size();
+        int[][] ranks = new int[terms][];
+        long span = 1;
+        for (int t = 0; t < terms; t++) {
+            ranks[t] = rank(cells, count, orders.get(t));
+            span *= ranks[t][count];
+            span = Math.min(span, Long.MAX_VALUE / Integer.MAX_VALUE);
+        }
+
+        int[] positions = new int[end];
+        if (span <= Integer.MAX_VALUE) {
+            // Combined rank in the high half, position in the low half: one primitive sort
+            long[] keys = new long[count];
+            for (int position = 0; position < count; position++) {
+                long rank = 0;
+                for (int t = 0; t < terms; t++) {
+                    rank = rank * ranks[t][count] + ranks[t][position];
+                }
+                keys[position] = rank << 32 | position;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < end; i++) {
+                positions[i] = (int) keys[i];
+            }
+        } else {
+            Integer[] all = new Integer[count];
+            for (int position = 0; position < count; position++) {
+                all[position] = position;
+            }
+            Arrays.sort(all, (a, b) -> {
+                for (int[] rank : ranks) {
+                    if (rank[a] != rank[b]) {
+                        return Integer.compare(rank[a], rank[b]);
+                    }
+                }
+                return Integer.compare(a, b);
+            });
+            for (int i = 0; i < end; i++) {
+                positions[i] = all[i];
+            }
+        }
+        return positions;
+    }
+
+    // Small LIMIT: a heap of the best `end` rows, whose head is the worst row kept
+    private int[] top(Cells cells, int count, int end) {
+        int terms = orders.size();
+        String[][] texts = new String[terms][count];
+        double[][] numbers = new double[terms][count];
+        for (int t = 0; t < terms; t++) {
+            for (int position = 0; position < count; position++) {
+                texts[t][position] = cells.get(position, orders.get(t).item);
+                numbers[t][position] = TextMatcher.parseNumber(texts[t][position]);
+            }
+        }
+        Comparator<Integer> comparator = (a, b) -> {
+            for (int t = 0; t < terms; t++) {
+                int comparison = compare(numbers[t][a], texts[t][a], numbers[t][b], texts[t][b]);
+                if (comparison != 0) {
+                    return orders.get(t).descending ? -comparison : comparison;
+                }
+            }
+            return Integer.compare(a, b);
+        };
+
+        PriorityQueue<Integer> heap = new PriorityQueue<>(end + 1, comparator.reversed());
+        for (int position = 0; position < count; position++) {
+            heap.add(position);
+            if (heap.size() > end) {
+                heap.poll();
+            }
+        }
+        int[] positions = new int[end];
+        for (int i = end - 1; i >= 0; i--) {
+            positions[i] = heap.poll();
+        }
+        return positions;
+    }
+
+    /**
+     * Dense rank of each row's value for one ORDER BY term, reversed for DESC. Only the
+     * distinct values are sorted. The extra last element is the number of ranks.
+     */
+    private static int[] rank(Cells cells, int count, Order order) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        int[] ranks = new int[count + 1];
+        for (int position = 0; position < count; position++) {
+            String text = cells.get(position, order.item);
+            Integer code = codes.get(text);
+            if (code == null) {
+                code = values.size();
+                codes.put(text, code);
+                values.add(text);
+            }
+            ranks[position] = code;
+        }
+
+        int distinct = values.size();
+        double[] numbers = new double[distinct];
+        Integer[] sorted = new Integer[distinct];
+        for (int code = 0; code < distinct; code++) {
+            numbers[code] = TextMatcher.parseNumber(values.get(code));
+            sorted[code] = code;
+        }
+        Arrays.sort(sorted, (a, b) -> compare(numbers[a], values.get(a), numbers[b], values.get(b)));
+
+        // Values that compare equal ("ES" and "es", "1" and "1.0") share a rank
+        int[] rankOfCode = new int[distinct];
+        int rank = 0;
+        for (int i = 1; i < distinct; i++) {
+            int a = sorted[i - 1];
+            int b = sorted[i];
+            if (compare(numbers[a], values.get(a), numbers[b], values.get(b)) != 0) {
+                rank++;
+            }
+            rankOfCode[b] = rank;
+        }
+        for (int position = 0; position < count; position++) {
+            int r = rankOfCode[ranks[position]];
+            ranks[position] = order.descending ? rank - r : r;
+        }
+        ranks[count] = rank + 1;
+        return ranks;
+    }
+
+    // Numbers before text, text ignoring case
+    private static int compare(double number1, String text1, double number2, String text2) {
+        boolean numeric1 = !Double.isNaN(number1);
+        boolean numeric2 = !Double.isNaN(number2);
+        if (numeric1 && numeric2) {
+            return Double.compare(number1, number2);
+        }
+        if (numeric1 != numeric2) {
+            return numeric1 ? -1 : 1;
+        }
+        return String.CASE_INSENSITIVE_ORDER.compare(text1, text2);
+    }
+
+    private static int[] identity(int length) {
+        int[] positions = new int[length];
+        for (int i = 0; i < length; i++) {
+            positions[i] = i;
+        }
+        return positions;
+    }
+
+    // Plain decimal text, rounded to 16 significant digits (0.1 + 0.2 shows as 0.3)
+    static String formatNumber(double value) {
+        return new BigDecimal(value).round(MathContext.DECIMAL64).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.Filters;
+
+import org.example.Models.CellReader;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+/**
+ * Per-column value indexes for the filter dialogs. For every model row and column the
+ * index stores the id of the cell value, lowercased char by char like TextMatcher, so
+ * evaluating a filter is an array read and a bit test instead of comparing every cell.
+ *
+ * @param <R> row type of the editor (String[] or Client)
+ */
+public class TableIndex<R> {
+
+    private final CellReader<R> reader;
+    private final ColumnIndex[] columns;
+    // ids[column][modelRow]; -1 for missing cells
+    private final int[][] ids;
+    private int rowCount;
+    private boolean detached;
+
+    public TableIndex(int columnCount, int capacity, CellReader<R> reader) {
+        this.reader = reader;
+        this.columns = new ColumnIndex[columnCount];
+        this.ids = new int[columnCount][Math.max(16, capacity)];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = new ColumnIndex();
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    // False once the indexer has dropped this index; its matchers must not be trusted then
+    public boolean isLive() {
+        return !detached;
+    }
+
+    void detach() {
+        detached = true;
+    }
+
+    public void add(R row) {
+        insert(rowCount, row);
+    }
+
+    // Rows are kept in model order, so an insert in the middle shifts the ones after it
+    public void insert(int position, R row) {
+        for (int i = 0; i < columns.length; i++) {
+            int[] column = ids[i];
+            if (rowCount == column.length) {
+                column = ids[i] = Arrays.copyOf(column, column.length + (column.length >> 1));
+            }
+            System.arraycopy(column, position, column, position + 1, rowCount - position);
+            column[position] = encode(i, row);
+        }
+        rowCount++;
+    }
+
+    // Re-reads a row that was edited or replaced
+    public void update(int position, R row) {
+        for (int i = 0; i < columns.length; i++) {
+            int previous = ids[i][position];
+            ids[i][position] = encode(i, row);
+            if (previous >= 0) {
+                columns[i].release(previous);
+            }
+        }
+    }
+
+    public void delete(int first, int last) {
+        int count = last - first + 1;
+        for (int i = 0; i < columns.length; i++) {
+            int[] column = ids[i];
+            for (int row = first; row <= last; row++) {
+                if (column[row] >= 0) {
+                    columns[i].release(column[row]);
+                }
+            }
+            System.arraycopy(column, last + 1, column, first, rowCount - last - 1);
+        }
+        rowCount -= count;
+    }
+
+    private int encode(int column, R row) {
+        String cell = reader.get(row, column);
+        return cell != null ? columns[column].add(TextMatcher.fold(cell)) : -1;
+    }
+
+    /**
+     * Resolves the filter against the distinct values once and returns a test on model
+     * row indexes, or null when the column or operator is not indexed.
+     */
+    public IntPredicate matcher(int column, FilterOperator operator, String value) {
+        if (column < 0 || column >= columns.length || !operator.isIndexed()) {
+            return null;
+        }
+
+        String folded = TextMatcher.fold(value);
+        ColumnIndex index = columns[column];
+        BitSet matches = index.match(operator, folded);
+        int keyLimit = index.getKeyLimit();
+        // The scan reads a missing cell as "", so "is empty" matches it either way
+        boolean missingMatches = ColumnIndex.matches("", operator, folded);
+
+        return row -> {
+            if (row >= rowCount) {
+                return false;
+            }
+            int id = ids[column][row];
+            if (id < 0) {
+                return missingMatches;
+            }
+            // Values first seen after the filter was applied are compared directly
+            return id < keyLimit ? matches.get(id) : ColumnIndex.matches(index.getKey(id), operator, folded);
+        };
+    }
+}
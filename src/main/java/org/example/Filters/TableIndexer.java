@@ -0,0 +1,149 @@
+package org.example.Filters;
+
+import org.example.Models.CellReader;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntFunction;
+
+/**
+ * Keeps a TableIndex in sync with a table model. Full rebuilds run on a background
+ * thread; inserted, edited and deleted rows are applied incrementally from the model
+ * events. Everything except the build itself runs on the EDT.
+ *
+ * @param <R> row type of the editor
+ */
+public class TableIndexer<R> implements TableModelListener {
+    private static final int CANCEL_CHECK_ROWS = 4096;
+
+    private final TableModel model;
+    private final IntFunction<R> rowAt;
+    private final CellReader<R> reader;
+
+    private TableIndex<R> index;
+    private SwingWorker<TableIndex<R>, Void> builder;
+    private boolean paused;
+    private boolean changedWhileBuilding;
+
+    public TableIndexer(TableModel model, IntFunction<R> rowAt, CellReader<R> reader) {
+        this.model = model;
+        this.rowAt = rowAt;
+        this.reader = reader;
+        model.addTableModelListener(this);
+    }
+
+    // The ready index, or null while it is being built (filters then scan the rows)
+    public TableIndex<R> getIndex() {
+        return index;
+    }
+
+    // Stops indexing while a file is loading; the loader calls rebuild() when it finishes
+    public void pause() {
+        cancelBuild();
+        dropIndex();
+        paused = true;
+    }
+
+    public void rebuild() {
+        cancelBuild();
+        paused = false;
+        dropIndex();
+        changedWhileBuilding = false;
+
+        int columnCount = model.getColumnCount();
+        int rowCount = model.getRowCount();
+        List<R> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(rowAt.apply(i));
+        }
+
+        builder = new SwingWorker<TableIndex<R>, Void>() {
+            @Override
+            protected TableIndex<R> doInBackground() {
+                TableIndex<R> built = new TableIndex<>(columnCount, rows.size(), reader);
+                for (int i = 0; i < rows.size(); i++) {
+                    if (i % CANCEL_CHECK_ROWS == 0 && isCancelled()) {
+                        return null;
+                    }
+                    built.add(rows.get(i));
+                }
+                return built;
+            }
+
+            @Override
+            protected void done() {
+                if (builder != this || isCancelled()) {
+                    return;
+                }
+                builder = null;
+                try {
+                    if (changedWhileBuilding) {
+                        rebuild();
+                    } else {
+                        index = get();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // No index (e.g. out of memory): filters keep scanning the rows
+                }
+            }
+        };
+        builder.execute();
+    }
+
+    private void dropIndex() {
+        if (index != null) {
+            index.detach();
+            index = null;
+        }
+    }
+
+    private void cancelBuild() {
+        if (builder != null) {
+            builder.cancel(true);
+            builder = null;
+        }
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        if (paused) {
+            return;
+        }
+        // Structure change or the whole table replaced
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+            rebuild();
+            return;
+        }
+        if (index == null) {
+            if (builder != null) {
+                changedWhileBuilding = true;
+            }
+            return;
+        }
+
+        switch (e.getType()) {
+            case TableModelEvent.INSERT:
+                for (int row = e.getFirstRow(); row <= e.getLastRow(); row++) {
+                    index.insert(row, rowAt.apply(row));
+                }
+                break;
+            case TableModelEvent.UPDATE:
+                for (int row = e.getFirstRow(); row <= e.getLastRow(); row++) {
+                    index.update(row, rowAt.apply(row));
+                }
+                break;
+            case TableModelEvent.DELETE:
+                index.delete(e.getFirstRow(), e.getLastRow());
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.Filters;
+
+import java.util.function.Predicate;
+
+/**
+ * Case-insensitive text tests. The filter value is folded once when the condition is
+ * compiled; cells are compared char by char, without lowercase copies. Ordering
+ * operators compare numerically when the value is a number.
+ */
+public final class TextMatcher {
+    private final char[] lower;
+    private final char[] upper;
+
+    private TextMatcher(String value) {
+        int length = value.length();
+        lower = new char[length];
+        upper = new char[length];
+        for (int i = 0; i < length; i++) {
+            lower[i] = Character.toLowerCase(value.charAt(i));
+            upper[i] = Character.toUpperCase(value.charAt(i));
+        }
+    }
+
+    // Lowercases char by char like the compiled tests, independent of the default locale
+    public static String fold(String value) {
+        char[] folded = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            char lower = Character.toLowerCase(c);
+            if (lower != c && folded == null) {
+                folded = value.toCharArray();
+            }
+            if (folded != null) {
+                folded[i] = lower;
+            }
+        }
+        return folded != null ? new String(folded) : value;
+    }
+
+    public static Predicate<String> compile(FilterOperator operator, String value) {
+        TextMatcher m = new TextMatcher(value);
+        int n = m.lower.length;
+        switch (operator) {
+            case EQUALS:
+                return cell -> cell.length() == n && m.regionMatches(cell, 0);
+            case STARTS_WITH:
+                return cell -> cell.length() >= n && m.regionMatches(cell, 0);
+            case ENDS_WITH:
+                return cell -> cell.length() >= n && m.regionMatches(cell, cell.length() - n);
+            case CONTAINS:
+                return n == 0 ? cell -> true : m::contains;
+            case EMPTY:
+                return TextMatcher::isBlank;
+            case NOT_EMPTY:
+                return cell -> !isBlank(cell);
+            case NOT_EQUALS:
+                return cell -> cell.length() != n || !m.regionMatches(cell, 0);
+            case LESS:
+            case LESS_OR_EQUAL:
+            case GREATER:
+            case GREATER_OR_EQUAL:
+                return compileOrdering(operator, value);
+            default:
+                throw new IllegalArgumentException("Unsupported operator: " + operator);
+        }
+    }
+
+    private static Predicate<String> compileOrdering(FilterOperator operator, String value) {
+        double number = parseNumber(value);
+        if (!Double.isNaN(number)) {
+            // Cells that are not numbers never match a numeric bound
+            return cell -> {
+                double cellNumber = parseNumber(cell);
+                return !Double.isNaN(cellNumber) && operator.accepts(Double.compare(cellNumber, number));
+            };
+        }
+        return cell -> operator.accepts(String.CASE_INSENSITIVE_ORDER.compare(cell, value));
+    }
+
+    // NaN for anything that is not a plain decimal number (checked before parsing, no exceptions)
+    static double parseNumber(String text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        if (start == end) {
+            return Double.NaN;
+        }
+
+        int i = start;
+        boolean negative = text.charAt(i) == '-';
+        if (negative || text.charAt(i) == '+') i++;
+        int digits = 0;
+        boolean dot = false;
+        long whole = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                whole = whole * 10 + (c - '0');
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        // Plain integers (ids, counts) are converted without parsing a substring
+        if (!dot && digits <= 15) {
+            return negative ? -whole : whole;
+        }
+        return Double.parseDouble(text.substring(start, end));
+    }
+
+    private boolean contains(String cell) {
+        char firstLower = lower[0];
+        char firstUpper = upper[0];
+        int last = cell.length() - lower.length;
+        for (int i = 0; i <= last; i++) {
+            char c = cell.charAt(i);
+            if ((c == firstLower || c == firstUpper || Character.toLowerCase(c) == firstLower)
+                    && regionMatches(cell, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionMatches(String cell, int offset) {
+        for (int i = 0; i < lower.length; i++) {
+            char c = cell.charAt(offset + i);
+            if (c != lower[i] && c != upper[i] && Character.toLowerCase(c) != lower[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(String cell) {
+        for (int i = 0; i < cell.length(); i++) {
+            if (cell.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
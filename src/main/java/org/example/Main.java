@@ -1,7 +1,404 @@
 package org.example;
 
+import org.example.Convert.Converter;
+import org.example.Convert.HtmlReportWriter;
+import org.example.Convert.SqlDialect;
+import org.example.Convert.SqlOptions;
+import org.example.Convert.TableFormat;
+import org.example.Convert.XmlDocuments;
+import org.example.Convert.XmlJsonWriter;
+import org.example.Utils.TextNormalizer;
+
+import org.w3c.dom.Document;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch converter. Runs the same conversion engine as the editors on many
+ * files at once, streaming each input into its output, and reports through the exit code.
+ */
 public class Main {
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_NO_INPUT = 3;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -cp CSV-Editor.jar org.example.Main [options] <file|directory|glob>...",
+            "",
+            "Options:",
+            "  -t, --to <format>       output format: csv, json, xml, sql, xlsx, html (required)",
+            "  -f, --from <format>     input format: csv, json, xml, xlsx (default: from the file extension)",
+            "  -o, --out <directory>   output directory (default: next to each input)",
+            "  -d, --delimiter <c>     CSV delimiter, e.g. ',' ';' '|' or 'tab' (default: ,)",
+            "      --table <name>      SQL table name (default: the input file name)",
+            "      --dialect <name>    SQL dialect: mysql, postgresql, sqlite (default: mysql)",
+            "      --batch <n>         rows per SQL INSERT statement (default: " + SqlOptions.DEFAULT_BATCH_SIZE + ")",
+            "      --commit-every <n>  wrap every n SQL rows in a transaction (default: 0, none)",
+            "  -j, --jobs <n>          files converted in parallel (default: number of CPUs)",
+            "      --xml-tree          convert XML as a document tree (node listing, nodeName JSON,",
+            "                          HTML report) instead of one row per child of the root",
+            "      --json-shape <name> JSON shape for --xml-tree: nodename, badgerfish (default: nodename)",
+            "      --html-layout <l>   HTML report layout: table (one page), paged (pages of " + HtmlReportWriter.PAGE_ROWS + " rows",
+            "                          with an index page), data (JSON rows, virtual scrolling) (default: table)",
+            "      --normalize         replace typographic quotes and dashes, no-break spaces and",
+            "                          zero-width characters in the input text",
+            "      --replace <c=text>  replace the char c by text in the input, e.g. '\\u2026=...'",
+            "                          (repeatable; c may be a \\u escape)",
+            "  -h, --help              show this help",
+            "",
+            "Globs are relative to the current directory, e.g. 'data/**/*.csv'.",
+            "Exit codes: 0 all converted, 1 some files failed, 2 bad arguments, 3 no input files.");
+
+    private static class Options {
+        String target;
+        TableFormat from;
+        File outDir;
+        String delimiter = ",";
+        String tableName;
+        SqlDialect dialect = SqlDialect.MYSQL;
+        int batchSize = SqlOptions.DEFAULT_BATCH_SIZE;
+        int transactionSize;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        boolean xmlTree;
+        XmlJsonWriter.Shape jsonShape = XmlJsonWriter.Shape.NODE_NAME;
+        HtmlReportWriter.Layout htmlLayout = HtmlReportWriter.Layout.TABLE;
+        TextNormalizer normalizer = new TextNormalizer();
+        List<String> inputs = new ArrayList<>();
+    }
+
     public static void main(String[] args) {
-        System.out.println("Hello, World!");
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            err.println("error: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (options == null) {
+            out.println(USAGE);
+            return EXIT_OK;
+        }
+
+        List<File> files = new ArrayList<>();
+        for (String input : options.inputs) {
+            try {
+                files.addAll(expand(input, options.from));
+            } catch (IOException e) {
+                err.println("error: " + input + ": " + e.getMessage());
+            }
+        }
+        if (files.isEmpty()) {
+            err.println("error: no input files matched");
+            return EXIT_NO_INPUT;
+        }
+
+        if (options.outDir != null && !options.outDir.isDirectory() && !options.outDir.mkdirs()) {
+            err.println("error: cannot create output directory " + options.outDir);
+            return EXIT_USAGE;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.jobs, files.size()));
+        try {
+            // Outputs are assigned up front so two inputs never write the same file
+            Map<File, File> outputs = new HashMap<>();
+            List<Future<Boolean>> results = new ArrayList<>();
+            int failed = 0;
+            for (File file : files) {
+                File output = outputFile(file, options);
+                File previous = outputs.putIfAbsent(output.getAbsoluteFile(), file);
+                if (previous != null) {
+                    err.println("error: " + file + ": same output as " + previous + " (" + output + ")");
+                    failed++;
+                } else {
+                    results.add(executor.submit(() -> convertFile(file, output, options, out, err)));
+                }
+            }
+
+            for (Future<Boolean> result : results) {
+                try {
+                    if (!result.get()) failed++;
+                } catch (Exception e) {
+                    failed++;
+                }
+            }
+            if (failed > 0) {
+                err.println(failed + " of " + files.size() + " files failed");
+                return EXIT_FAILED;
+            }
+            return EXIT_OK;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Options parseArguments(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    return null;
+                case "-t":
+                case "--to":
+                    options.target = value(args, ++i, arg).toLowerCase(Locale.ROOT);
+                    if (!options.target.equals("html") && TableFormat.fromName(options.target) == null) {
+                        throw new IllegalArgumentException("unknown output format: " + options.target);
+                    }
+                    break;
+                case "-f":
+                case "--from":
+                    options.from = TableFormat.fromName(value(args, ++i, arg));
+                    if (options.from == null || !options.from.isReadable()) {
+                        throw new IllegalArgumentException("unsupported input format: " + args[i]);
+                    }
+                    break;
+                case "-o":
+                case "--out":
+                    options.outDir = new File(value(args, ++i, arg));
+                    break;
+                case "-d":
+                case "--delimiter":
+                    String delimiter = value(args, ++i, arg);
+                    options.delimiter = delimiter.equalsIgnoreCase("tab") ? "\t" : delimiter;
+                    break;
+                case "--table":
+                    options.tableName = value(args, ++i, arg);
+                    break;
+                case "--dialect":
+                    options.dialect = SqlDialect.fromName(value(args, ++i, arg));
+                    if (options.dialect == null) {
+                        throw new IllegalArgumentException("unknown SQL dialect: " + args[i]);
+                    }
+                    break;
+                case "--batch":
+                    options.batchSize = number(args, ++i, arg, 1);
+                    break;
+                case "--commit-every":
+                    options.transactionSize = number(args, ++i, arg, 0);
+                    break;
+                case "-j":
+                case "--jobs":
+                    options.jobs = number(args, ++i, arg, 1);
+                    break;
+                case "--xml-tree":
+                    options.xmlTree = true;
+                    break;
+                case "--json-shape":
+                    options.jsonShape = XmlJsonWriter.Shape.fromName(value(args, ++i, arg));
+                    if (options.jsonShape == null) {
+                        throw new IllegalArgumentException("unknown JSON shape: " + args[i]);
+                    }
+                    break;
+                case "--html-layout":
+                    options.htmlLayout = HtmlReportWriter.Layout.fromName(value(args, ++i, arg));
+                    if (options.htmlLayout == null) {
+                        throw new IllegalArgumentException("unknown HTML layout: " + args[i]);
+                    }
+                    break;
+                case "--normalize":
+                    TextNormalizer standard = TextNormalizer.standard();
+                    // Rules given with --replace before this option still win
+                    options.normalizer = standard.addRules(options.normalizer);
+                    break;
+                case "--replace":
+                    options.normalizer.addRule(value(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("-") && arg.length() > 1) {
+                        throw new IllegalArgumentException("unknown option: " + arg);
+                    }
+                    options.inputs.add(arg);
+            }
+        }
+
+        if (options.target == null) {
+            throw new IllegalArgumentException("missing --to");
+        }
+        if (options.inputs.isEmpty()) {
+            throw new IllegalArgumentException("no input files given");
+        }
+        // The HTML report only exists for XML documents
+        if (options.target.equals("html")) {
+            options.xmlTree = true;
+        }
+        return options;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[index];
+    }
+
+    private static int number(String[] args, int index, String option, int min) {
+        try {
+            int number = Integer.parseInt(value(args, index, option));
+            if (number >= min) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " must be a number of at least " + min);
+    }
+
+    // A file, the convertible files of a directory, or the files matching a glob
+    private static List<File> expand(String input, TableFormat from) throws IOException {
+        List<File> files = new ArrayList<>();
+        int glob = indexOfGlob(input);
+        if (glob < 0) {
+            File file = new File(input);
+            if (file.isDirectory()) {
+                File[] children = file.listFiles();
+                if (children != null) {
+                    for (File child : new TreeSet<>(List.of(children))) {
+                        if (child.isFile() && isConvertible(child, from)) files.add(child);
+                    }
+                }
+            } else if (file.isFile()) {
+                files.add(file);
+            } else {
+                throw new IOException("no such file");
+            }
+            return files;
+        }
+
+        // Walk from the directory part before the first wildcard, matching the rest
+        int slash = Math.max(input.lastIndexOf('/', glob), input.lastIndexOf(File.separatorChar, glob));
+        Path base = Paths.get(slash < 0 ? "." : input.substring(0, slash + 1));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + input.substring(slash + 1));
+        if (!Files.isDirectory(base)) {
+            return files;
+        }
+        try (Stream<Path> paths = Files.walk(base)) {
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(base.relativize(path)))
+                    .sorted()
+                    .forEach(path -> files.add(path.toFile()));
+        }
+        return files;
+    }
+
+    private static int indexOfGlob(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if ("*?[{".indexOf(input.charAt(i)) >= 0) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isConvertible(File file, TableFormat from) {
+        TableFormat format = TableFormat.fromFileName(file.getName());
+        return from != null ? format == from : format != null && format.isReadable();
+    }
+
+    private static File outputFile(File input, Options options) {
+        String extension = options.target.equals("html") ? "html" : TableFormat.fromName(options.target).getExtension();
+        File outDir = options.outDir != null ? options.outDir : input.getAbsoluteFile().getParentFile();
+        return new File(outDir, baseName(input.getName()) + "." + extension);
+    }
+
+    private static boolean convertFile(File input, File output, Options options, PrintStream out, PrintStream err) {
+        long start = System.nanoTime();
+        TableFormat from = options.from != null ? options.from : TableFormat.fromFileName(input.getName());
+        if (from == null || !from.isReadable()) {
+            err.println("error: " + input + ": unsupported input format");
+            return false;
+        }
+
+        String baseName = baseName(input.getName());
+        if (output.getAbsoluteFile().equals(input.getAbsoluteFile())) {
+            err.println("error: " + input + ": output would overwrite the input");
+            return false;
+        }
+
+        try {
+            String rows;
+            if (options.xmlTree && from == TableFormat.XML) {
+                rows = convertDocument(input, output, options, baseName);
+            } else if (options.target.equals("html")) {
+                throw new IllegalArgumentException("HTML reports need XML input");
+            } else {
+                TableFormat target = TableFormat.fromName(options.target);
+                int count = Converter.convert(Converter.openSource(input, from, options.delimiter, options.normalizer),
+                        Converter.openWriter(target, Files.newOutputStream(output.toPath()),
+                                options.delimiter, sqlOptions(options, baseName)));
+                rows = count + " rows";
+            }
+            out.println(input + " -> " + output + " (" + rows + ", " + (System.nanoTime() - start) / 1_000_000 + " ms)");
+            return true;
+        } catch (Exception e) {
+            output.delete();
+            err.println("error: " + input + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static String convertDocument(File input, File output, Options options, String baseName) throws Exception {
+        Document doc = XmlDocuments.parse(input);
+        XmlDocuments.normalizeText(doc.getDocumentElement(), options.normalizer);
+        if (options.target.equals("html")) {
+            HtmlReportWriter report = new HtmlReportWriter(output, input.getName(), options.htmlLayout);
+            int count = Converter.convert(sink -> XmlDocuments.flatten(doc.getDocumentElement(), sink), report);
+            return count + " nodes" + (report.getPageCount() > 0 ? " in " + report.getPageCount() + " pages" : "");
+        }
+        if (options.target.equals("json")) {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8))) {
+                new XmlJsonWriter(writer, options.jsonShape).write(doc.getDocumentElement());
+            }
+            return "document";
+        }
+
+        // Other formats get one row per node
+        TableFormat target = TableFormat.fromName(options.target);
+        int count = Converter.convert(sink -> XmlDocuments.flatten(doc.getDocumentElement(), sink),
+                Converter.openWriter(target, Files.newOutputStream(output.toPath()),
+                        options.delimiter, sqlOptions(options, baseName)));
+        return count + " nodes";
+    }
+
+    private static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private static SqlOptions sqlOptions(Options options, String baseName) {
+        String tableName = options.tableName;
+        if (tableName == null) {
+            tableName = baseName.replaceAll("[^A-Za-z0-9_]", "_");
+            if (tableName.isEmpty() || Character.isDigit(tableName.charAt(0))) {
+                tableName = "t_" + tableName;
+            }
+        }
+        return new SqlOptions(tableName, options.dialect, options.batchSize, options.transactionSize);
     }
-}
\ No newline at end of file
+}
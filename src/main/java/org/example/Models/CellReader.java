@@ -0,0 +1,12 @@
+package org.example.Models;
+
+/**
+ * Reads one cell of a row object; used by background jobs that work on a snapshot
+ * of the rows (index builds, statistics) instead of the live table model.
+ *
+ * @param <R> row type of the editor (String[] or Client)
+ */
+public interface CellReader<R> {
+    // Returns null when the row has no such cell (short CSV lines)
+    String get(R row, int column);
+}
@@ -1,30 +1,37 @@
 package org.example.Models;
 
+import org.example.Utils.DateCodec;
+
 public class Client {
+    // Company and country repeat a lot across clients: they are stored as codes of the table's dictionaries
+    private final ClientDictionaries dictionaries;
     private int id;
     private String firstName;
     private String lastName;
-    private String companyName;
+    private int companyCode;
     private String email;
     private String address1;
-    private String country;
+    private int countryCode;
     private String phoneNumber;
     private int clientGroupId;
-    private String creationDate;
+    // Epoch day; the text is kept only when it is not a plain yyyy-MM-dd date
+    private int creationDay;
+    private String creationDateText;
     private String notes;
 
     // Constructor
-    public Client(int id, String firstName, String lastName, String companyName, String email, String address1, String country, String phoneNumber, int clientGroupId, String creationDate, String notes) {
+    public Client(ClientDictionaries dictionaries, int id, String firstName, String lastName, String companyName, String email, String address1, String country, String phoneNumber, int clientGroupId, String creationDate, String notes) {
+        this.dictionaries = dictionaries;
         this.id = id;
         this.firstName = firstName;
         this.lastName = lastName;
-        this.companyName = companyName;
+        this.companyCode = dictionaries.getCompanies().encode(companyName);
         this.email = email;
         this.address1 = address1;
-        this.country = country;
+        this.countryCode = dictionaries.getCountries().encode(country);
         this.phoneNumber = phoneNumber;
         this.clientGroupId = clientGroupId;
-        this.creationDate = creationDate;
+        setCreationDate(creationDate);
         this.notes = notes;
     }
 
@@ -53,12 +60,20 @@ public class Client {
         this.lastName = lastName;
     }
 
+    public ClientDictionaries getDictionaries() {
+        return dictionaries;
+    }
+
     public String getCompanyName() {
-        return companyName;
+        return dictionaries.getCompanies().decode(companyCode);
+    }
+
+    public int getCompanyCode() {
+        return companyCode;
     }
 
     public void setCompanyName(String companyName) {
-        this.companyName = companyName;
+        this.companyCode = dictionaries.getCompanies().encode(companyName);
     }
 
     public String getEmail() {
@@ -78,11 +93,15 @@ public class Client {
     }
 
     public String getCountry() {
-        return country;
+        return dictionaries.getCountries().decode(countryCode);
+    }
+
+    public int getCountryCode() {
+        return countryCode;
     }
 
     public void setCountry(String country) {
-        this.country = country;
+        this.countryCode = dictionaries.getCountries().encode(country);
     }
 
     public String getPhoneNumber() {
@@ -102,11 +121,23 @@ public class Client {
     }
 
     public String getCreationDate() {
-        return creationDate;
+        return creationDateText != null ? creationDateText : DateCodec.format(creationDay);
     }
 
+    // Parsed once here; dates with a time part keep their text but still sort and filter by day
     public void setCreationDate(String creationDate) {
-        this.creationDate = creationDate;
+        this.creationDay = DateCodec.parseEpochDay(creationDate);
+        this.creationDateText = creationDay != DateCodec.INVALID && creationDate.length() == 10 ? null : creationDate;
+    }
+
+    // Days since 1970-01-01, or DateCodec.INVALID when the date is missing or not yyyy-MM-dd
+    public int getCreationDay() {
+        return creationDay;
+    }
+
+    public void setCreationDay(int creationDay) {
+        this.creationDay = creationDay;
+        this.creationDateText = null;
     }
 
     public String getNotes() {
@@ -123,13 +154,13 @@ public class Client {
                 "id=" + id +
                 ", firstName='" + firstName + '\'' +
                 ", lastName='" + lastName + '\'' +
-                ", companyName='" + companyName + '\'' +
+                ", companyName='" + getCompanyName() + '\'' +
                 ", email='" + email + '\'' +
                 ", address1='" + address1 + '\'' +
-                ", country='" + country + '\'' +
+                ", country='" + getCountry() + '\'' +
                 ", phoneNumber='" + phoneNumber + '\'' +
                 ", clientGroupId=" + clientGroupId +
-                ", creationDate='" + creationDate + '\'' +
+                ", creationDate='" + getCreationDate() + '\'' +
                 ", notes='" + notes + '\'' +
                 '}';
     }
@@ -0,0 +1,20 @@
+package org.example.Models;
+
+import org.example.Utils.StringDictionary;
+
+/**
+ * Company and country codes of one client table. The table model starts a new instance
+ * whenever it is cleared, so the codes only cover the clients currently loaded.
+ */
+public final class ClientDictionaries {
+    private final StringDictionary companies = new StringDictionary();
+    private final StringDictionary countries = new StringDictionary();
+
+    public StringDictionary getCompanies() {
+        return companies;
+    }
+
+    public StringDictionary getCountries() {
+        return countries;
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.Models;
+
+import org.example.Filters.FilterTable;
+import org.example.Utils.StringDictionary;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+
+/**
+ * Read-only table model over the client list; cells are rendered from the Client fields.
+ * Filters read ID and group as numbers, the creation date as an epoch day and company
+ * and country as codes of the table's own dictionaries (see ClientDictionaries).
+ */
+public class ClientTableModel extends AbstractTableModel implements FilterTable {
+    private final String[] columns;
+    private final List<Client> clients;
+    // Replaced on clear(); clients added to the table must be created with the current one
+    private ClientDictionaries dictionaries = new ClientDictionaries();
+
+    public ClientTableModel(String[] columns, List<Client> clients) {
+        this.columns = columns;
+        this.clients = clients;
+    }
+
+    public ClientDictionaries getDictionaries() {
+        return dictionaries;
+    }
+
+    public Client getClient(int rowIndex) {
+        return clients.get(rowIndex);
+    }
+
+    public void addClient(Client client) {
+        clients.add(client);
+        fireTableRowsInserted(clients.size() - 1, clients.size() - 1);
+    }
+
+    public void addClients(List<Client> newClients) {
+        if (newClients.isEmpty()) return;
+        int first = clients.size();
+        clients.addAll(newClients);
+        fireTableRowsInserted(first, clients.size() - 1);
+    }
+
+    public void setClient(int rowIndex, Client client) {
+        clients.set(rowIndex, client);
+        fireTableRowsUpdated(rowIndex, rowIndex);
+    }
+
+    public void removeClient(int rowIndex) {
+        clients.remove(rowIndex);
+        fireTableRowsDeleted(rowIndex, rowIndex);
+    }
+
+    public void clear() {
+        clients.clear();
+        dictionaries = new ClientDictionaries();
+        fireTableDataChanged();
+    }
+
+    public static String getFieldValue(Client client, int columnIndex) {
+        switch (columnIndex) {
+            case 0: return String.valueOf(client.getId());
+            case 1: return client.getFirstName();
+            case 2: return client.getLastName();
+            case 3: return client.getCompanyName();
+            case 4: return client.getEmail();
+            case 5: return client.getAddress1();
+            case 6: return client.getCountry();
+            case 7: return client.getPhoneNumber();
+            case 8: return String.valueOf(client.getClientGroupId());
+            case 9: return client.getCreationDate();
+            case 10: return client.getNotes();
+            default: return "";
+        }
+    }
+
+    // Numeric and date columns: ID, group and the creation epoch day
+    private static long getFieldNumber(Client client, int column) {
+        switch (column) {
+            case 0: return client.getId();
+            case 9: return client.getCreationDay();
+            default: return client.getClientGroupId();
+        }
+    }
+
+    private static int getFieldCode(Client client, int column) {
+        return column == 3 ? client.getCompanyCode() : client.getCountryCode();
+    }
+
+    /**
+     * Typed reader over client snapshots for background jobs. It holds the current
+     * dictionaries, so take it together with the snapshot.
+     */
+    public TypedCellReader<Client> cellReader() {
+        ClientTableModel model = this;
+        ClientDictionaries snapshotDictionaries = dictionaries;
+        return new TypedCellReader<Client>() {
+            @Override
+            public String get(Client client, int column) {
+                return getFieldValue(client, column);
+            }
+
+            @Override
+            public boolean isNumeric(int column) {
+                return model.isNumeric(column);
+            }
+
+            @Override
+            public boolean isDate(int column) {
+                return model.isDate(column);
+            }
+
+            @Override
+            public long getNumber(Client client, int column) {
+                return getFieldNumber(client, column);
+            }
+
+            @Override
+            public StringDictionary getDictionary(int column) {
+                return dictionaryOf(snapshotDictionaries, column);
+            }
+
+            @Override
+            public int getCode(Client client, int column) {
+                return getFieldCode(client, column);
+            }
+        };
+    }
+
+    private static StringDictionary dictionaryOf(ClientDictionaries dictionaries, int column) {
+        switch (column) {
+            case 3: return dictionaries.getCompanies();
+            case 6: return dictionaries.getCountries();
+            default: return null;
+        }
+    }
+
+    @Override
+    public String getText(int row, int column) {
+        return getFieldValue(clients.get(row), column);
+    }
+
+    @Override
+    public boolean isNumeric(int column) {
+        return column == 0 || column == 8;
+    }
+
+    @Override
+    public boolean isDate(int column) {
+        return column == 9;
+    }
+
+    @Override
+    public long getNumber(int row, int column) {
+        return getFieldNumber(clients.get(row), column);
+    }
+
+    @Override
+    public StringDictionary getDictionary(int column) {
+        return dictionaryOf(dictionaries, column);
+    }
+
+    @Override
+    public int getCode(int row, int column) {
+        return getFieldCode(clients.get(row), column);
+    }
+
+    @Override
+    public int getRowCount() {
+        return clients.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columnIndex == 0 || columnIndex == 8 || columnIndex == 9 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Client client = clients.get(rowIndex);
+        // ID, group and creation epoch day (DateCodec.INVALID when unset) are returned as
+        // numbers so the sorter orders them numerically; the editor renders the date text
+        switch (columnIndex) {
+            case 0: return client.getId();
+            case 8: return client.getClientGroupId();
+            case 9: return client.getCreationDay();
+            default: return getFieldValue(client, columnIndex);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package org.example.Models;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * TreeModel that wraps a Gson document directly. Child nodes are only created when the
+ * tree asks for them (i.e. when their parent is expanded), and arrays longer than
+ * PAGE_SIZE are grouped into "items 0–999" pages, so opening a huge document costs
+ * nothing per element.
+ */
+public class JsonTreeModel implements TreeModel {
+    public static final int PAGE_SIZE = 1000;
+
+    private final EventListenerList listeners = new EventListenerList();
+    private Node root;
+
+    public void setRoot(JsonElement element) {
+        root = element != null ? new Node(null, "root", element, 0, 0, 0, false) : null;
+        fireStructureChanged(root != null ? new TreePath(root) : null);
+    }
+
+    public JsonElement getRootElement() {
+        return root != null ? root.element : null;
+    }
+
+    @Override
+    public Node getRoot() {
+        return root;
+    }
+
+    @Override
+    public Object getChild(Object parent, int index) {
+        return ((Node) parent).child(index);
+    }
+
+    @Override
+    public int getChildCount(Object parent) {
+        return ((Node) parent).childCount();
+    }
+
+    @Override
+    public boolean isLeaf(Object node) {
+        return ((Node) node).childCount() == 0;
+    }
+
+    @Override
+    public int getIndexOfChild(Object parent, Object child) {
+        if (parent == null || child == null) {
+            return -1;
+        }
+        return ((Node) child).parent == parent ? ((Node) child).index : -1;
+    }
+
+    // In-place edits from the tree's cell editor keep the type of the edited value
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        Node node = (Node) path.getLastPathComponent();
+        if (!node.isPrimitive() || node.parent == null) {
+            return;
+        }
+        try {
+            setValue(node, parsePrimitive(node.element.getAsJsonPrimitive(), newValue.toString()));
+        } catch (NumberFormatException ex) {
+            // Not a number: keep the old value
+        }
+    }
+
+    /**
+     * Adds a value to the object or array of the given node (a page adds to its array)
+     * and returns the node whose children changed.
+     */
+    public Node add(Node target, String key, JsonElement value) {
+        Node owner = target.page ? target.parent : target;
+        if (owner.element.isJsonObject()) {
+            owner.element.getAsJsonObject().add(key, value);
+        } else {
+            owner.element.getAsJsonArray().add(value);
+        }
+        owner.reset();
+        fireStructureChanged(getPath(owner));
+        return owner;
+    }
+
+    public void setValue(Node node, JsonElement value) {
+        JsonElement container = node.parent.element;
+        if (container.isJsonObject()) {
+            container.getAsJsonObject().add(node.key, value);
+        } else {
+            container.getAsJsonArray().set(node.position, value);
+        }
+        node.element = value;
+        node.reset();
+
+        TreeModelEvent event = new TreeModelEvent(this, getPath(node.parent), new int[]{node.index}, new Object[]{node});
+        for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
+            listener.treeNodesChanged(event);
+        }
+        if (!value.isJsonPrimitive()) {
+            fireStructureChanged(getPath(node));
+        }
+    }
+
+    // Removes a member or array item; returns the node whose children changed
+    public Node remove(Node node) {
+        JsonElement container = node.parent.element;
+        if (container.isJsonObject()) {
+            container.getAsJsonObject().remove(node.key);
+        } else {
+            container.getAsJsonArray().remove(node.position);
+        }
+        Node owner = node.parent.page ? node.parent.parent : node.parent;
+        owner.reset();
+        fireStructureChanged(getPath(owner));
+        return owner;
+    }
+
+    /**
+     * Tells the tree that a value was changed in place outside the model (e.g. a row edited
+     * in the table view). Only nodes already created for it are dropped and re-read.
+     */
+    public void elementChanged(JsonElement element) {
+        Node node = findCreated(root, element);
+        if (node != null) {
+            node.reset();
+            fireStructureChanged(getPath(node));
+        }
+    }
+
+    private static Node findCreated(Node node, JsonElement element) {
+        if (node == null) {
+            return null;
+        }
+        if (!node.page && node.element == element) {
+            return node;
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                Node found = findCreated(child, element);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    public TreePath getPath(Node node) {
+        Deque<Node> nodes = new ArrayDeque<>();
+        for (Node current = node; current != null; current = current.parent) {
+            nodes.addFirst(current);
+        }
+        return new TreePath(nodes.toArray());
+    }
+
+    /**
+     * Parses text as a value of the same type as the current one.
+     *
+     * @throws NumberFormatException if the current value is a number and the text is not
+     */
+    public static JsonPrimitive parsePrimitive(JsonPrimitive current, String text) {
+        if (current.isBoolean()) {
+            return new JsonPrimitive(Boolean.parseBoolean(text.trim()));
+        }
+        if (current.isNumber()) {
+            return new JsonPrimitive(new BigDecimal(text.trim()));
+        }
+        return new JsonPrimitive(text);
+    }
+
+    private void fireStructureChanged(TreePath path) {
+        TreeModelEvent event = path != null ? new TreeModelEvent(this, path) : new TreeModelEvent(this, (Object[]) null);
+        for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
+            listener.treeStructureChanged(event);
+        }
+    }
+
+    @Override
+    public void addTreeModelListener(TreeModelListener listener) {
+        listeners.add(TreeModelListener.class, listener);
+    }
+
+    @Override
+    public void removeTreeModelListener(TreeModelListener listener) {
+        listeners.remove(TreeModelListener.class, listener);
+    }
+
+    /**
+     * One visible node: an object member, an array item or a page of array items.
+     * Children are created on first access and cached until the node changes.
+     */
+    public static final class Node {
+        private final Node parent;
+        private final String key;
+        private JsonElement element;
+        private final int index;
+        // Array index of an item; first item of a page
+        private final int position;
+        private final int pageEnd;
+        private final boolean page;
+        private Node[] children;
+        private String[] keys;
+
+        private Node(Node parent, String key, JsonElement element, int index, int position, int pageEnd, boolean page) {
+            this.parent = parent;
+            this.key = key;
+            this.element = element;
+            this.index = index;
+            this.position = position;
+            this.pageEnd = pageEnd;
+            this.page = page;
+        }
+
+        public Node getParent() {
+            return parent;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        // For a page, the array it belongs to
+        public JsonElement getElement() {
+            return element;
+        }
+
+        // Index of an array item in its array
+        public int getPosition() {
+            return position;
+        }
+
+        public boolean isPage() {
+            return page;
+        }
+
+        public boolean isPrimitive() {
+            return !page && element.isJsonPrimitive();
+        }
+
+        public String getValueString() {
+            return isPrimitive() ? element.getAsString() : getType();
+        }
+
+        public String getDisplayText() {
+            if (page) {
+                return key;
+            }
+            if (element.isJsonPrimitive()) {
+                return key + ": " + element.getAsString();
+            }
+            return key + " (" + getType() + ")";
+        }
+
+        public String getType() {
+            if (page) return "Page";
+            if (element.isJsonObject()) return "Object";
+            if (element.isJsonArray()) return "Array[" + element.getAsJsonArray().size() + "]";
+            if (element.isJsonPrimitive()) {
+                JsonPrimitive primitive = element.getAsJsonPrimitive();
+                if (primitive.isBoolean()) return "Boolean";
+                if (primitive.isNumber()) return "Number";
+                return "String";
+            }
+            return "Null";
+        }
+
+        private int childCount() {
+            if (page) {
+                return pageEnd - position;
+            }
+            if (element.isJsonObject()) {
+                return element.getAsJsonObject().size();
+            }
+            if (element.isJsonArray()) {
+                int size = element.getAsJsonArray().size();
+                return size > PAGE_SIZE ? (size + PAGE_SIZE - 1) / PAGE_SIZE : size;
+            }
+            return 0;
+        }
+
+        private Node child(int i) {
+            if (children == null) {
+                children = new Node[childCount()];
+            }
+            if (children[i] == null) {
+                children[i] = createChild(i);
+            }
+            return children[i];
+        }
+
+        private Node createChild(int i) {
+            if (page) {
+                int item = position + i;
+                return new Node(this, "[" + item + "]", element.getAsJsonArray().get(item), i, item, 0, false);
+            }
+            if (element.isJsonObject()) {
+                JsonObject object = element.getAsJsonObject();
+                if (keys == null) {
+                    keys = object.keySet().toArray(new String[0]);
+                }
+                return new Node(this, keys[i], object.get(keys[i]), i, i, 0, false);
+            }
+
+            JsonArray array = element.getAsJsonArray();
+            if (array.size() > PAGE_SIZE) {
+                int first = i * PAGE_SIZE;
+                int end = Math.min(array.size(), first + PAGE_SIZE);
+                return new Node(this, "items " + first + "–" + (end - 1), array, i, first, end, true);
+            }
+            return new Node(this, "[" + i + "]", array.get(i), i, i, 0, false);
+        }
+
+        private void reset() {
+            children = null;
+            keys = null;
+        }
+
+        @Override
+        public String toString() {
+            return getDisplayText();
+        }
+    }
+}
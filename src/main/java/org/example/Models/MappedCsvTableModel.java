@@ -0,0 +1,217 @@
+package org.example.Models;
+
+import org.example.Utils.CsvTokenizer;
+
+import javax.swing.table.AbstractTableModel;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only table model over a memory-mapped CSV file. Opening only builds a sparse
+ * index (the byte offset of every ROWS_PER_BLOCK-th row); cells are decoded on demand
+ * when the JTable paints them, one block of rows at a time.
+ */
+public class MappedCsvTableModel extends AbstractTableModel implements Closeable {
+    private static final long SEGMENT_SIZE = 1L << 30; // a single mapping is limited to 2 GB
+    private static final int ROWS_PER_BLOCK = 32;
+    private static final int CACHED_BLOCKS = 64;
+
+    private final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long fileSize;
+    private final char delimiter;
+    private String[] columns = new String[0];
+    private final long[] blockStarts;
+    private final int blockCount;
+    private final int rowCount;
+
+    private final Map<Integer, String[][]> blockCache = new LinkedHashMap<Integer, String[][]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String[][]> eldest) {
+            return size() > CACHED_BLOCKS;
+        }
+    };
+
+    private MappedCsvTableModel(File file, FileChannel channel, MappedByteBuffer[] segments, long fileSize,
+                                char delimiter, long[] blockStarts, int blockCount, int rowCount) {
+        this.file = file;
+        this.channel = channel;
+        this.segments = segments;
+        this.fileSize = fileSize;
+        this.delimiter = delimiter;
+        this.blockStarts = blockStarts;
+        this.blockCount = blockCount;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Maps the file and scans it once for row boundaries (newlines outside quotes).
+     * Runs off the EDT; an interrupted thread aborts the scan.
+     */
+    public static MappedCsvTableModel open(File file, char delimiter, IntConsumer progress) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            int segmentCount = (int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long base = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(SEGMENT_SIZE, fileSize - base));
+            }
+
+            long[] blockStarts = new long[1024];
+            int blockCount = 0;
+            long dataStart = -1;
+            long lineStart = 0;
+            long rows = 0;
+            boolean inQuotes = false;
+
+            for (int s = 0; s < segmentCount; s++) {
+                MappedByteBuffer segment = segments[s];
+                long base = s * SEGMENT_SIZE;
+                int limit = segment.limit();
+
+                for (int i = 0; i < limit; i++) {
+                    byte b = segment.get(i);
+                    if (b == '"') {
+                        inQuotes = !inQuotes;
+                    } else if (b == '\n' && !inQuotes) {
+                        long next = base + i + 1;
+                        if (dataStart < 0) {
+                            dataStart = next; // end of the header line
+                        } else {
+                            rows++;
+                        }
+                        lineStart = next;
+                        if (next < fileSize && rows % ROWS_PER_BLOCK == 0) {
+                            if (blockCount == blockStarts.length) {
+                                blockStarts = Arrays.copyOf(blockStarts, blockCount + (blockCount >> 1));
+                            }
+                            blockStarts[blockCount++] = next;
+                        }
+                    }
+
+                    if ((i & 0xFFFFF) == 0) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Indexing cancelled");
+                        }
+                        progress.accept((int) ((base + i) * 100 / Math.max(1, fileSize)));
+                    }
+                }
+            }
+
+            // Last line without a trailing newline
+            if (dataStart >= 0 && lineStart < fileSize) {
+                rows++;
+            }
+
+            long headerEnd = dataStart >= 0 ? dataStart : fileSize;
+            MappedCsvTableModel model = new MappedCsvTableModel(file, channel, segments, fileSize, delimiter,
+                    Arrays.copyOf(blockStarts, blockCount), blockCount, (int) Math.min(Integer.MAX_VALUE, rows));
+            String[][] header = model.decode(0, headerEnd, 1);
+            if (header.length > 0) {
+                model.columns = header[0];
+            }
+            return model;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String[] getColumns() {
+        return columns;
+    }
+
+    public String[] getRow(int rowIndex) {
+        String[][] block = getBlock(rowIndex / ROWS_PER_BLOCK);
+        int offset = rowIndex % ROWS_PER_BLOCK;
+        return offset < block.length ? block[offset] : new String[0];
+    }
+
+    private String[][] getBlock(int blockIndex) {
+        String[][] block = blockCache.get(blockIndex);
+        if (block == null) {
+            long start = blockStarts[blockIndex];
+            long end = blockIndex + 1 < blockCount ? blockStarts[blockIndex + 1] : fileSize;
+            block = decode(start, end, ROWS_PER_BLOCK);
+            blockCache.put(blockIndex, block);
+        }
+        return block;
+    }
+
+    private String[][] decode(long start, long end, int maxRows) {
+        byte[] bytes = new byte[(int) Math.min(Integer.MAX_VALUE - 8, end - start)];
+        long position = start;
+        int copied = 0;
+        while (copied < bytes.length) {
+            int segment = (int) (position / SEGMENT_SIZE);
+            int offset = (int) (position % SEGMENT_SIZE);
+            int length = Math.min(bytes.length - copied, segments[segment].limit() - offset);
+            segments[segment].get(offset, bytes, copied, length);
+            copied += length;
+            position += length;
+        }
+
+        String[][] rows = new String[maxRows][];
+        int count = 0;
+        try (CsvTokenizer tokenizer = new CsvTokenizer(
+                new StringReader(new String(bytes, StandardCharsets.UTF_8)), delimiter)) {
+            String[] record;
+            while (count < maxRows && (record = tokenizer.nextRecord()) != null) {
+                rows[count++] = record;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory reader
+        }
+        return count == maxRows ? rows : Arrays.copyOf(rows, count);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        String[] row = getRow(rowIndex);
+        return columnIndex < row.length ? row[columnIndex] : "";
+    }
+
+    @Override
+    public void close() throws IOException {
+        blockCache.clear();
+        channel.close();
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.Models;
+
+import org.example.Filters.FilterTable;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Table model that renders straight from the editors' List<String[]>, so rows are
+ * stored only once. Bulk changes fire a single event instead of one per row.
+ */
+public class RowListTableModel extends AbstractTableModel implements FilterTable {
+    private final List<String[]> rows;
+    private String[] columns = new String[0];
+    private boolean editable = true;
+
+    public RowListTableModel(List<String[]> rows) {
+        this.rows = rows;
+    }
+
+    public List<String[]> getRows() {
+        return rows;
+    }
+
+    public String[] getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    public String[] getColumns() {
+        return columns;
+    }
+
+    public void setColumns(String[] columns) {
+        this.columns = columns != null ? columns : new String[0];
+        fireTableStructureChanged();
+    }
+
+    public void setEditable(boolean editable) {
+        this.editable = editable;
+    }
+
+    // Replaces all rows (and columns) with one event
+    public void setData(String[] columns, List<String[]> newRows) {
+        this.columns = columns != null ? columns : new String[0];
+        if (newRows != rows) {
+            rows.clear();
+            rows.addAll(newRows);
+        }
+        fireTableStructureChanged();
+    }
+
+    public void clear() {
+        rows.clear();
+        fireTableDataChanged();
+    }
+
+    public void addRow(String[] row) {
+        rows.add(row);
+        fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+    }
+
+    public void addRows(List<String[]> newRows) {
+        if (newRows.isEmpty()) return;
+        int first = rows.size();
+        rows.addAll(newRows);
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    public void setRow(int rowIndex, String[] row) {
+        rows.set(rowIndex, row);
+        fireTableRowsUpdated(rowIndex, rowIndex);
+    }
+
+    public void removeRow(int rowIndex) {
+        rows.remove(rowIndex);
+        fireTableRowsDeleted(rowIndex, rowIndex);
+    }
+
+    @Override
+    public String getText(int row, int column) {
+        String[] values = rows.get(row);
+        return column < values.length && values[column] != null ? values[column] : "";
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return editable;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        String[] row = rows.get(rowIndex);
+        // Short rows are allowed (CSV lines with fewer fields than the header)
+        return columnIndex < row.length ? row[columnIndex] : "";
+    }
+
+    @Override
+    public void setValueAt(Object value, int rowIndex, int columnIndex) {
+        String[] row = rows.get(rowIndex);
+        if (columnIndex >= row.length) {
+            row = Arrays.copyOf(row, columns.length);
+            Arrays.fill(row, rows.get(rowIndex).length, row.length, "");
+            rows.set(rowIndex, row);
+        }
+        row[columnIndex] = value != null ? value.toString() : "";
+        fireTableCellUpdated(rowIndex, columnIndex);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.Models;
+
+import org.example.Utils.StringDictionary;
+
+/**
+ * CellReader for row types with typed columns, the snapshot counterpart of FilterTable:
+ * numbers and epoch days are read as primitives and low-cardinality text as dictionary
+ * codes, so background jobs never format a cell just to parse it back.
+ *
+ * @param <R> row type of the editor
+ */
+public interface TypedCellReader<R> extends CellReader<R> {
+
+    default boolean isNumeric(int column) {
+        return false;
+    }
+
+    // Date columns return epoch days (DateCodec) from getNumber, DateCodec.INVALID when unset
+    default boolean isDate(int column) {
+        return false;
+    }
+
+    default long getNumber(R row, int column) {
+        throw new UnsupportedOperationException("Column " + column + " is not numeric");
+    }
+
+    // Dictionary of a low-cardinality column, or null
+    default StringDictionary getDictionary(int column) {
+        return null;
+    }
+
+    default int getCode(R row, int column) {
+        throw new UnsupportedOperationException("Column " + column + " is not dictionary encoded");
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.Models;
+
+import org.example.Utils.XmlElementIndex;
+
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+
+/**
+ * Read-only TreeModel over an XmlElementIndex. Nodes are created when their parent is
+ * expanded, and elements with more than PAGE_SIZE children get "elements 0–999" pages.
+ */
+public class XmlTreeModel implements TreeModel {
+    public static final int PAGE_SIZE = 1000;
+
+    private final EventListenerList listeners = new EventListenerList();
+    private final XmlElementIndex index;
+    private final Node root;
+
+    public XmlTreeModel(XmlElementIndex index) {
+        this.index = index;
+        this.root = index.size() > 0 ? new Node(null, 0, 0, 0, 0, false) : null;
+    }
+
+    public XmlElementIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public Node getRoot() {
+        return root;
+    }
+
+    @Override
+    public Object getChild(Object parent, int index) {
+        return ((Node) parent).child(index);
+    }
+
+    @Override
+    public int getChildCount(Object parent) {
+        return ((Node) parent).childCount();
+    }
+
+    @Override
+    public boolean isLeaf(Object node) {
+        return ((Node) node).childCount() == 0;
+    }
+
+    @Override
+    public int getIndexOfChild(Object parent, Object child) {
+        if (parent == null || child == null) {
+            return -1;
+        }
+        return ((Node) child).parent == parent ? ((Node) child).index : -1;
+    }
+
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        // Element names are not editable
+    }
+
+    @Override
+    public void addTreeModelListener(TreeModelListener listener) {
+        listeners.add(TreeModelListener.class, listener);
+    }
+
+    @Override
+    public void removeTreeModelListener(TreeModelListener listener) {
+        listeners.remove(TreeModelListener.class, listener);
+    }
+
+    /**
+     * An element, or a page of the children of its parent element.
+     */
+    public final class Node {
+        private final Node parent;
+        private final int element;
+        private final int index;
+        // Position among the parent element's child elements; first child of a page
+        private final int ordinal;
+        private final int pageEnd;
+        private final boolean page;
+        private int[] children;
+        private Node[] nodes;
+
+        private Node(Node parent, int element, int index, int ordinal, int pageEnd, boolean page) {
+            this.parent = parent;
+            this.element = element;
+            this.index = index;
+            this.ordinal = ordinal;
+            this.pageEnd = pageEnd;
+            this.page = page;
+        }
+
+        public Node getParent() {
+            return parent;
+        }
+
+        // Element number in the index; for a page, the element it belongs to
+        public int getElement() {
+            return element;
+        }
+
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        public boolean isPage() {
+            return page;
+        }
+
+        private int[] children() {
+            if (children == null) {
+                children = page ? parent.children() : index().getChildren(element);
+            }
+            return children;
+        }
+
+        private XmlElementIndex index() {
+            return XmlTreeModel.this.index;
+        }
+
+        private int childCount() {
+            if (page) {
+                return pageEnd - ordinal;
+            }
+            if (!index().hasChildren(element)) {
+                return 0;
+            }
+            int count = children().length;
+            return count > PAGE_SIZE ? (count + PAGE_SIZE - 1) / PAGE_SIZE : count;
+        }
+
+        private Node child(int i) {
+            if (nodes == null) {
+                nodes = new Node[childCount()];
+            }
+            if (nodes[i] == null) {
+                nodes[i] = createChild(i);
+            }
+            return nodes[i];
+        }
+
+        private Node createChild(int i) {
+            int[] all = children();
+            if (page) {
+                return new Node(this, all[ordinal + i], i, ordinal + i, 0, false);
+            }
+            if (all.length > PAGE_SIZE) {
+                int first = i * PAGE_SIZE;
+                return new Node(this, element, i, first, Math.min(all.length, first + PAGE_SIZE), true);
+            }
+            return new Node(this, all[i], i, i, 0, false);
+        }
+
+        @Override
+        public String toString() {
+            if (page) {
+                return "elements " + ordinal + "–" + (pageEnd - 1);
+            }
+            return index().getName(element);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.Stats;
+
+import org.example.Utils.DateCodec;
+import org.example.Utils.StringDictionary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Partial aggregates of one column over a range of rows. Each fork-join task fills
+ * its own accumulators; they are merged when the tasks join.
+ *
+ * Text is counted by value and numbers by their long value. Both stop counting exactly
+ * past DISTINCT_LIMIT distinct values: they then keep a Misra-Gries summary, so memory
+ * stays bounded on near-unique columns and any value seen in more than 1 / DISTINCT_LIMIT
+ * of the rows is still among the counts (as a lower bound). Dictionary columns are
+ * counted by code, which is always exact.
+ */
+class ColumnAccumulator {
+    static final int DISTINCT_LIMIT = 10_000;
+
+    static final class Counter {
+        long count;
+    }
+
+    // Set for a dictionary-encoded column, counted in codes
+    final StringDictionary dictionary;
+    final boolean numeric;
+    // Numbers are epoch days; cells without a date are counted as text
+    final boolean date;
+
+    final Map<String, Counter> counts = new HashMap<>();
+    final LongCounts numbers = new LongCounts();
+    long[] codes = new long[0];
+    // More than DISTINCT_LIMIT distinct text or number values were seen
+    boolean overflow;
+
+    long values;
+    long empty;
+    long missing;
+    long dates;
+    int minDay = Integer.MAX_VALUE;
+    int maxDay = Integer.MIN_VALUE;
+    // Dates per month (DateCodec.toEpochMonth), starting at firstMonth
+    int firstMonth;
+    long[] months = new long[0];
+
+    ColumnAccumulator() {
+        this(null, false, false);
+    }
+
+    ColumnAccumulator(StringDictionary dictionary, boolean numeric, boolean date) {
+        this.dictionary = dictionary;
+        this.numeric = numeric;
+        this.date = date;
+    }
+
+    void add(String cell) {
+        if (cell == null) {
+            missing++;
+            return;
+        }
+        values++;
+        if (isBlank(cell)) {
+            empty++;
+            return;
+        }
+
+        Counter counter = counts.get(cell);
+        if (counter != null) {
+            counter.count++;
+        } else if (counts.size() < DISTINCT_LIMIT) {
+            counter = new Counter();
+            counter.count = 1;
+            counts.put(cell, counter);
+        } else {
+            // Misra-Gries: a new value with the summary full lowers every count instead
+            overflow = true;
+            counts.values().removeIf(c -> --c.count == 0);
+        }
+
+        int day = DateCodec.parseEpochDay(cell);
+        if (day != DateCodec.INVALID) {
+            countDay(day, 1);
+        }
+    }
+
+    void addNumber(long number) {
+        values++;
+        if (numbers.increment(number, 1)) {
+            return;
+        }
+        if (numbers.size() < DISTINCT_LIMIT) {
+            numbers.add(number, 1);
+        } else {
+            overflow = true;
+            numbers.decrementAll(1);
+        }
+    }
+
+    void addDay(int day) {
+        addNumber(day);
+        countDay(day, 1);
+    }
+
+    void addCode(int code) {
+        values++;
+        if (code >= codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(code + 1, codes.length * 2));
+        }
+        codes[code]++;
+    }
+
+    /**
+     * Resolves the code counts once all ranges are merged: blank values move to the
+     * empty count and each distinct value is parsed once for the date aggregates.
+     */
+    void finish() {
+        for (int code = 0; code < codes.length; code++) {
+            long count = codes[code];
+            if (count == 0) {
+                continue;
+            }
+            String value = dictionary.decode(code);
+            if (isBlank(value)) {
+                empty += count;
+                codes[code] = 0;
+                continue;
+            }
+            int day = DateCodec.parseEpochDay(value);
+            if (day != DateCodec.INVALID) {
+                countDay(day, count);
+            }
+        }
+    }
+
+    private void countDay(int day, long count) {
+        dates += count;
+        if (day < minDay) minDay = day;
+        if (day > maxDay) maxDay = day;
+        countMonth(DateCodec.toEpochMonth(day), count);
+    }
+
+    private void countMonth(int month, long count) {
+        if (months.length == 0) {
+            firstMonth = month;
+            months = new long[12];
+        } else if (month < firstMonth || month >= firstMonth + months.length) {
+            int first = Math.min(firstMonth, month);
+            int last = Math.max(firstMonth + months.length - 1, month);
+            long[] grown = new long[last - first + 13];
+            System.arraycopy(months, 0, grown, firstMonth - first, months.length);
+            firstMonth = first;
+            months = grown;
+        }
+        months[month - firstMonth] += count;
+    }
+
+    // Folds the accumulator with fewer distinct values into the other and returns the latter
+    static ColumnAccumulator merge(ColumnAccumulator a, ColumnAccumulator b) {
+        ColumnAccumulator target = a.counts.size() + a.numbers.size() >= b.counts.size() + b.numbers.size() ? a : b;
+        ColumnAccumulator source = target == a ? b : a;
+
+        target.values += source.values;
+        target.empty += source.empty;
+        target.missing += source.missing;
+        target.dates += source.dates;
+        target.minDay = Math.min(target.minDay, source.minDay);
+        target.maxDay = Math.max(target.maxDay, source.maxDay);
+        for (int i = 0; i < source.months.length; i++) {
+            if (source.months[i] > 0) {
+                target.countMonth(source.firstMonth + i, source.months[i]);
+            }
+        }
+
+        if (source.codes.length > target.codes.length) {
+            target.codes = Arrays.copyOf(target.codes, source.codes.length);
+        }
+        for (int code = 0; code < source.codes.length; code++) {
+            target.codes[code] += source.codes[code];
+        }
+
+        target.overflow |= source.overflow;
+        for (Map.Entry<String, Counter> entry : source.counts.entrySet()) {
+            Counter counter = target.counts.get(entry.getKey());
+            if (counter == null) {
+                target.counts.put(entry.getKey(), entry.getValue());
+            } else {
+                counter.count += entry.getValue().count;
+            }
+        }
+        if (target.counts.size() > DISTINCT_LIMIT) {
+            // Merged summaries keep the DISTINCT_LIMIT largest counts, lowered by the next one
+            long cut = cutoff(target.counts.values().stream().mapToLong(c -> c.count).toArray());
+            target.counts.values().removeIf(c -> (c.count -= cut) <= 0);
+            target.overflow = true;
+        }
+
+        for (int slot = 0; slot < source.numbers.capacity(); slot++) {
+            if (source.numbers.isUsed(slot)) {
+                target.numbers.add(source.numbers.keyAt(slot), source.numbers.countAt(slot));
+            }
+        }
+        if (target.numbers.size() > DISTINCT_LIMIT) {
+            long[] numberCounts = new long[target.numbers.size()];
+            for (int slot = 0, i = 0; slot < target.numbers.capacity(); slot++) {
+                if (target.numbers.isUsed(slot)) {
+                    numberCounts[i++] = target.numbers.countAt(slot);
+                }
+            }
+            target.numbers.decrementAll(cutoff(numberCounts));
+            target.overflow = true;
+        }
+        return target;
+    }
+
+    // Count of the (DISTINCT_LIMIT + 1)-th most frequent value
+    private static long cutoff(long[] counts) {
+        Arrays.sort(counts);
+        return counts[counts.length - DISTINCT_LIMIT - 1];
+    }
+
+    private static boolean isBlank(String cell) {
+        for (int i = 0; i < cell.length(); i++) {
+            if (cell.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
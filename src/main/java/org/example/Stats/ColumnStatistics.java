@@ -0,0 +1,175 @@
+package org.example.Stats;
+
+import org.example.Utils.DateCodec;
+import org.example.Utils.StringDictionary;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Aggregates of one column: value counts, cardinality, empty/missing cells,
+ * date range (for yyyy-MM-dd values) and the most frequent values.
+ * Past ColumnAccumulator.DISTINCT_LIMIT distinct values the cardinality is only known
+ * to exceed the limit and the top value counts are lower bounds (see isDistinctExact).
+ */
+public class ColumnStatistics {
+    private final String name;
+    private final long values;
+    private final long empty;
+    private final long missing;
+    private final long dates;
+    private final int minDay;
+    private final int maxDay;
+    private final int firstMonth;
+    private final long[] monthCounts;
+    private final StringDictionary dictionary;
+    private final long[] codeCounts;
+    private final LongCounts numbers;
+    private final boolean exact;
+    private final int distinct;
+    private final List<Map.Entry<String, Long>> topValues;
+
+    ColumnStatistics(String name, ColumnAccumulator accumulator, int topK) {
+        accumulator.finish();
+        this.name = name;
+        this.values = accumulator.values;
+        this.empty = accumulator.empty;
+        this.missing = accumulator.missing;
+        this.dates = accumulator.dates;
+        this.minDay = accumulator.dates > 0 ? accumulator.minDay : DateCodec.INVALID;
+        this.maxDay = accumulator.dates > 0 ? accumulator.maxDay : DateCodec.INVALID;
+        this.firstMonth = accumulator.firstMonth;
+        this.monthCounts = accumulator.months;
+        this.dictionary = accumulator.dictionary;
+        this.codeCounts = accumulator.codes;
+        this.numbers = accumulator.numbers;
+        this.exact = !accumulator.overflow;
+
+        int codes = 0;
+        for (long count : codeCounts) {
+            if (count > 0) codes++;
+        }
+        this.distinct = accumulator.counts.size() + numbers.size() + codes;
+        this.topValues = selectTop(accumulator, topK);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Cells present in the rows, including empty ones
+    public long getValueCount() {
+        return values;
+    }
+
+    public long getEmptyCount() {
+        return empty;
+    }
+
+    // Cells absent from short rows
+    public long getMissingCount() {
+        return missing;
+    }
+
+    // Exact unless isDistinctExact() is false; then the column has more than this many values
+    public int getDistinctCount() {
+        return exact ? distinct : ColumnAccumulator.DISTINCT_LIMIT;
+    }
+
+    public boolean isDistinctExact() {
+        return exact;
+    }
+
+    public List<Map.Entry<String, Long>> getTopValues() {
+        return topValues;
+    }
+
+    // Dictionary of a coded column (see TypedCellReader), or null
+    public StringDictionary getDictionary() {
+        return dictionary;
+    }
+
+    // Non-empty values of a coded column by dictionary code; empty for other columns
+    public long[] getCodeCounts() {
+        return codeCounts;
+    }
+
+    // Values of a numeric column, ordered by number; only complete if isDistinctExact()
+    public SortedMap<Long, Long> getNumberCounts() {
+        SortedMap<Long, Long> result = new TreeMap<>();
+        for (int slot = 0; slot < numbers.capacity(); slot++) {
+            if (numbers.isUsed(slot)) {
+                result.put(numbers.keyAt(slot), numbers.countAt(slot));
+            }
+        }
+        return result;
+    }
+
+    public long getDateCount() {
+        return dates;
+    }
+
+    // Epoch days, or DateCodec.INVALID when the column holds no dates
+    public int getMinDay() {
+        return minDay;
+    }
+
+    public int getMaxDay() {
+        return maxDay;
+    }
+
+    // Date histogram: monthCounts[i] dates fall in month firstMonth + i (DateCodec.toEpochMonth)
+    public int getFirstMonth() {
+        return firstMonth;
+    }
+
+    public long[] getMonthCounts() {
+        return monthCounts;
+    }
+
+    private static List<Map.Entry<String, Long>> selectTop(ColumnAccumulator accumulator, int k) {
+        // Min-heap of the k largest counts: O(n log k) instead of sorting every value;
+        // numbers and codes are only turned into text once they enter the heap
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(Math.max(1, k), Map.Entry.comparingByValue());
+        for (Map.Entry<String, ColumnAccumulator.Counter> entry : accumulator.counts.entrySet()) {
+            long count = entry.getValue().count;
+            if (accepts(heap, k, count)) {
+                offer(heap, k, entry.getKey(), count);
+            }
+        }
+        LongCounts numbers = accumulator.numbers;
+        for (int slot = 0; slot < numbers.capacity(); slot++) {
+            if (numbers.isUsed(slot) && accepts(heap, k, numbers.countAt(slot))) {
+                long number = numbers.keyAt(slot);
+                offer(heap, k, accumulator.date ? DateCodec.format((int) number) : Long.toString(number),
+                        numbers.countAt(slot));
+            }
+        }
+        for (int code = 0; code < accumulator.codes.length; code++) {
+            long count = accumulator.codes[code];
+            if (count > 0 && accepts(heap, k, count)) {
+                offer(heap, k, accumulator.dictionary.decode(code), count);
+            }
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(heap);
+        top.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        return top;
+    }
+
+    private static boolean accepts(PriorityQueue<Map.Entry<String, Long>> heap, int k, long count) {
+        return heap.size() < k || k > 0 && count > heap.peek().getValue();
+    }
+
+    private static void offer(PriorityQueue<Map.Entry<String, Long>> heap, int k, String value, long count) {
+        if (heap.size() == k) {
+            heap.poll();
+        }
+        heap.add(new AbstractMap.SimpleImmutableEntry<>(value, count));
+    }
+}
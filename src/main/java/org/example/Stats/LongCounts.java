@@ -0,0 +1,94 @@
+package org.example.Stats;
+
+/**
+ * Open-addressing map from long values to counts, so numeric columns are counted
+ * without boxing. Slots are read back through capacity()/isUsed()/keyAt()/countAt().
+ */
+final class LongCounts {
+    private long[] keys = new long[16];
+    private long[] counts = new long[16];
+    private boolean[] used = new boolean[16];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    // Adds to the count of an existing key; returns false if the key is not in the map
+    boolean increment(long key, long count) {
+        int slot = find(key);
+        if (!used[slot]) {
+            return false;
+        }
+        counts[slot] += count;
+        return true;
+    }
+
+    void add(long key, long count) {
+        int slot = find(key);
+        if (used[slot]) {
+            counts[slot] += count;
+            return;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        counts[slot] = count;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2, 0);
+        }
+    }
+
+    // Lowers every count by the given amount and drops the keys left at zero or below
+    void decrementAll(long by) {
+        rehash(keys.length, by);
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    boolean isUsed(int slot) {
+        return used[slot];
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    long countAt(int slot) {
+        return counts[slot];
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity, long decrement) {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        boolean[] oldUsed = used;
+        keys = new long[capacity];
+        counts = new long[capacity];
+        used = new boolean[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i] && oldCounts[i] > decrement) {
+                int slot = find(oldKeys[i]);
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i] - decrement;
+                size++;
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.Stats;
+
+import org.example.Models.CellReader;
+import org.example.Models.TypedCellReader;
+import org.example.Utils.DateCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes every column aggregate in a single parallel pass. The rows are split into
+ * ranges; each fork-join task accumulates its range into its own partial maps and the
+ * partials are merged as the tasks join, so no map is shared between threads.
+ * Works on a snapshot of the rows, so the table can keep changing meanwhile.
+ * A TypedCellReader has its numbers, epoch days and dictionary codes counted as such
+ * instead of as cell text.
+ */
+public final class StatisticsEngine {
+    private static final int MIN_SPLIT_ROWS = 8192;
+    public static final int DEFAULT_TOP_K = 5;
+
+    private StatisticsEngine() {
+    }
+
+    public static <R> TableStatistics compute(String[] columns, List<R> rows, CellReader<R> reader, int topK) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        // A few ranges per worker thread balance the load without merging too many maps
+        int splitRows = Math.max(MIN_SPLIT_ROWS, rows.size() / (pool.getParallelism() * 4) + 1);
+        ColumnAccumulator[] totals = pool.invoke(new RangeTask<>(columns.length, rows, reader, 0, rows.size(), splitRows));
+
+        List<ColumnStatistics> result = new ArrayList<>(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            result.add(new ColumnStatistics(columns[i], totals[i], topK));
+        }
+        return new TableStatistics(rows.size(), result, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static final class RangeTask<R> extends RecursiveTask<ColumnAccumulator[]> {
+        private final int columnCount;
+        private final List<R> rows;
+        private final CellReader<R> reader;
+        private final int from;
+        private final int to;
+        private final int splitRows;
+
+        RangeTask(int columnCount, List<R> rows, CellReader<R> reader, int from, int to, int splitRows) {
+            this.columnCount = columnCount;
+            this.rows = rows;
+            this.reader = reader;
+            this.from = from;
+            this.to = to;
+            this.splitRows = splitRows;
+        }
+
+        @Override
+        protected ColumnAccumulator[] compute() {
+            if (to - from > splitRows) {
+                int middle = (from + to) >>> 1;
+                RangeTask<R> left = new RangeTask<>(columnCount, rows, reader, from, middle, splitRows);
+                RangeTask<R> right = new RangeTask<>(columnCount, rows, reader, middle, to, splitRows);
+                left.fork();
+                ColumnAccumulator[] rightResult = right.compute();
+                ColumnAccumulator[] leftResult = left.join();
+                for (int i = 0; i < columnCount; i++) {
+                    leftResult[i] = ColumnAccumulator.merge(leftResult[i], rightResult[i]);
+                }
+                return leftResult;
+            }
+
+            TypedCellReader<R> typed = reader instanceof TypedCellReader ? (TypedCellReader<R>) reader : null;
+            ColumnAccumulator[] accumulators = new ColumnAccumulator[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                accumulators[i] = typed == null ? new ColumnAccumulator()
+                        : new ColumnAccumulator(typed.getDictionary(i), typed.isNumeric(i), typed.isDate(i));
+            }
+            for (int row = from; row < to; row++) {
+                R value = rows.get(row);
+                for (int i = 0; i < columnCount; i++) {
+                    add(accumulators[i], typed, value, i);
+                }
+            }
+            return accumulators;
+        }
+
+        private void add(ColumnAccumulator accumulator, TypedCellReader<R> typed, R value, int column) {
+            if (accumulator.dictionary != null) {
+                accumulator.addCode(typed.getCode(value, column));
+            } else if (accumulator.date) {
+                long day = typed.getNumber(value, column);
+                if (day != DateCodec.INVALID) {
+                    accumulator.addDay((int) day);
+                } else {
+                    accumulator.add(reader.get(value, column));
+                }
+            } else if (accumulator.numeric) {
+                accumulator.addNumber(typed.getNumber(value, column));
+            } else {
+                accumulator.add(reader.get(value, column));
+            }
+        }
+    }
+}
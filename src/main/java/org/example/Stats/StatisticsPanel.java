@@ -0,0 +1,117 @@
+package org.example.Stats;
+
+import org.example.Utils.DateCodec;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.Map;
+
+/**
+ * One row per column of a TableStatistics result, with an optional HTML summary above.
+ */
+public class StatisticsPanel extends JPanel {
+    private static final String[] HEADERS = {
+            "Column", "Values", "Distinct", "Empty", "Missing", "Min date", "Max date", "Top values"
+    };
+
+    public StatisticsPanel(TableStatistics statistics, String summaryHtml) {
+        super(new BorderLayout(5, 5));
+
+        if (summaryHtml != null) {
+            JLabel summary = new JLabel(summaryHtml);
+            summary.setVerticalAlignment(SwingConstants.TOP);
+            JScrollPane summaryScroll = new JScrollPane(summary);
+            summaryScroll.setBorder(BorderFactory.createEmptyBorder());
+            summaryScroll.setPreferredSize(new Dimension(700, 220));
+            add(summaryScroll, BorderLayout.NORTH);
+        }
+
+        JTable table = new JTable(new StatisticsTableModel(statistics));
+        table.setAutoCreateRowSorter(true);
+        // Cardinalities past the engine's distinct limit are lower bounds, shown as "> N"
+        table.getColumnModel().getColumn(2).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                           boolean hasFocus, int row, int column) {
+                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                boolean exact = statistics.getColumn(table.convertRowIndexToModel(row)).isDistinctExact();
+                setText(exact ? String.valueOf(value) : "> " + value);
+                setHorizontalAlignment(RIGHT);
+                return this;
+            }
+        });
+        table.getColumnModel().getColumn(7).setPreferredWidth(320);
+        JScrollPane tableScroll = new JScrollPane(table);
+        tableScroll.setPreferredSize(new Dimension(700, Math.min(400, 40 + 18 * statistics.getColumns().size())));
+        add(tableScroll, BorderLayout.CENTER);
+
+        add(new JLabel(String.format("%,d rows analysed in %d ms", statistics.getRowCount(), statistics.getElapsedMillis())),
+                BorderLayout.SOUTH);
+    }
+
+    public static void showDialog(Component parent, String title, TableStatistics statistics, String summaryHtml) {
+        JOptionPane.showMessageDialog(parent, new StatisticsPanel(statistics, summaryHtml), title, JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private static class StatisticsTableModel extends AbstractTableModel {
+        private final TableStatistics statistics;
+
+        StatisticsTableModel(TableStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        @Override
+        public int getRowCount() {
+            return statistics.getColumns().size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return HEADERS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return HEADERS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column >= 1 && column <= 4 ? Long.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            ColumnStatistics stats = statistics.getColumn(row);
+            switch (column) {
+                case 0:
+                    return stats.getName();
+                case 1:
+                    return stats.getValueCount();
+                case 2:
+                    return (long) stats.getDistinctCount();
+                case 3:
+                    return stats.getEmptyCount();
+                case 4:
+                    return stats.getMissingCount();
+                case 5:
+                    return DateCodec.format(stats.getMinDay());
+                case 6:
+                    return DateCodec.format(stats.getMaxDay());
+                default:
+                    StringBuilder top = new StringBuilder();
+                    for (Map.Entry<String, Long> entry : stats.getTopValues()) {
+                        if (top.length() > 0) {
+                            top.append(", ");
+                        }
+                        // Approximate counts are lower bounds
+                        top.append(entry.getKey()).append(" (").append(entry.getValue())
+                                .append(stats.isDistinctExact() ? ")" : "+)");
+                    }
+                    return top.toString();
+            }
+        }
+    }
+}
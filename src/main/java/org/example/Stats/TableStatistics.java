@@ -0,0 +1,34 @@
+package org.example.Stats;
+
+import java.util.List;
+
+/**
+ * Result of one StatisticsEngine pass over a table.
+ */
+public class TableStatistics {
+    private final int rowCount;
+    private final List<ColumnStatistics> columns;
+    private final long elapsedMillis;
+
+    TableStatistics(int rowCount, List<ColumnStatistics> columns, long elapsedMillis) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<ColumnStatistics> getColumns() {
+        return columns;
+    }
+
+    public ColumnStatistics getColumn(int column) {
+        return columns.get(column);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+public class CsvRowSource implements RowSource {
+    private static final int PROGRESS_INTERVAL = 4096;
+
+    private final File file;
+    private final char delimiter;
+    private final Charset charset;
+    private final TextNormalizer normalizer;
+
+    public CsvRowSource(File file, String delimiter) {
+        this(file, delimiter, StandardCharsets.UTF_8, new TextNormalizer());
+    }
+
+    // The normalizer is applied to the parsed cells, so it cannot change the quoting
+    public CsvRowSource(File file, String delimiter, Charset charset, TextNormalizer normalizer) {
+        this.file = file;
+        this.delimiter = CsvTokenizer.toDelimiterChar(delimiter);
+        this.charset = charset;
+        this.normalizer = normalizer;
+    }
+
+    @Override
+    public void read(RowSink sink) throws Exception {
+        long length = Math.max(1, file.length());
+
+        try (CsvTokenizer tokenizer = new CsvTokenizer(
+                new InputStreamReader(new FileInputStream(file), charset), delimiter)) {
+
+            String[] headers = tokenizer.nextRecord();
+            if (headers == null) {
+                return;
+            }
+            normalizer.normalize(headers);
+            sink.headers(headers);
+
+            String[] row;
+            int count = 0;
+            while ((row = tokenizer.nextRecord()) != null) {
+                normalizer.normalize(row);
+                if (!sink.row(row)) {
+                    return;
+                }
+                // Chars vs bytes is close enough for a progress bar
+                if (++count % PROGRESS_INTERVAL == 0) {
+                    sink.progress((int) Math.min(99, tokenizer.getCharsRead() * 100 / length));
+                }
+            }
+        }
+    }
+}
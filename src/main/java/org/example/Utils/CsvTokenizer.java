@@ -0,0 +1,155 @@
+package org.example.Utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass RFC-4180 tokenizer shared by all the editors.
+ * Handles quoted fields, escaped quotes ("") and line breaks inside quotes.
+ */
+public class CsvTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char QUOTE = '"';
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long charsRead;
+
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+
+    public CsvTokenizer(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    public CsvTokenizer(Reader reader, String delimiter) {
+        this(reader, toDelimiterChar(delimiter));
+    }
+
+    // Delimiters come from the toolbar combos as Strings; only the first char is used
+    public static char toDelimiterChar(String delimiter) {
+        return delimiter == null || delimiter.isEmpty() ? ',' : delimiter.charAt(0);
+    }
+
+    public static String[] parseLine(String line, char delimiter) {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(line), delimiter)) {
+            String[] record = tokenizer.nextRecord();
+            return record != null ? record : new String[]{""};
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringReader never fails
+        }
+    }
+
+    // Number of chars consumed so far (used for progress reporting)
+    public long getCharsRead() {
+        return charsRead - (limit - position);
+    }
+
+    /**
+     * Reads the next record, or returns null at end of input.
+     * Trailing empty fields are kept, like split(delimiter, -1).
+     */
+    public String[] nextRecord() throws IOException {
+        if (!fill()) {
+            return null;
+        }
+
+        fields.clear();
+        while (true) {
+            boolean endOfRecord = readField();
+            fields.add(field.toString());
+            field.setLength(0);
+            if (endOfRecord) {
+                return fields.toArray(new String[0]);
+            }
+        }
+    }
+
+    // Reads one field into 'field'. Returns true when the record ends after it.
+    private boolean readField() throws IOException {
+        if (!fill()) {
+            return true;
+        }
+
+        if (buffer[position] == QUOTE) {
+            position++;
+            readQuoted();
+        }
+
+        // Unquoted part: copy runs of plain chars in bulk
+        while (fill()) {
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == delimiter) {
+                    field.append(buffer, start, position - start);
+                    position++;
+                    return false;
+                }
+                if (c == '\n' || c == '\r') {
+                    field.append(buffer, start, position - start);
+                    position++;
+                    if (c == '\r' && fill() && buffer[position] == '\n') {
+                        position++;
+                    }
+                    return true;
+                }
+                position++;
+            }
+            field.append(buffer, start, position - start);
+        }
+        return true;
+    }
+
+    private void readQuoted() throws IOException {
+        while (fill()) {
+            int start = position;
+            while (position < limit && buffer[position] != QUOTE) {
+                position++;
+            }
+            field.append(buffer, start, position - start);
+            if (position == limit) {
+                continue;
+            }
+
+            position++; // closing quote or first half of an escaped one
+            if (fill() && buffer[position] == QUOTE) {
+                field.append(QUOTE);
+                position++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            position = limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        charsRead += read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.Utils;
+
+import java.time.LocalDate;
+
+/**
+ * Fixed-pattern yyyy-MM-dd dates as epoch days (days since 1970-01-01). Parsing reads
+ * the digits directly, so it is thread-safe and allocation free, unlike SimpleDateFormat.
+ */
+public final class DateCodec {
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    // 0000-01-01 and 9999-12-31, the range of the fixed pattern
+    private static final int MIN_DAY = -719528;
+    private static final int MAX_DAY = 2932896;
+
+    private DateCodec() {
+    }
+
+    /**
+     * Parses yyyy-MM-dd; a time part after the date ("2024-01-31 10:00" or
+     * "2024-01-31T10:00") is ignored. Returns INVALID for anything else.
+     */
+    public static int parseEpochDay(CharSequence text) {
+        if (text == null || text.length() < 10
+                || (text.length() > 10 && text.charAt(10) != ' ' && text.charAt(10) != 'T')
+                || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return INVALID;
+        }
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    // yyyy-MM-dd, or "" for INVALID
+    public static String format(int epochDay) {
+        if (epochDay == INVALID) {
+            return "";
+        }
+        if (epochDay < MIN_DAY || epochDay > MAX_DAY) {
+            return LocalDate.ofEpochDay(epochDay).toString();
+        }
+        int civil = toCivil(epochDay);
+        char[] chars = new char[10];
+        putDigits(chars, 0, civil / 10000, 4);
+        chars[4] = '-';
+        putDigits(chars, 5, civil / 100 % 100, 2);
+        chars[7] = '-';
+        putDigits(chars, 8, civil % 100, 2);
+        return new String(chars);
+    }
+
+    // Months since year 0 (year * 12 + month - 1), for month histograms
+    public static int toEpochMonth(int epochDay) {
+        int civil = toCivil(epochDay);
+        return civil / 10000 * 12 + civil / 100 % 100 - 1;
+    }
+
+    // yyyy-MM of a toEpochMonth value
+    public static String formatMonth(int epochMonth) {
+        int year = Math.floorDiv(epochMonth, 12);
+        int month = Math.floorMod(epochMonth, 12) + 1;
+        return String.format("%04d-%02d", year, month);
+    }
+
+    // Civil date to days since 1970-01-01 (proleptic Gregorian calendar)
+    public static int toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // Days since 1970-01-01 to year * 10000 + month * 100 + day
+    private static int toCivil(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static void putDigits(char[] chars, int start, int value, int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
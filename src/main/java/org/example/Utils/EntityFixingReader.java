@@ -0,0 +1,177 @@
+package org.example.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escapes every '&' that does not start one of the five predefined entities or a
+ * character reference ({@code &#38;}, {@code &#x26;}) while the text streams through
+ * to the parser. Comments, CDATA sections and processing instructions are passed
+ * through untouched, and a leading byte order mark is dropped. Only one buffer is kept,
+ * whatever the input size.
+ */
+public class EntityFixingReader extends Reader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Longest character reference looked for after the '&', e.g. "#x0010FFFF;"
+    private static final int MAX_REFERENCE = 16;
+    private static final String[] PREDEFINED = {"amp;", "lt;", "gt;", "quot;", "apos;"};
+    private static final String ESCAPE = "amp;";
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean eof;
+    private boolean started;
+    // End of the comment, CDATA section or processing instruction being passed through
+    private String section;
+    // Chars to copy as they are, e.g. the rest of "<!--"
+    private int verbatim;
+    // Chars of ESCAPE still to write after an escaped '&'
+    private int escapeLeft;
+
+    public EntityFixingReader(Reader in) {
+        this.in = in;
+    }
+
+    // UTF-8 reader over the stream
+    public static Reader open(InputStream in) {
+        return new EntityFixingReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int read(char[] out, int offset, int length) throws IOException {
+        int n = 0;
+        while (n < length) {
+            if (escapeLeft > 0) {
+                out[offset + n++] = ESCAPE.charAt(ESCAPE.length() - escapeLeft--);
+                continue;
+            }
+            if (!available(1)) {
+                break;
+            }
+
+            // Copy the run up to the next char that needs a look
+            if (verbatim == 0) {
+                int end = Math.min(limit, position + length - n);
+                int i = position;
+                if (section == null) {
+                    while (i < end && buffer[i] != '<' && buffer[i] != '&') i++;
+                } else {
+                    char stop = section.charAt(0);
+                    while (i < end && buffer[i] != stop) i++;
+                }
+                if (i > position) {
+                    System.arraycopy(buffer, position, out, offset + n, i - position);
+                    n += i - position;
+                    position = i;
+                    continue;
+                }
+            }
+
+            char c = buffer[position];
+            if (verbatim > 0) {
+                verbatim--;
+            } else if (section != null) {
+                if (c == section.charAt(0) && startsWith(section)) {
+                    verbatim = section.length() - 1;
+                    section = null;
+                }
+            } else if (c == '<' && available(2) && (buffer[position + 1] == '!' || buffer[position + 1] == '?')) {
+                if (startsWith("<!--")) {
+                    enterSection("<!--", "-->");
+                } else if (startsWith("<![CDATA[")) {
+                    enterSection("<![CDATA[", "]]>");
+                } else if (startsWith("<?")) {
+                    enterSection("<?", "?>");
+                }
+            } else if (c == '&' && !isReference()) {
+                escapeLeft = ESCAPE.length();
+            }
+            out[offset + n++] = c;
+            position++;
+        }
+        return n == 0 && length > 0 ? -1 : n;
+    }
+
+    private void enterSection(String start, String end) {
+        verbatim = start.length() - 1;
+        section = end;
+    }
+
+    // True if the '&' at the current position starts a reference the parser accepts
+    private boolean isReference() throws IOException {
+        available(MAX_REFERENCE + 1);
+        int i = position + 1;
+        if (i < limit && buffer[i] == '#') {
+            i++;
+            boolean hex = i < limit && buffer[i] == 'x';
+            if (hex) {
+                i++;
+            }
+            int digits = i;
+            while (i < limit && i - position <= MAX_REFERENCE && Character.digit(buffer[i], hex ? 16 : 10) >= 0) {
+                i++;
+            }
+            return i > digits && i < limit && buffer[i] == ';';
+        }
+        for (String name : PREDEFINED) {
+            if (regionMatches(i, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean startsWith(String text) throws IOException {
+        return available(text.length()) && regionMatches(position, text);
+    }
+
+    private boolean regionMatches(int from, String text) {
+        if (limit - from < text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer[from + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Makes count chars available from the current position unless the input ends first
+    private boolean available(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while (limit < count && !eof) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+            if (!started && limit > 0) {
+                started = true;
+                if (buffer[0] == '\uFEFF') {
+                    position = 1;
+                    count++;
+                }
+            }
+        }
+        return limit - position >= count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
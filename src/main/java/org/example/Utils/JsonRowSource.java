@@ -0,0 +1,131 @@
+package org.example.Utils;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the objects of a JSON array as rows: either a top-level array or the first
+ * array property of a top-level object. The keys of the first object are the headers;
+ * nested objects and arrays are kept as JSON text.
+ */
+public class JsonRowSource implements RowSource {
+    private static final int PROGRESS_INTERVAL = 4096;
+
+    private final File file;
+
+    public JsonRowSource(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void read(RowSink sink) throws Exception {
+        try (FileInputStream in = new FileInputStream(file);
+             JsonReader reader = new JsonReader(new InputStreamReader(new BufferedInputStream(in), StandardCharsets.UTF_8))) {
+
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    reader.nextName();
+                    if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        readArray(reader, in, sink);
+                        return;
+                    }
+                    reader.skipValue();
+                }
+            } else if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                readArray(reader, in, sink);
+                return;
+            }
+            throw new IllegalArgumentException(
+                    "Formato JSON no compatible. Se esperaba un array o un objeto con una propiedad que contenga un array.");
+        }
+    }
+
+    private void readArray(JsonReader reader, FileInputStream in, RowSink sink) throws Exception {
+        long length = Math.max(1, file.length());
+        reader.beginArray();
+        if (!reader.hasNext()) {
+            throw new IllegalArgumentException("El array JSON está vacío");
+        }
+
+        // The first object fixes the columns
+        expectObject(reader);
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            names.add(reader.nextName());
+            values.add(readValue(reader));
+        }
+        reader.endObject();
+
+        String[] headers = names.toArray(new String[0]);
+        Map<String, Integer> columns = new HashMap<>(headers.length * 2);
+        for (int i = 0; i < headers.length; i++) {
+            columns.putIfAbsent(headers[i], i);
+        }
+        sink.headers(headers);
+        if (!sink.row(values.toArray(new String[0]))) {
+            return;
+        }
+
+        int count = 1;
+        while (reader.hasNext()) {
+            expectObject(reader);
+            String[] row = new String[headers.length];
+            reader.beginObject();
+            while (reader.hasNext()) {
+                Integer column = columns.get(reader.nextName());
+                if (column == null) {
+                    reader.skipValue();
+                } else {
+                    row[column] = readValue(reader);
+                }
+            }
+            reader.endObject();
+
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] == null) row[i] = "";
+            }
+            if (!sink.row(row)) {
+                return;
+            }
+            if (++count % PROGRESS_INTERVAL == 0) {
+                sink.progress((int) Math.min(99, in.getChannel().position() * 100 / length));
+            }
+        }
+    }
+
+    private static void expectObject(JsonReader reader) throws Exception {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IllegalArgumentException("El array debe contener objetos JSON");
+        }
+    }
+
+    private static String readValue(JsonReader reader) throws Exception {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return "";
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case BEGIN_OBJECT:
+            case BEGIN_ARRAY:
+                return JsonParser.parseReader(reader).toString();
+            default:
+                // Numbers keep their original text
+                return reader.nextString();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.Utils;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Progress bar plus Cancel button for the status bars. Hidden while nothing is loading.
+ */
+public class LoadProgressPanel extends JPanel {
+    private final JProgressBar progressBar = new JProgressBar(0, 100);
+    private final JButton cancelButton;
+    private SwingWorker<?, ?> worker;
+
+    public LoadProgressPanel(String cancelText) {
+        super(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        progressBar.setStringPainted(true);
+        progressBar.setPreferredSize(new Dimension(160, progressBar.getPreferredSize().height));
+
+        cancelButton = new JButton(cancelText);
+        cancelButton.addActionListener(e -> {
+            if (worker != null) {
+                worker.cancel(true);
+            }
+        });
+
+        add(progressBar);
+        add(cancelButton);
+        setVisible(false);
+    }
+
+    public void track(SwingWorker<?, ?> newWorker) {
+        if (worker != null && !worker.isDone()) {
+            worker.cancel(true);
+        }
+        worker = newWorker;
+        progressBar.setValue(0);
+        setVisible(true);
+
+        newWorker.addPropertyChangeListener(e -> {
+            if (newWorker != worker) {
+                return;
+            }
+            if ("progress".equals(e.getPropertyName())) {
+                progressBar.setValue((Integer) e.getNewValue());
+            } else if ("state".equals(e.getPropertyName()) && e.getNewValue() == SwingWorker.StateValue.DONE) {
+                setVisible(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.Utils;
+
+public interface RowSink {
+    void headers(String[] headers);
+
+    // Returns false when the consumer wants to stop (e.g. the load was cancelled)
+    boolean row(String[] row);
+
+    default void progress(int percent) {
+    }
+}
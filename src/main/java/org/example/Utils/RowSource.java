@@ -0,0 +1,9 @@
+package org.example.Utils;
+
+/**
+ * A source of table rows (CSV, JSON, Excel...) that pushes them into a RowSink.
+ * Implementations must stop reading as soon as the sink returns false.
+ */
+public interface RowSource {
+    void read(RowSink sink) throws Exception;
+}
@@ -0,0 +1,56 @@
+package org.example.Utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps repeated strings to small int codes, so low-cardinality columns store one
+ * String per distinct value and can be grouped/compared as ints.
+ * Safe to use from loader threads: encoding is synchronized, lookups are lock-free.
+ */
+public class StringDictionary {
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private volatile int size;
+
+    public int encode(String value) {
+        if (value == null) {
+            value = "";
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int next = size;
+            String[] current = values;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = value;
+            values = current;
+            size = next + 1;
+            codes.put(value, next);
+            return next;
+        }
+    }
+
+    public String decode(int code) {
+        return values[code];
+    }
+
+    // Code of an existing value, or -1 (never adds to the dictionary)
+    public int find(String value) {
+        Integer code = codes.get(value == null ? "" : value);
+        return code != null ? code : -1;
+    }
+
+    public int size() {
+        return size;
+    }
+}
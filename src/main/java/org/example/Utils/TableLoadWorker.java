@@ -0,0 +1,120 @@
+package org.example.Utils;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Reads a RowSource on a background thread and hands the rows to the EDT in chunks,
+ * so the table fills progressively while the file is still being parsed.
+ *
+ * @param <T> row type shown by the editor (String[] or a model object)
+ */
+public class TableLoadWorker<T> extends SwingWorker<Integer, T> {
+
+    public interface Listener<T> {
+        // All callbacks run on the EDT; headers always arrive before the first rows
+        void headersLoaded(String[] headers);
+
+        void rowsLoaded(List<T> rows);
+
+        void loadFinished(int rowCount, boolean cancelled, Exception error);
+    }
+
+    private final RowSource source;
+    private final Function<String[], T> mapper;
+    private final Listener<T> listener;
+    private volatile String[] headers;
+    // Set on the EDT; callbacks queued before it was set are dropped when they run
+    private volatile boolean superseded;
+
+    // The mapper runs on the worker thread; returning null skips the row
+    public TableLoadWorker(RowSource source, Function<String[], T> mapper, Listener<T> listener) {
+        this.source = source;
+        this.mapper = mapper;
+        this.listener = listener;
+    }
+
+    public String[] getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Cancels a load replaced by another one (e.g. a second file was opened). Unlike
+     * cancel(), the listener hears nothing more from this worker, not even loadFinished.
+     * Call it on the EDT before resetting the table for the new load.
+     */
+    public void supersede() {
+        superseded = true;
+        cancel(true);
+    }
+
+    @Override
+    protected Integer doInBackground() throws Exception {
+        int[] count = {0};
+
+        source.read(new RowSink() {
+            @Override
+            public void headers(String[] headerRow) {
+                headers = headerRow;
+                try {
+                    SwingUtilities.invokeAndWait(() -> {
+                        if (!superseded) {
+                            listener.headersLoaded(headerRow);
+                        }
+                    });
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public boolean row(String[] row) {
+                if (isCancelled()) {
+                    return false;
+                }
+                T value = mapper.apply(row);
+                if (value != null) {
+                    publish(value);
+                    count[0]++;
+                }
+                return true;
+            }
+
+            @Override
+            public void progress(int percent) {
+                setProgress(Math.max(0, Math.min(100, percent)));
+            }
+        });
+
+        setProgress(100);
+        return count[0];
+    }
+
+    @Override
+    protected void process(List<T> chunk) {
+        if (!isCancelled() && !superseded) {
+            listener.rowsLoaded(chunk);
+        }
+    }
+
+    @Override
+    protected void done() {
+        if (superseded) {
+            return;
+        }
+        try {
+            listener.loadFinished(get(), false, null);
+        } catch (CancellationException e) {
+            listener.loadFinished(-1, true, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            listener.loadFinished(-1, true, null);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            listener.loadFinished(-1, false, cause instanceof Exception ? (Exception) cause : e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.Utils;
+
+/**
+ * Replaces single characters by fixed text in one pass, e.g. typographic quotes by
+ * ASCII ones or zero-width characters by nothing. Rules live in a two-level table
+ * indexed by the char, and text without anything to replace is returned as it is,
+ * so normalizing clean text allocates nothing.
+ */
+public class TextNormalizer {
+    private final String[][] pages = new String[256][];
+    private boolean empty = true;
+
+    /**
+     * Quotes, primes and low quotes become ASCII quotes, no-break and figure spaces become
+     * spaces, hyphens, dashes and the minus sign become '-', and zero-width characters
+     * (including a stray byte order mark) are removed.
+     */
+    public static TextNormalizer standard() {
+        return new TextNormalizer()
+                .replace("\u201C\u201D\u201E\u201F\u2033\u301D\u301E", "\"")
+                .replace("\u2018\u2019\u201A\u201B\u2032", "'")
+                .replace("\u00A0\u2007\u202F", " ")
+                .replace("\u2010\u2011\u2012\u2013\u2014\u2015\u2212", "-")
+                .replace("\u200B\u200C\u200D\u2060\uFEFF", "");
+    }
+
+    // Each of the chars is replaced by the text (empty to remove it)
+    public TextNormalizer replace(String chars, String replacement) {
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (pages[c >>> 8] == null) {
+                pages[c >>> 8] = new String[256];
+            }
+            pages[c >>> 8][c & 0xFF] = replacement;
+        }
+        empty &= chars.isEmpty();
+        return this;
+    }
+
+    /**
+     * Adds a rule written as "c=text", where c is one char or a backslash-u escape
+     * with four hex digits, e.g. "\\u2026=...".
+     *
+     * @throws IllegalArgumentException if the rule is malformed
+     */
+    public TextNormalizer addRule(String rule) {
+        int equals = rule.indexOf('=', 1);
+        if (equals < 0) {
+            throw new IllegalArgumentException("Replacement rule must look like c=text: " + rule);
+        }
+        String from = rule.substring(0, equals);
+        if (from.length() == 6 && from.startsWith("\\u")) {
+            try {
+                from = String.valueOf((char) Integer.parseInt(from.substring(2), 16));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid escape in replacement rule: " + rule);
+            }
+        }
+        if (from.length() != 1) {
+            throw new IllegalArgumentException("Replacement rules replace a single char: " + rule);
+        }
+        return replace(from, rule.substring(equals + 1));
+    }
+
+    // Copies the rules of another normalizer over these
+    public TextNormalizer addRules(TextNormalizer other) {
+        for (int page = 0; page < other.pages.length; page++) {
+            if (other.pages[page] == null) {
+                continue;
+            }
+            for (int i = 0; i < 256; i++) {
+                String replacement = other.pages[page][i];
+                if (replacement != null) {
+                    replace(String.valueOf((char) (page << 8 | i)), replacement);
+                }
+            }
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    private String lookup(char c) {
+        String[] page = pages[c >>> 8];
+        return page != null ? page[c & 0xFF] : null;
+    }
+
+    public String normalize(String text) {
+        if (text == null || empty) {
+            return text;
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (lookup(text.charAt(i)) != null) {
+                StringBuilder out = new StringBuilder(length);
+                out.append(text, 0, i);
+                for (int j = i; j < length; j++) {
+                    char c = text.charAt(j);
+                    String replacement = lookup(c);
+                    if (replacement != null) {
+                        out.append(replacement);
+                    } else {
+                        out.append(c);
+                    }
+                }
+                return out.toString();
+            }
+        }
+        return text;
+    }
+
+    // Normalizes the cells of a row in place
+    public void normalize(String[] row) {
+        for (int i = 0; i < row.length; i++) {
+            row[i] = normalize(row[i]);
+        }
+    }
+
+    // Appends chars[start, start + length) to out, normalized
+    public void append(char[] chars, int start, int length, StringBuilder out) {
+        int end = start + length;
+        int run = start;
+        for (int i = start; i < end && !empty; i++) {
+            String replacement = lookup(chars[i]);
+            if (replacement != null) {
+                out.append(chars, run, i - run).append(replacement);
+                run = i + 1;
+            }
+        }
+        out.append(chars, run, end - run);
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.Utils;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the first sheet of an .xlsx workbook with the SAX event API, so only the
+ * shared strings table is kept in memory, never the sheet itself. The first row holds
+ * the headers; cells are passed as Excel would display them.
+ */
+public class XlsxRowSource implements RowSource {
+    private static final int PROGRESS_INTERVAL = 4096;
+
+    private final File file;
+
+    public XlsxRowSource(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void read(RowSink sink) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+
+            try (CountingInputStream in = new CountingInputStream(sheets.next())) {
+                long length = Math.max(1, sheets.getSheetPart().getSize());
+                RowHandler handler = new RowHandler(sink, in, length);
+
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null,
+                        new ReadOnlySharedStringsTable(pkg), handler, new DataFormatter(), false));
+                try {
+                    parser.parse(new InputSource(in));
+                } catch (StopReading stop) {
+                    // The sink asked to stop
+                }
+            }
+        }
+    }
+
+    // Column of a reference like "AB12", or -1 when there is none
+    static int columnIndex(String reference) {
+        if (reference == null) {
+            return -1;
+        }
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowSink sink;
+        private final CountingInputStream in;
+        private final long length;
+        private final List<String> headerCells = new ArrayList<>();
+        private String[] headers;
+        private String[] row;
+        private int nextColumn;
+        private int count;
+
+        RowHandler(RowSink sink, CountingInputStream in, long length) {
+            this.sink = sink;
+            this.in = in;
+            this.length = length;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            nextColumn = 0;
+            if (headers != null) {
+                row = new String[headers.length];
+                Arrays.fill(row, "");
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = columnIndex(cellReference);
+            if (column < 0) {
+                column = nextColumn;
+            }
+            nextColumn = column + 1;
+
+            if (headers == null) {
+                while (headerCells.size() < column) {
+                    headerCells.add("Column " + (headerCells.size() + 1));
+                }
+                headerCells.add(formattedValue != null ? formattedValue : "");
+            } else if (column < row.length && formattedValue != null) {
+                row[column] = formattedValue;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (headers == null) {
+                if (headerCells.isEmpty()) {
+                    return;
+                }
+                headers = headerCells.toArray(new String[0]);
+                sink.headers(headers);
+                return;
+            }
+
+            if (!sink.row(row)) {
+                throw new StopReading();
+            }
+            if (++count % PROGRESS_INTERVAL == 0) {
+                sink.progress((int) Math.min(99, in.getCount() * 100 / length));
+            }
+        }
+    }
+
+    private static final class StopReading extends RuntimeException {
+        StopReading() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
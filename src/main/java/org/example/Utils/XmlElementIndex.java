@@ -0,0 +1,531 @@
+package org.example.Utils;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compact index of every element of an XML document, built in one pass. Elements are
+ * numbered in document order and each one costs ten bytes: a name id, its depth (the
+ * children of element e are the following elements one level deeper, up to the next
+ * one at e's depth or above) and the character offset of its start tag. Nothing else is
+ * kept; an element's content is decoded from the file again when it is needed (see
+ * XmlDocuments.nodeRows).
+ * <p>
+ * The scan is a small tag tokenizer rather than StAX, whose reported locations run
+ * ahead of the events by whatever the parser has already buffered.
+ */
+public class XmlElementIndex {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_INTERVAL = 1 << 14;
+
+    // Scanner tokens
+    private static final int END_OF_INPUT = -1;
+    private static final int TEXT = 0;
+    private static final int START_TAG = 1;
+    private static final int EMPTY_TAG = 2;
+    private static final int END_TAG = 3;
+    private static final int OTHER = 4;
+
+    private final File file;
+    private final StringDictionary names = new StringDictionary();
+    private int size;
+    private int[] nameIds = new int[1024];
+    private char[] depths = new char[1024];
+    // Low 32 bits of each start offset; the offsets only grow, so the high bits are
+    // the number of elements in startWraps at or before the element
+    private int[] starts = new int[1024];
+    private int[] startWraps = new int[4];
+    private int wrapCount;
+    // Char offset -> byte offset checkpoints of the UTF-8 file, one per read buffer
+    private long[] checkpointChars = new long[64];
+    private long[] checkpointBytes = new long[64];
+    private int checkpoints;
+
+    private XmlElementIndex(File file) {
+        this.file = file;
+    }
+
+    // Indexes a UTF-8 file; progress is reported in percent
+    public static XmlElementIndex build(File file, IntConsumer progress) throws IOException, XMLStreamException {
+        XmlElementIndex index = new XmlElementIndex(file);
+        try (CheckpointReader reader = index.new CheckpointReader(0, 0, true)) {
+            index.scan(reader, progress, Math.max(1, file.length()));
+        }
+        return index;
+    }
+
+    private void scan(CheckpointReader reader, IntConsumer progress, long length) throws IOException, XMLStreamException {
+        Scanner in = new Scanner(reader, null);
+        StringBuilder name = new StringBuilder();
+        int[] open = new int[64];
+        int depth = 0;
+
+        int token;
+        while ((token = in.next(name)) != END_OF_INPUT) {
+            if (token == END_TAG) {
+                if (depth == 0 || names.encode(name.toString()) != nameIds[open[depth - 1]]) {
+                    throw in.error("Unexpected end tag </" + name + ">");
+                }
+                depth--;
+            } else if (token == START_TAG || token == EMPTY_TAG) {
+                if (depth == 0 && size > 0) {
+                    throw in.error("Content after the document element");
+                }
+                if (depth > Character.MAX_VALUE) {
+                    throw in.error("Elements nested too deeply");
+                }
+                if (size == nameIds.length) {
+                    grow();
+                }
+                nameIds[size] = names.encode(name.toString());
+                depths[size] = (char) depth;
+                setStart(size, in.tokenStart);
+                if (token == START_TAG) {
+                    if (depth == open.length) {
+                        open = Arrays.copyOf(open, depth * 2);
+                    }
+                    open[depth++] = size;
+                }
+                size++;
+
+                if (size % PROGRESS_INTERVAL == 0) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("XML indexing cancelled");
+                    }
+                    progress.accept((int) Math.min(99, reader.bytesRead * 100 / length));
+                }
+            }
+        }
+        if (depth > 0) {
+            throw in.error("Element <" + getName(open[depth - 1]) + "> is not closed");
+        }
+        if (size == 0) {
+            throw in.error("No document element");
+        }
+    }
+
+    private void setStart(int element, long offset) {
+        while ((offset >>> 32) > wrapCount) {
+            if (wrapCount == startWraps.length) {
+                startWraps = Arrays.copyOf(startWraps, wrapCount * 2);
+            }
+            startWraps[wrapCount++] = element;
+        }
+        starts[element] = (int) offset;
+    }
+
+    private long getStart(int element) {
+        int high = 0;
+        while (high < wrapCount && startWraps[high] <= element) {
+            high++;
+        }
+        return ((long) high << 32) | Integer.toUnsignedLong(starts[element]);
+    }
+
+    private void grow() {
+        int capacity = size + (size >> 1);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getName(int element) {
+        return names.decode(nameIds[element]);
+    }
+
+    public boolean hasChildren(int element) {
+        return element + 1 < size && depths[element + 1] > depths[element];
+    }
+
+    public int[] getChildren(int element) {
+        int depth = depths[element];
+        int end = element + 1;
+        int count = 0;
+        while (end < size && depths[end] > depth) {
+            if (depths[end] == depth + 1) {
+                count++;
+            }
+            end++;
+        }
+        int[] children = new int[count];
+        int i = 0;
+        for (int child = element + 1; child < end; child++) {
+            if (depths[child] == depth + 1) {
+                children[i++] = child;
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Reader over the element's source text, from its '<' to the end of its end tag.
+     */
+    public Reader openElement(int element) throws IOException {
+        return new ElementReader(open(getStart(element)));
+    }
+
+    private Reader open(long charOffset) throws IOException {
+        // Decode from the last checkpoint at or before the offset
+        int checkpoint = Arrays.binarySearch(checkpointChars, 0, checkpoints, charOffset);
+        if (checkpoint < 0) {
+            checkpoint = -checkpoint - 2;
+        }
+        long chars = checkpoint >= 0 ? checkpointChars[checkpoint] : 0;
+        long bytes = checkpoint >= 0 ? checkpointBytes[checkpoint] : 0;
+        CheckpointReader reader = new CheckpointReader(chars, bytes, false);
+        long skip = charOffset - chars;
+        while (skip > 0) {
+            long skipped = reader.skip(skip);
+            if (skipped <= 0) break;
+            skip -= skipped;
+        }
+        return reader;
+    }
+
+    private void addCheckpoint(long chars, long bytes) {
+        if (checkpoints > 0 && checkpointChars[checkpoints - 1] >= chars) {
+            return;
+        }
+        if (checkpoints == checkpointChars.length) {
+            checkpointChars = Arrays.copyOf(checkpointChars, checkpoints * 2);
+            checkpointBytes = Arrays.copyOf(checkpointBytes, checkpoints * 2);
+        }
+        checkpointChars[checkpoints] = chars;
+        checkpointBytes[checkpoints] = bytes;
+        checkpoints++;
+    }
+
+    /**
+     * UTF-8 reader over the file that knows how many bytes stand behind the chars it
+     * returned. While indexing it records a checkpoint at every buffer boundary.
+     */
+    private final class CheckpointReader extends Reader {
+        private final InputStream in;
+        private final boolean record;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        private long charsDecoded;
+        private long bytesRead;
+        private boolean eof;
+
+        CheckpointReader(long charOffset, long byteOffset, boolean record) throws IOException {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            channel.position(byteOffset);
+            this.in = Channels.newInputStream(channel);
+            this.record = record;
+            this.charsDecoded = charOffset;
+            this.bytesRead = byteOffset;
+            bytes.flip();
+            chars.flip();
+        }
+
+        private boolean fill() throws IOException {
+            while (!chars.hasRemaining()) {
+                if (eof && !bytes.hasRemaining()) {
+                    return false;
+                }
+                if (!eof) {
+                    bytes.compact();
+                    int n = in.read(bytes.array(), bytes.position(), bytes.remaining());
+                    if (n < 0) {
+                        eof = true;
+                    } else {
+                        bytes.position(bytes.position() + n);
+                        bytesRead += n;
+                    }
+                    bytes.flip();
+                }
+
+                // Chars decoded so far end exactly at the bytes consumed so far
+                long consumedBefore = bytesRead - bytes.remaining();
+                if (record) {
+                    addCheckpoint(charsDecoded, consumedBefore);
+                }
+                chars.clear();
+                decoder.decode(bytes, chars, eof);
+                chars.flip();
+                if (consumedBefore == 0 && chars.hasRemaining() && chars.get(0) == '\uFEFF') {
+                    chars.get(); // byte order mark
+                }
+                if (eof && !chars.hasRemaining()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(length, chars.remaining());
+            chars.get(buffer, offset, n);
+            charsDecoded += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Just enough of an XML tokenizer to tell where elements start and end: tags, quoted
+     * attribute values, comments, CDATA, processing instructions and declarations.
+     * Anything else, entity references included, is passed over as text; they are left
+     * to the parser that reads the element.
+     */
+    private static final class Scanner {
+        private final Reader in;
+        // Receives every char read, if set
+        private final StringBuilder copy;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int next;
+        private int limit;
+        // Chars consumed so far, and where the last token began
+        private long position;
+        private long tokenStart;
+
+        Scanner(Reader in, StringBuilder copy) {
+            this.in = in;
+            this.copy = copy;
+        }
+
+        int read() throws IOException {
+            if (next == limit) {
+                limit = Math.max(0, in.read(buffer, 0, buffer.length));
+                next = 0;
+                if (limit == 0) {
+                    return -1;
+                }
+            }
+            position++;
+            char c = buffer[next++];
+            if (copy != null) {
+                copy.append(c);
+            }
+            return c;
+        }
+
+        // Reads one token; the tag name is left in name
+        int next(StringBuilder name) throws IOException, XMLStreamException {
+            tokenStart = position;
+            int c = read();
+            if (c < 0) {
+                return END_OF_INPUT;
+            }
+            if (c != '<') {
+                return TEXT;
+            }
+
+            c = read();
+            if (c == '/') {
+                endOfTag(name(read(), name));
+                return END_TAG;
+            }
+            if (c == '?') {
+                skipPast("?>");
+                return OTHER;
+            }
+            if (c == '!') {
+                declaration();
+                return OTHER;
+            }
+            return attributes(name(c, name)) ? EMPTY_TAG : START_TAG;
+        }
+
+        // Reads a name that starts with c and returns the char after it
+        private int name(int c, StringBuilder name) throws IOException, XMLStreamException {
+            name.setLength(0);
+            while (c >= 0 && c != '>' && c != '/' && c != '=' && !Character.isWhitespace(c)) {
+                name.append((char) c);
+                c = read();
+            }
+            if (name.length() == 0) {
+                throw error("Missing tag name");
+            }
+            return c;
+        }
+
+        private void endOfTag(int c) throws IOException, XMLStreamException {
+            while (c >= 0 && Character.isWhitespace(c)) {
+                c = read();
+            }
+            if (c != '>') {
+                throw error("Expected '>'");
+            }
+        }
+
+        // Skips the attributes of a start tag; true if the tag was "/>"
+        private boolean attributes(int c) throws IOException, XMLStreamException {
+            while (true) {
+                if (c < 0) {
+                    throw error("Unterminated start tag");
+                }
+                if (c == '>') {
+                    return false;
+                }
+                if (c == '/') {
+                    endOfTag(read());
+                    return true;
+                }
+                if (c == '"' || c == '\'') {
+                    quoted(c);
+                }
+                c = read();
+            }
+        }
+
+        private void quoted(int quote) throws IOException, XMLStreamException {
+            int c;
+            while ((c = read()) != quote) {
+                if (c < 0 || c == '<') {
+                    throw error("Unterminated attribute value");
+                }
+            }
+        }
+
+        // After "<!": a comment, a CDATA section or a declaration such as DOCTYPE
+        private void declaration() throws IOException, XMLStreamException {
+            int c = read();
+            if (c == '-') {
+                if (read() != '-') {
+                    throw error("Invalid comment");
+                }
+                skipPast("-->");
+                return;
+            }
+            if (c == '[') {
+                for (int i = 0; i < "CDATA[".length(); i++) {
+                    if (read() != "CDATA[".charAt(i)) {
+                        throw error("Invalid CDATA section");
+                    }
+                }
+                skipPast("]]>");
+                return;
+            }
+
+            int brackets = 0;
+            while (c != '>' || brackets > 0) {
+                if (c < 0) {
+                    throw error("Unterminated declaration");
+                }
+                if (c == '"' || c == '\'') {
+                    int quote = c;
+                    while ((c = read()) != quote) {
+                        if (c < 0) {
+                            throw error("Unterminated declaration");
+                        }
+                    }
+                } else if (c == '[') {
+                    brackets++;
+                } else if (c == ']') {
+                    brackets--;
+                }
+                c = read();
+            }
+        }
+
+        private void skipPast(String end) throws IOException, XMLStreamException {
+            // The last end.length() chars read
+            char[] last = new char[end.length()];
+            for (int count = 1; ; count++) {
+                int c = read();
+                if (c < 0) {
+                    throw error("Expected " + end);
+                }
+                System.arraycopy(last, 1, last, 0, last.length - 1);
+                last[last.length - 1] = (char) c;
+                if (count >= last.length && matches(last, end)) {
+                    return;
+                }
+            }
+        }
+
+        private static boolean matches(char[] chars, String text) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        XMLStreamException error(String message) {
+            return new XMLStreamException(message + " at character " + position);
+        }
+    }
+
+    // Passes the source through until the element that starts it is closed
+    private static final class ElementReader extends Reader {
+        private final Reader in;
+        private final StringBuilder pending = new StringBuilder();
+        private final StringBuilder name = new StringBuilder();
+        private final Scanner scanner;
+        private int depth;
+        private boolean closed;
+        private int taken;
+
+        ElementReader(Reader in) {
+            this.in = in;
+            this.scanner = new Scanner(in, pending);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            try {
+                while (taken == pending.length() && !closed) {
+                    pending.setLength(0);
+                    taken = 0;
+                    int token = scanner.next(name);
+                    if (token == START_TAG) {
+                        depth++;
+                    } else if (token == END_TAG) {
+                        depth--;
+                    }
+                    closed = token == END_OF_INPUT || depth == 0 && token != TEXT && token != OTHER;
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            if (taken == pending.length()) {
+                return -1;
+            }
+            int n = Math.min(length, pending.length() - taken);
+            pending.getChars(taken, taken + n, buffer, offset);
+            taken += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
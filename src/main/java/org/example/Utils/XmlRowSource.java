@@ -0,0 +1,109 @@
+package org.example.Utils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads record-style XML with StAX: each child of the root element is a row and its
+ * child elements are the cells. The first row fixes the columns; cells with other
+ * names in later rows are ignored. The file is read as UTF-8 with stray '&' escaped.
+ */
+public class XmlRowSource implements RowSource {
+    private static final int PROGRESS_INTERVAL = 4096;
+
+    private final File file;
+    private final TextNormalizer normalizer;
+
+    public XmlRowSource(File file) {
+        this(file, new TextNormalizer());
+    }
+
+    // Cell text is normalized as the parser hands it over
+    public XmlRowSource(File file, TextNormalizer normalizer) {
+        this.file = file;
+        this.normalizer = normalizer;
+    }
+
+    @Override
+    public void read(RowSink sink) throws Exception {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        long length = Math.max(1, file.length());
+
+        try (FileInputStream in = new FileInputStream(file)) {
+            XMLStreamReader xml = factory.createXMLStreamReader(EntityFixingReader.open(in));
+            try {
+                String[] headers = null;
+                Map<String, Integer> columns = null;
+                List<String> firstNames = new ArrayList<>();
+                List<String> firstValues = new ArrayList<>();
+                String[] row = null;
+                StringBuilder text = new StringBuilder();
+                int column = -1;
+                int depth = 0;
+                int count = 0;
+
+                while (xml.hasNext()) {
+                    int event = xml.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if (depth == 2 && headers != null) {
+                            row = new String[headers.length];
+                        } else if (depth == 3) {
+                            text.setLength(0);
+                            if (headers == null) {
+                                firstNames.add(xml.getLocalName());
+                            } else {
+                                Integer index = columns.get(xml.getLocalName());
+                                column = index != null && row[index] == null ? index : -1;
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                        if (depth >= 3) {
+                            normalizer.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength(), text);
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == 3) {
+                            String value = text.toString().trim();
+                            if (headers == null) {
+                                firstValues.add(value);
+                            } else if (column >= 0) {
+                                row[column] = value;
+                            }
+                        } else if (depth == 2) {
+                            if (headers == null) {
+                                headers = firstNames.toArray(new String[0]);
+                                columns = new HashMap<>(headers.length * 2);
+                                for (int i = 0; i < headers.length; i++) {
+                                    columns.putIfAbsent(headers[i], i);
+                                }
+                                sink.headers(headers);
+                                row = firstValues.toArray(new String[0]);
+                            }
+                            for (int i = 0; i < row.length; i++) {
+                                if (row[i] == null) row[i] = "";
+                            }
+                            if (!sink.row(row)) {
+                                return;
+                            }
+                            if (++count % PROGRESS_INTERVAL == 0) {
+                                sink.progress((int) Math.min(99, in.getChannel().position() * 100 / length));
+                            }
+                        }
+                        depth--;
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        }
+    }
+}
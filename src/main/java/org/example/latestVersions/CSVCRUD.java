@@ -1,17 +1,38 @@
 package org.example.latestVersions;
 
+import org.example.Convert.Converter;
+import org.example.Convert.TableFormat;
+import org.example.Filters.FilterCombination;
+import org.example.Filters.FilterCompiler;
+import org.example.Filters.FilterCondition;
+import org.example.Filters.FilterOperator;
+import org.example.Filters.Query;
+import org.example.Filters.QueryBar;
+import org.example.Filters.TableIndexer;
 import org.example.Models.Client;
+import org.example.Models.ClientDictionaries;
+import org.example.Models.ClientTableModel;
+import org.example.Models.TypedCellReader;
+import org.example.Stats.ColumnStatistics;
+import org.example.Stats.StatisticsEngine;
+import org.example.Stats.StatisticsPanel;
+import org.example.Stats.TableStatistics;
+import org.example.Utils.CsvRowSource;
+import org.example.Utils.DateCodec;
+import org.example.Utils.LoadProgressPanel;
+import org.example.Utils.TableLoadWorker;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.io.*;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
 
 public class CSVCRUD extends JFrame {
     private static final String[] COLUMN_HEADERS = {
@@ -20,13 +41,17 @@ public class CSVCRUD extends JFrame {
             "Creation Date", "Notes"
     };
 
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
-
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ClientTableModel tableModel;
+    private TableRowSorter<ClientTableModel> sorter;
+    private TableIndexer<Client> indexer;
+    private IntPredicate activeFilter;
+    private Query activeQuery;
     private List<Client> clients = new ArrayList<>();
     private File currentFile;
     private JLabel statusLabel;
+    private LoadProgressPanel progressPanel;
+    private TableLoadWorker<Client> loadWorker;
 
     public CSVCRUD() {
         initializeUI();
@@ -44,16 +69,24 @@ public class CSVCRUD extends JFrame {
     }
 
     private void setupTable() {
-        tableModel = new DefaultTableModel(COLUMN_HEADERS, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table cells non-editable directly
-            }
-        };
+        // Cells are rendered from the client list itself (no second copy of the data)
+        tableModel = new ClientTableModel(COLUMN_HEADERS, clients);
 
         table = new JTable(tableModel);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        table.setAutoCreateRowSorter(true);
+        sorter = new TableRowSorter<>(tableModel);
+        table.setRowSorter(sorter);
+        // The model gives creation dates as epoch days so they sort as ints; show the client's date text
+        table.getColumnModel().getColumn(9).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                           boolean hasFocus, int row, int column) {
+                String text = tableModel.getClient(table.convertRowIndexToModel(row)).getCreationDate();
+                return super.getTableCellRendererComponent(table, text, isSelected, hasFocus, row, column);
+            }
+        });
+        // Filter index, rebuilt in the background after each load
+        indexer = new TableIndexer<>(tableModel, clients::get, ClientTableModel::getFieldValue);
         table.setFillsViewportHeight(true);
 
         // Add right-click context menu
@@ -62,7 +95,12 @@ public class CSVCRUD extends JFrame {
 
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Client Data"));
-        add(scrollPane, BorderLayout.CENTER);
+
+        JPanel centerPanel = new JPanel(new BorderLayout());
+        centerPanel.add(new QueryBar("country = 'ES' AND clientGroupId > 3 AND email ends with '.com'",
+                this::runQuery, this::clearFilters), BorderLayout.NORTH);
+        centerPanel.add(scrollPane, BorderLayout.CENTER);
+        add(centerPanel, BorderLayout.CENTER);
     }
 
     private JPopupMenu createContextMenu() {
@@ -117,9 +155,15 @@ public class CSVCRUD extends JFrame {
     }
 
     private void setupStatusBar() {
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+
         statusLabel = new JLabel("Ready");
-        statusLabel.setBorder(BorderFactory.createEtchedBorder());
-        add(statusLabel, BorderLayout.SOUTH);
+        progressPanel = new LoadProgressPanel("Cancel");
+
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(progressPanel, BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
     }
 
     private void updateStatus(String message) {
@@ -130,35 +174,74 @@ public class CSVCRUD extends JFrame {
         JFileChooser fileChooser = createFileChooser("Open CSV File");
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             currentFile = fileChooser.getSelectedFile();
-            try (BufferedReader br = new BufferedReader(new FileReader(currentFile))) {
-                clearTable();
-
-                // Skip header if exists
-                br.readLine();
-
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String[] values = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1); // Handle quoted commas
-                    if (values.length == COLUMN_HEADERS.length) {
-                        try {
-                            Client client = parseClient(values);
-                            clients.add(client);
-                            tableModel.addRow(values);
-                        } catch (NumberFormatException | ParseException e) {
-                            updateStatus("Error parsing line: " + line);
-                        }
-                    }
-                }
-                updateStatus("Loaded " + clients.size() + " clients from " + currentFile.getName());
-            } catch (IOException ex) {
-                showError("Error reading file: " + ex.getMessage());
+            File file = currentFile;
+            if (loadWorker != null) {
+                loadWorker.supersede();
             }
+            indexer.pause();
+            clearTable();
+
+            // Clients are parsed on the worker thread and added to the table in chunks,
+            // encoded with the dictionaries the cleared table has just started
+            ClientDictionaries dictionaries = tableModel.getDictionaries();
+            // Rows with the wrong field count or a bad number are dropped and reported at the end
+            AtomicInteger skipped = new AtomicInteger();
+            loadWorker = new TableLoadWorker<>(new CsvRowSource(file, ","),
+                    values -> parseClientOrSkip(values, dictionaries, skipped),
+                    new TableLoadWorker.Listener<Client>() {
+                        @Override
+                        public void headersLoaded(String[] headers) {
+                            // Header row is skipped, columns are fixed
+                        }
+
+                        @Override
+                        public void rowsLoaded(List<Client> rows) {
+                            tableModel.addClients(rows);
+                            updateStatus("Loading " + file.getName() + "... " + clients.size() + " clients");
+                        }
+
+                        @Override
+                        public void loadFinished(int rowCount, boolean cancelled, Exception error) {
+                            indexer.rebuild();
+                            if (error != null) {
+                                showError("Error reading file: " + error.getMessage());
+                            } else if (cancelled) {
+                                updateStatus("Load cancelled. " + clients.size() + " clients loaded from " + file.getName()
+                                        + skippedRows(skipped.get()));
+                            } else {
+                                updateStatus("Loaded " + clients.size() + " clients from " + file.getName()
+                                        + skippedRows(skipped.get()));
+                            }
+                        }
+                    });
+
+            progressPanel.track(loadWorker);
+            loadWorker.execute();
         }
     }
 
-    private Client parseClient(String[] values) throws NumberFormatException, ParseException {
+    // Runs on the loader thread; malformed rows are counted in skipped
+    private Client parseClientOrSkip(String[] values, ClientDictionaries dictionaries, AtomicInteger skipped) {
+        if (values.length != COLUMN_HEADERS.length) {
+            skipped.incrementAndGet();
+            return null;
+        }
+        try {
+            return parseClient(values, dictionaries);
+        } catch (NumberFormatException e) {
+            skipped.incrementAndGet();
+            return null;
+        }
+    }
+
+    private static String skippedRows(int skipped) {
+        return skipped == 0 ? "" : ", " + skipped + " malformed " + (skipped == 1 ? "row" : "rows") + " skipped";
+    }
+
+    private Client parseClient(String[] values, ClientDictionaries dictionaries) throws NumberFormatException {
         return new Client(
-                parseIntSafe(values[0].trim()),        // id
+                dictionaries,
+                parseIntOrZero(values[0].trim()),        // id
                 cleanValue(values[1]),                // firstName
                 cleanValue(values[2]),                 // lastName
                 cleanValue(values[3]),                 // companyName
@@ -166,22 +249,20 @@ public class CSVCRUD extends JFrame {
                 cleanValue(values[5]),                 // address1
                 cleanValue(values[6]),                 // country
                 cleanValue(values[7]),                 // phoneNumber
-                parseIntSafe(values[8].trim()),        // clientGroupId
+                parseIntOrZero(values[8].trim()),        // clientGroupId
                 cleanValue(values[9]),                 // creationDate
                 cleanValue(values[10])                 // notes
         );
     }
 
+    // The tokenizer has already unquoted the cell; quotes left are part of the value
     private String cleanValue(String value) {
-        return value.replaceAll("^\"|\"$", "").trim();
+        return value.trim();
     }
 
-    private int parseIntSafe(String value) {
-        try {
-            return value.isEmpty() ? 0 : Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            return 0;
-        }
+    // An empty cell reads as 0; any other text must be a number (the row is skipped otherwise)
+    private int parseIntOrZero(String value) throws NumberFormatException {
+        return value.isEmpty() ? 0 : Integer.parseInt(value);
     }
 
     private void saveCSV() {
@@ -190,8 +271,8 @@ public class CSVCRUD extends JFrame {
             return;
         }
 
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(currentFile))) {
-            writeCSVData(bw);
+        try {
+            writeCSVData(currentFile);
             updateStatus("Data saved to " + currentFile.getName());
         } catch (IOException ex) {
             showError("Error saving file: " + ex.getMessage());
@@ -206,8 +287,8 @@ public class CSVCRUD extends JFrame {
                 file = new File(file.getAbsolutePath() + ".csv");
             }
 
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-                writeCSVData(bw);
+            try {
+                writeCSVData(file);
                 currentFile = file;
                 updateStatus("Data exported to " + file.getName());
             } catch (IOException ex) {
@@ -216,31 +297,18 @@ public class CSVCRUD extends JFrame {
         }
     }
 
-    private void writeCSVData(BufferedWriter bw) throws IOException {
-        bw.write(String.join(",", COLUMN_HEADERS));
-        bw.newLine();
-
-        for (Client client : clients) {
-            String[] row = {
-                    String.valueOf(client.getId()),
-                    quoteIfNeeded(client.getFirstName()),
-                    quoteIfNeeded(client.getLastName()),
-                    quoteIfNeeded(client.getCompanyName()),
-                    quoteIfNeeded(client.getEmail()),
-                    quoteIfNeeded(client.getAddress1()),
-                    quoteIfNeeded(client.getCountry()),
-                    quoteIfNeeded(client.getPhoneNumber()),
-                    String.valueOf(client.getClientGroupId()),
-                    quoteIfNeeded(client.getCreationDate()),
-                    quoteIfNeeded(client.getNotes())
-            };
-            bw.write(String.join(",", row));
-            bw.newLine();
-        }
+    // Quotes cells with commas, quotes or line breaks, so they load back unchanged
+    private void writeCSVData(File file) throws IOException {
+        Converter.write(COLUMN_HEADERS, () -> clients.stream().map(this::toRow).iterator(),
+                Converter.openWriter(TableFormat.CSV, new FileOutputStream(file), ",", "clients"));
     }
 
-    private String quoteIfNeeded(String value) {
-        return value.contains(",") ? "\"" + value + "\"" : value;
+    private String[] toRow(Client client) {
+        String[] row = new String[COLUMN_HEADERS.length];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = ClientTableModel.getFieldValue(client, i);
+        }
+        return row;
     }
 
     private JFileChooser createFileChooser(String title) {
@@ -263,9 +331,8 @@ public class CSVCRUD extends JFrame {
     private void insertRow() {
         ClientForm form = new ClientForm(this, "Add New Client", null);
         if (form.showForm()) {
-            Client newClient = form.getClient();
-            clients.add(newClient);
-            tableModel.addRow(createRowData(newClient));
+            Client newClient = form.getClient(tableModel.getDictionaries());
+            tableModel.addClient(newClient);
             updateStatus("Added new client: " + newClient.getFirstName());
         }
     }
@@ -282,33 +349,13 @@ public class CSVCRUD extends JFrame {
 
         ClientForm form = new ClientForm(this, "Edit Client", clientToEdit);
         if (form.showForm()) {
-            Client updatedClient = form.getClient();
-            clients.set(modelRow, updatedClient);
-
-            for (int i = 0; i < COLUMN_HEADERS.length; i++) {
-                tableModel.setValueAt(createRowData(updatedClient)[i], modelRow, i);
-            }
+            Client updatedClient = form.getClient(tableModel.getDictionaries());
+            tableModel.setClient(modelRow, updatedClient);
 
             updateStatus("Updated client: " + updatedClient.getFirstName());
         }
     }
 
-    private String[] createRowData(Client client) {
-        return new String[]{
-                String.valueOf(client.getId()),
-                client.getFirstName(),
-                client.getLastName(),
-                client.getCompanyName(),
-                client.getEmail(),
-                client.getAddress1(),
-                client.getCountry(),
-                client.getPhoneNumber(),
-                String.valueOf(client.getClientGroupId()),
-                client.getCreationDate(),
-                client.getNotes()
-        };
-    }
-
     private void deleteRow() {
         int selectedRow = table.getSelectedRow();
         if (selectedRow == -1) {
@@ -327,8 +374,7 @@ public class CSVCRUD extends JFrame {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            clients.remove(modelRow);
-            tableModel.removeRow(modelRow);
+            tableModel.removeClient(modelRow);
             updateStatus("Deleted client: " + clientToDelete.getFirstName());
         }
     }
@@ -369,8 +415,10 @@ public class CSVCRUD extends JFrame {
         JPanel filterPanel = new JPanel(new GridLayout(0, 2, 5, 5));
 
         JComboBox<String> columnCombo = new JComboBox<>(COLUMN_HEADERS);
-        JComboBox<String> operatorCombo = new JComboBox<>(new String[]{"contains", "equals", "starts with", "ends with"});
+        JComboBox<FilterOperator> operatorCombo = new JComboBox<>(FilterOperator.values());
         JTextField valueField = new JTextField();
+        JComboBox<FilterCombination> combineCombo = new JComboBox<>(FilterCombination.values());
+        combineCombo.setEnabled(activeFilter != null);
 
         filterPanel.add(new JLabel("Column:"));
         filterPanel.add(columnCombo);
@@ -378,6 +426,8 @@ public class CSVCRUD extends JFrame {
         filterPanel.add(operatorCombo);
         filterPanel.add(new JLabel("Value:"));
         filterPanel.add(valueField);
+        filterPanel.add(new JLabel("Combine:"));
+        filterPanel.add(combineCombo);
 
         int result = JOptionPane.showConfirmDialog(
                 this,
@@ -388,64 +438,61 @@ public class CSVCRUD extends JFrame {
         );
 
         if (result == JOptionPane.OK_OPTION) {
-            String column = (String) columnCombo.getSelectedItem();
-            String operator = (String) operatorCombo.getSelectedItem();
-            String value = valueField.getText().toLowerCase();
-
-            int columnIndex = Arrays.asList(COLUMN_HEADERS).indexOf(column);
-
-            List<Client> filteredClients = clients.stream()
-                    .filter(client -> matchesFilter(client, columnIndex, operator, value))
-                    .collect(Collectors.toList());
+            int columnIndex = columnCombo.getSelectedIndex();
+            FilterOperator operator = (FilterOperator) operatorCombo.getSelectedItem();
+            FilterCondition condition = new FilterCondition(columnIndex, operator, valueField.getText());
+
+            // Compiled once; the index answers the condition when it is ready
+            IntPredicate predicate = FilterCompiler.compile(tableModel, indexer.getIndex(), condition);
+            FilterCombination combination = (FilterCombination) combineCombo.getSelectedItem();
+            if (combination == FilterCombination.REPLACE) {
+                detachQuery();
+            }
+            activeFilter = combination.apply(activeFilter, predicate);
 
-            updateTableWithFilteredData(filteredClients);
-            updateStatus("Filtered: " + filteredClients.size() + " clients match criteria");
+            // Filter the view only, so model indexes keep pointing at the right clients
+            sorter.setRowFilter(FilterCompiler.toRowFilter(activeFilter));
+            updateStatus("Filtered: " + table.getRowCount() + " clients match criteria");
         }
     }
 
-    private boolean matchesFilter(Client client, int columnIndex, String operator, String value) {
-        String cellValue = getClientFieldValue(client, columnIndex).toLowerCase();
-
-        switch (operator) {
-            case "contains":
-                return cellValue.contains(value);
-            case "equals":
-                return cellValue.equals(value);
-            case "starts with":
-                return cellValue.startsWith(value);
-            case "ends with":
-                return cellValue.endsWith(value);
-            default:
-                return false;
+    private void runQuery(String text) {
+        if (text.isEmpty()) {
+            clearFilters();
+            return;
         }
-    }
 
-    private String getClientFieldValue(Client client, int columnIndex) {
-        switch (columnIndex) {
-            case 0: return String.valueOf(client.getId());
-            case 1: return client.getFirstName();
-            case 2: return client.getLastName();
-            case 3: return client.getCompanyName();
-            case 4: return client.getEmail();
-            case 5: return client.getAddress1();
-            case 6: return client.getCountry();
-            case 7: return client.getPhoneNumber();
-            case 8: return String.valueOf(client.getClientGroupId());
-            case 9: return client.getCreationDate();
-            case 10: return client.getNotes();
-            default: return "";
+        Query query;
+        try {
+            query = Query.compile(text, COLUMN_HEADERS, tableModel, indexer.getIndex());
+        } catch (IllegalArgumentException ex) {
+            showError("Invalid query: " + ex.getMessage());
+            return;
         }
+
+        long start = System.nanoTime();
+        int matches = query.run(clients.size());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        detachQuery();
+        query.attach(tableModel);
+        activeQuery = query;
+        activeFilter = query;
+        sorter.setRowFilter(FilterCompiler.toRowFilter(activeFilter));
+        updateStatus("Query matched " + matches + " of " + clients.size() + " clients (" + millis + " ms)");
     }
 
-    private void updateTableWithFilteredData(List<Client> filteredClients) {
-        tableModel.setRowCount(0);
-        for (Client client : filteredClients) {
-            tableModel.addRow(createRowData(client));
+    private void detachQuery() {
+        if (activeQuery != null) {
+            activeQuery.detach();
+            activeQuery = null;
         }
     }
 
     private void clearFilters() {
-        updateTableWithFilteredData(clients);
+        detachQuery();
+        activeFilter = null;
+        sorter.setRowFilter(null);
         updateStatus("Filters cleared. Showing all " + clients.size() + " clients");
     }
 
@@ -455,45 +502,79 @@ public class CSVCRUD extends JFrame {
             return;
         }
 
-        // Basic statistics
-        long totalClients = clients.size();
-        long uniqueCountries = clients.stream().map(Client::getCountry).distinct().count();
+        // Snapshot on the EDT; the engine aggregates every column in one parallel pass,
+        // reading ID, group and creation day as numbers and company and country as codes
+        List<Client> snapshot = new ArrayList<>(clients);
+        TypedCellReader<Client> reader = tableModel.cellReader();
+        String[] columns = new String[tableModel.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = tableModel.getColumnName(i);
+        }
+        updateStatus("Computing statistics...");
 
-        // Group statistics
-        Map<Integer, Long> clientsByGroup = clients.stream()
-                .collect(Collectors.groupingBy(Client::getClientGroupId, Collectors.counting()));
+        new SwingWorker<TableStatistics, Void>() {
+            @Override
+            protected TableStatistics doInBackground() {
+                return StatisticsEngine.compute(columns, snapshot, reader, StatisticsEngine.DEFAULT_TOP_K);
+            }
 
-        // Country distribution
-        Map<String, Long> countryDistribution = clients.stream()
-                .collect(Collectors.groupingBy(Client::getCountry, Collectors.counting()));
+            @Override
+            protected void done() {
+                try {
+                    TableStatistics statistics = get();
+                    updateStatus("Statistics computed in " + statistics.getElapsedMillis() + " ms");
+                    StatisticsPanel.showDialog(CSVCRUD.this, "Client Statistics", statistics, buildClientSummary(statistics));
+                } catch (Exception e) {
+                    showError("Error computing statistics: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private String buildClientSummary(TableStatistics statistics) {
+        // Countries are counted by dictionary code, groups by id
+        ColumnStatistics countries = statistics.getColumn(6);
+        long[] countryCounts = countries.getCodeCounts();
+        Integer[] countryCodes = new Integer[countryCounts.length];
+        for (int code = 0; code < countryCodes.length; code++) {
+            countryCodes[code] = code;
+        }
+        Arrays.sort(countryCodes, (a, b) -> Long.compare(countryCounts[b], countryCounts[a]));
 
         StringBuilder stats = new StringBuilder("<html><b>Client Statistics:</b><br><br>");
-        stats.append("<b>Total Clients:</b> ").append(totalClients).append("<br>");
-        stats.append("<b>Unique Countries:</b> ").append(uniqueCountries).append("<br><br>");
+        stats.append("<b>Total Clients:</b> ").append(statistics.getRowCount()).append("<br>");
+        stats.append("<b>Unique Countries:</b> ").append(countries.getDistinctCount()).append("<br><br>");
 
         stats.append("<b>Clients by Group:</b><br>");
-        clientsByGroup.forEach((groupId, count) ->
+        statistics.getColumn(8).getNumberCounts().forEach((groupId, count) ->
                 stats.append("Group ").append(groupId).append(": ").append(count).append("<br>"));
 
         stats.append("<br><b>Country Distribution:</b><br>");
-        countryDistribution.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .forEach(entry ->
-                        stats.append(entry.getKey()).append(": ").append(entry.getValue()).append("<br>"));
+        for (int code : countryCodes) {
+            if (countryCounts[code] > 0) {
+                stats.append(countries.getDictionary().decode(code)).append(": ")
+                        .append(countryCounts[code]).append("<br>");
+            }
+        }
 
-        stats.append("</html>");
+        ColumnStatistics creationDates = statistics.getColumn(9);
+        long[] months = creationDates.getMonthCounts();
+        if (creationDates.getDateCount() > 0) {
+            stats.append("<br><b>Clients by Creation Month:</b><br>");
+            for (int i = 0; i < months.length; i++) {
+                if (months[i] > 0) {
+                    stats.append(DateCodec.formatMonth(creationDates.getFirstMonth() + i))
+                            .append(": ").append(months[i]).append("<br>");
+                }
+            }
+        }
 
-        JOptionPane.showMessageDialog(
-                this,
-                stats.toString(),
-                "Client Statistics",
-                JOptionPane.INFORMATION_MESSAGE
-        );
+        stats.append("</html>");
+        return stats.toString();
     }
 
     private void clearTable() {
-        tableModel.setRowCount(0);
-        clients.clear();
+        tableModel.clear();
         updateStatus("Table cleared");
     }
 
@@ -578,7 +659,7 @@ class ClientForm {
         notesArea = new JTextArea(3, 20);
 
         // Set current date as default for creation date
-        creationDateField.setText(new SimpleDateFormat("yyyy-MM-dd").format(new Date()));
+        creationDateField.setText(LocalDate.now().toString());
 
         if (client != null) {
             idField.setText(String.valueOf(client.getId()));
@@ -641,9 +722,10 @@ class ClientForm {
         return confirmed;
     }
 
-    public Client getClient() {
+    public Client getClient(ClientDictionaries dictionaries) {
         try {
             return new Client(
+                    dictionaries,
                     Integer.parseInt(idField.getText()),
                     firstNameField.getText(),
                     lastNameField.getText(),
@@ -653,7 +735,7 @@ class ClientForm {
                     countryField.getText(),
                     phoneNumberField.getText(),
                     clientGroupIdField.getText().isEmpty() ? 0 : Integer.parseInt(clientGroupIdField.getText()),
-                    creationDateField.getText(),
+                    creationDateField.getText().trim(),
                     notesArea.getText()
             );
         } catch (NumberFormatException e) {
@@ -700,6 +782,12 @@ class ClientForm {
             return false;
         }
 
+        String creationDate = creationDateField.getText().trim();
+        if (!creationDate.isEmpty() && DateCodec.parseEpochDay(creationDate) == DateCodec.INVALID) {
+            JOptionPane.showMessageDialog(dialog, "Creation date must use the yyyy-MM-dd format", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+
         return true;
     }
 }
\ No newline at end of file
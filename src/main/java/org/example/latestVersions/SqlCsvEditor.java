@@ -1,7 +1,15 @@
 package org.example.latestVersions;
 
+import org.example.Convert.Converter;
+import org.example.Convert.SqlPreview;
+import org.example.Convert.TableFormat;
+import org.example.Filters.SelectQuery;
+import org.example.Models.RowListTableModel;
+import org.example.Utils.CsvRowSource;
+import org.example.Utils.LoadProgressPanel;
+import org.example.Utils.TableLoadWorker;
+
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionListener;
@@ -11,16 +19,27 @@ import java.util.*;
 import java.util.List;
 
 public class SqlCsvEditor extends JFrame {
+    private static final int SQL_PREVIEW_DELAY_MILLIS = 100;
+
     // Componentes de la interfaz
     private JTable table;
-    private DefaultTableModel tableModel;
+    private RowListTableModel tableModel;
     private List<String[]> data = new ArrayList<>();
     private String[] headers;
     private File currentFile;
     private JLabel statusLabel;
+    private LoadProgressPanel progressPanel;
+    private TableLoadWorker<String[]> loadWorker;
     private JComboBox<String> delimiterCombo;
     private JComboBox<String> sqlQueryTypeCombo;
     private JTextArea sqlQueryArea;
+    // Sentencias para el nombre de tabla y las columnas actuales
+    private SqlPreview sqlPreview;
+    private javax.swing.Timer sqlQueryTimer;
+    // Resultado del último SELECT ejecutado desde el panel SQL
+    private JTabbedPane tabs;
+    private RowListTableModel sqlResultModel;
+    private JPanel sqlResultPanel;
     private String tableName = "mi_tabla";
 
     public static void main(String[] args) {
@@ -90,19 +109,23 @@ public class SqlCsvEditor extends JFrame {
     }
 
     private void setupTable() {
-        tableModel = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return true;
-            }
-        };
+        // El modelo lee directamente de 'data' (sin copia duplicada de las filas)
+        tableModel = new RowListTableModel(data);
 
         table = new JTable(tableModel);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        table.getSelectionModel().addListSelectionListener(e -> generateSqlQuery());
+        sqlQueryTimer = new javax.swing.Timer(SQL_PREVIEW_DELAY_MILLIS, e -> generateSqlQuery());
+        sqlQueryTimer.setRepeats(false);
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                scheduleSqlQuery();
+            }
+        });
 
         JScrollPane scrollPane = new JScrollPane(table);
-        add(scrollPane, BorderLayout.CENTER);
+        tabs = new JTabbedPane();
+        tabs.addTab("Datos", scrollPane);
+        add(tabs, BorderLayout.CENTER);
     }
 
     private void setupSqlPanel() {
@@ -122,21 +145,36 @@ public class SqlCsvEditor extends JFrame {
         copyBtn.addActionListener(e -> copyToClipboard());
         topPanel.add(copyBtn);
 
+        JButton runBtn = new JButton("Ejecutar");
+        runBtn.setToolTipText("Ejecutar el texto seleccionado, o el SELECT donde está el cursor, sobre la tabla cargada");
+        runBtn.addActionListener(e -> runSql());
+        topPanel.add(runBtn);
+
         sqlPanel.add(topPanel, BorderLayout.NORTH);
 
-        // Área de consulta SQL
+        // Área de consulta SQL (editable para escribir y ejecutar consultas)
         sqlQueryArea = new JTextArea();
         sqlQueryArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-        sqlQueryArea.setEditable(false);
         sqlPanel.add(new JScrollPane(sqlQueryArea), BorderLayout.CENTER);
 
+        sqlResultModel = new RowListTableModel(new ArrayList<>());
+        sqlResultModel.setEditable(false);
+        sqlResultPanel = new JPanel(new BorderLayout());
+        sqlResultPanel.add(new JScrollPane(new JTable(sqlResultModel)), BorderLayout.CENTER);
+
         add(sqlPanel, BorderLayout.EAST);
     }
 
     private void setupStatusBar() {
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+
         statusLabel = new JLabel("Listo");
-        statusLabel.setBorder(BorderFactory.createEtchedBorder());
-        add(statusLabel, BorderLayout.SOUTH);
+        progressPanel = new LoadProgressPanel("Cancelar");
+
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(progressPanel, BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
     }
 
     private void openFile() {
@@ -149,34 +187,45 @@ public class SqlCsvEditor extends JFrame {
 
     private void loadCsvFile() {
         String delimiter = delimiterCombo.getSelectedItem().toString();
+        File file = currentFile;
 
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(currentFile), StandardCharsets.UTF_8))) {
-
-            // Leer cabeceras
-            String headerLine = br.readLine();
-            if (headerLine == null) {
-                showError("Archivo vacío");
-                return;
-            }
-
-            headers = headerLine.split(delimiter);
-            tableModel.setColumnIdentifiers(headers);
-
-            // Leer datos
-            data.clear();
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] row = line.split(delimiter, -1);
-                data.add(row);
-                tableModel.addRow(row);
-            }
-
-            updateStatus("Cargadas " + data.size() + " filas de " + currentFile.getName());
-
-        } catch (Exception ex) {
-            showError("Error al leer archivo: " + ex.getMessage());
+        if (loadWorker != null) {
+            loadWorker.supersede();
         }
+        headers = null;
+        tableModel.clear();
+
+        // Lectura en segundo plano: las filas aparecen en la tabla según se van leyendo
+        loadWorker = new TableLoadWorker<>(new CsvRowSource(file, delimiter), row -> row,
+                new TableLoadWorker.Listener<String[]>() {
+                    @Override
+                    public void headersLoaded(String[] headerRow) {
+                        headers = headerRow;
+                        tableModel.setColumns(headers);
+                    }
+
+                    @Override
+                    public void rowsLoaded(List<String[]> rows) {
+                        tableModel.addRows(rows);
+                        updateStatus("Cargando " + file.getName() + "... " + data.size() + " filas");
+                    }
+
+                    @Override
+                    public void loadFinished(int rowCount, boolean cancelled, Exception error) {
+                        if (error != null) {
+                            showError("Error al leer archivo: " + error.getMessage());
+                        } else if (cancelled) {
+                            updateStatus("Carga cancelada. " + data.size() + " filas cargadas de " + file.getName());
+                        } else if (headers == null) {
+                            showError("Archivo vacío");
+                        } else {
+                            updateStatus("Cargadas " + data.size() + " filas de " + file.getName());
+                        }
+                    }
+                });
+
+        progressPanel.track(loadWorker);
+        loadWorker.execute();
     }
 
     private void saveFile() {
@@ -200,28 +249,17 @@ public class SqlCsvEditor extends JFrame {
     }
 
     private void saveToCsvFile(File file) {
+        if (headers == null) {
+            showError("No hay datos cargados");
+            return;
+        }
         String delimiter = delimiterCombo.getSelectedItem().toString();
 
-        try (BufferedWriter bw = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
-
-            // Escribir cabeceras
-            bw.write(String.join(delimiter, headers));
-            bw.newLine();
-
-            // Escribir datos
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                String[] row = new String[tableModel.getColumnCount()];
-                for (int j = 0; j < row.length; j++) {
-                    Object value = tableModel.getValueAt(i, j);
-                    row[j] = (value != null) ? value.toString() : "";
-                }
-                bw.write(String.join(delimiter, row));
-                bw.newLine();
-            }
-
+        // Entrecomilla las celdas con delimitadores, comillas o saltos de línea
+        try {
+            Converter.write(headers, data,
+                    Converter.openWriter(TableFormat.CSV, new FileOutputStream(file), delimiter, tableName));
             updateStatus("Datos guardados en " + file.getName());
-
         } catch (Exception ex) {
             showError("Error al guardar: " + ex.getMessage());
         }
@@ -250,7 +288,6 @@ public class SqlCsvEditor extends JFrame {
             for (int i = 0; i < headers.length; i++) {
                 newRow[i] = fields[i].getText();
             }
-            data.add(newRow);
             tableModel.addRow(newRow);
             updateStatus("Fila añadida");
         }
@@ -265,100 +302,80 @@ public class SqlCsvEditor extends JFrame {
 
         int modelRow = table.convertRowIndexToModel(selectedRow);
         tableModel.removeRow(modelRow);
-        data.remove(modelRow);
         updateStatus("Fila eliminada");
     }
 
+    // Agrupa los cambios de selección, p. ej. al recorrer la tabla con las flechas
+    private void scheduleSqlQuery() {
+        String queryType = (String) sqlQueryTypeCombo.getSelectedItem();
+        // SELECT e INSERT no dependen de la fila seleccionada
+        if ("UPDATE".equals(queryType) || "DELETE".equals(queryType)) {
+            sqlQueryTimer.restart();
+        }
+    }
+
     private void generateSqlQuery() {
+        sqlQueryTimer.stop();
         if (headers == null || headers.length == 0) {
             sqlQueryArea.setText("-- No hay datos cargados");
             return;
         }
 
+        if (sqlPreview == null || !sqlPreview.matches(tableName, headers)) {
+            sqlPreview = new SqlPreview(tableName, headers, SqlPreview.Language.SPANISH);
+        }
+
         String queryType = (String) sqlQueryTypeCombo.getSelectedItem();
         int selectedRow = table.getSelectedRow();
         int modelRow = selectedRow >= 0 ? table.convertRowIndexToModel(selectedRow) : -1;
 
         switch (queryType) {
             case "SELECT":
-                sqlQueryArea.setText(generateSelect());
+                sqlQueryArea.setText(sqlPreview.select());
                 break;
             case "INSERT":
-                sqlQueryArea.setText(generateInsert());
+                sqlQueryArea.setText(sqlPreview.insert(data.isEmpty() ? null : data.get(0)));
                 break;
             case "UPDATE":
                 sqlQueryArea.setText(modelRow >= 0 ?
-                        generateUpdate(modelRow) : "-- Selecciona una fila para UPDATE");
+                        sqlPreview.update(data.get(modelRow)) : "-- Selecciona una fila para UPDATE");
                 break;
             case "DELETE":
                 sqlQueryArea.setText(modelRow >= 0 ?
-                        generateDelete(modelRow) : "-- Selecciona una fila para DELETE");
+                        sqlPreview.delete(data.get(modelRow)) : "-- Selecciona una fila para DELETE");
                 break;
         }
     }
 
-    private String generateSelect() {
-        return String.format(
-                "SELECT %s\nFROM %s;\n\n-- Ejemplo con WHERE:\nSELECT *\nFROM %s\nWHERE %s = 'valor';",
-                String.join(", ", headers), tableName, tableName, headers[0]);
-    }
-
-    private String generateInsert() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("INSERT INTO ").append(tableName).append(" (")
-                .append(String.join(", ", headers)).append(")\nVALUES (");
-
-        for (int i = 0; i < headers.length; i++) {
-            sb.append("?");
-            if (i < headers.length - 1) sb.append(", ");
+    private void runSql() {
+        if (headers == null || headers.length == 0) {
+            showError("No hay datos cargados");
+            return;
         }
-        sb.append(");\n\n");
-
-        if (!data.isEmpty()) {
-            sb.append("-- Ejemplo con valores:\nINSERT INTO ").append(tableName)
-                    .append(" (").append(String.join(", ", headers)).append(")\nVALUES (");
-
-            for (int i = 0; i < data.get(0).length; i++) {
-                sb.append("'").append(data.get(0)[i] != null ? data.get(0)[i] : "").append("'");
-                if (i < data.get(0).length - 1) sb.append(", ");
-            }
-            sb.append(");");
+        String sql = sqlQueryArea.getSelectedText();
+        if (sql == null || sql.trim().isEmpty()) {
+            sql = SelectQuery.statementAt(sqlQueryArea.getText(), sqlQueryArea.getCaretPosition());
         }
 
-        return sb.toString();
-    }
-
-    private String generateUpdate(int rowIndex) {
-        String[] row = data.get(rowIndex);
-        StringBuilder sb = new StringBuilder();
-        sb.append("UPDATE ").append(tableName).append("\nSET ");
-
-        for (int i = 0; i < headers.length; i++) {
-            sb.append(headers[i]).append(" = ?");
-            if (i < headers.length - 1) sb.append(",\n    ");
+        SelectQuery query;
+        try {
+            query = SelectQuery.compile(sql, tableName, headers, tableModel, null);
+        } catch (IllegalArgumentException ex) {
+            showError("SQL no válido: " + ex.getMessage());
+            return;
         }
 
-        sb.append("\nWHERE ").append(headers[0]).append(" = '").append(row[0]).append("';\n\n");
+        long start = System.nanoTime();
+        SelectQuery.Result result = query.run(data.size());
+        long millis = (System.nanoTime() - start) / 1_000_000;
 
-        sb.append("-- Ejemplo completo:\nUPDATE ").append(tableName).append("\nSET ");
-
-        for (int i = 0; i < headers.length; i++) {
-            sb.append(headers[i]).append(" = '").append(row[i] != null ? row[i] : "").append("'");
-            if (i < headers.length - 1) sb.append(",\n    ");
+        sqlResultModel.setData(result.getColumns(), result.getRows());
+        if (tabs.indexOfComponent(sqlResultPanel) < 0) {
+            tabs.addTab("Resultado SQL", sqlResultPanel);
         }
-
-        sb.append("\nWHERE ").append(headers[0]).append(" = '").append(row[0]).append("';");
-
-        return sb.toString();
-    }
-
-    private String generateDelete(int rowIndex) {
-        String[] row = data.get(rowIndex);
-        return String.format(
-                "DELETE FROM %s\nWHERE %s = '%s';\n\n-- Versión más segura:\nDELETE FROM %s\nWHERE %s = '%s'\nAND %s = '%s';",
-                tableName, headers[0], row[0],
-                tableName, headers[0], row[0],
-                headers[1], row.length > 1 ? row[1] : "");
+        tabs.setSelectedComponent(sqlResultPanel);
+        updateStatus("La consulta devolvió " + result.getRows().size() + " filas; " + result.getMatchedRows()
+                + " de " + data.size() + " cumplen el WHERE (" + millis + " ms)");
     }
 
     private void copyToClipboard() {
@@ -1,21 +1,42 @@
 package org.example.latestVersions;
 
+import org.example.Convert.Converter;
+import org.example.Convert.TableFormat;
+import org.example.Filters.FilterCombination;
+import org.example.Filters.FilterCompiler;
+import org.example.Filters.FilterCondition;
+import org.example.Filters.FilterOperator;
+import org.example.Filters.TableIndexer;
+import org.example.Models.RowListTableModel;
+import org.example.Stats.StatisticsEngine;
+import org.example.Stats.StatisticsPanel;
+import org.example.Stats.TableStatistics;
+import org.example.Utils.CsvRowSource;
+import org.example.Utils.LoadProgressPanel;
+import org.example.Utils.TableLoadWorker;
+
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.List;
+import java.util.function.IntPredicate;
 
 public class UniversalCsvEditor extends JFrame {
     private JTable table;
-    private DefaultTableModel tableModel;
+    private RowListTableModel tableModel;
+    private TableIndexer<String[]> indexer;
+    private IntPredicate activeFilter;
     private List<String[]> data = new ArrayList<>();
     private String[] headers;
     private File currentFile;
     private JLabel statusLabel;
+    private LoadProgressPanel progressPanel;
+    private TableLoadWorker<String[]> loadWorker;
     private JComboBox<String> delimiterCombo;
 
     public UniversalCsvEditor() {
@@ -57,7 +78,9 @@ public class UniversalCsvEditor extends JFrame {
 
         // Tools
         toolBar.add(createToolButton("Filter", "Filter data", e -> filterData()));
+        toolBar.add(createToolButton("Clear Filter", "Show all rows", e -> clearFilter()));
         toolBar.add(createToolButton("Sort", "Sort by column", e -> sortData()));
+        toolBar.add(createToolButton("Statistics", "Show column statistics", e -> showStatistics()));
         toolBar.addSeparator();
 
         add(toolBar, BorderLayout.NORTH);
@@ -74,15 +97,14 @@ public class UniversalCsvEditor extends JFrame {
     }
 
     private void setupTable() {
-        tableModel = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return true; // Allow editing all cells
-            }
-        };
+        // Renders straight from 'data'; all cells are editable
+        tableModel = new RowListTableModel(data);
 
         table = new JTable(tableModel);
         table.setAutoCreateRowSorter(true);
+        // Filter index, rebuilt in the background after each load
+        indexer = new TableIndexer<>(tableModel, data::get,
+                (row, column) -> column < row.length && row[column] != null ? row[column] : "");
         table.setFillsViewportHeight(true);
 
         JScrollPane scrollPane = new JScrollPane(table);
@@ -91,9 +113,15 @@ public class UniversalCsvEditor extends JFrame {
     }
 
     private void setupStatusBar() {
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+
         statusLabel = new JLabel("Ready");
-        statusLabel.setBorder(BorderFactory.createEtchedBorder());
-        add(statusLabel, BorderLayout.SOUTH);
+        progressPanel = new LoadProgressPanel("Cancel");
+
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(progressPanel, BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
     }
 
     private JButton createToolButton(String text, String tooltip, ActionListener listener) {
@@ -115,39 +143,47 @@ public class UniversalCsvEditor extends JFrame {
 
     private void loadCSV() {
         String delimiter = delimiterCombo.getSelectedItem().toString();
+        File file = currentFile;
 
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(currentFile), StandardCharsets.UTF_8))) {
-
-            // Read headers
-            String headerLine = br.readLine();
-            if (headerLine == null) {
-                showError("Empty file");
-                return;
-            }
-
-            headers = headerLine.split(delimiter);
-            tableModel.setColumnIdentifiers(headers);
-
-            // Read data
-            data.clear();
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] row = parseCsvLine(line, delimiter);
-                data.add(row);
-                tableModel.addRow(row);
-            }
-
-            updateStatus("Loaded " + data.size() + " rows from " + currentFile.getName());
-
-        } catch (IOException ex) {
-            showError("Error reading file: " + ex.getMessage());
+        if (loadWorker != null) {
+            loadWorker.supersede();
         }
-    }
-
-    private String[] parseCsvLine(String line, String delimiter) {
-        // Simple CSV parsing - can be enhanced for quoted values
-        return line.split(delimiter, -1); // Keep trailing empty fields
+        indexer.pause();
+        headers = null;
+        tableModel.clear();
+
+        // Parse on a background thread; rows show up in the table as they arrive
+        loadWorker = new TableLoadWorker<>(new CsvRowSource(file, delimiter), row -> row,
+                new TableLoadWorker.Listener<String[]>() {
+                    @Override
+                    public void headersLoaded(String[] headerRow) {
+                        headers = headerRow;
+                        tableModel.setColumns(headers);
+                    }
+
+                    @Override
+                    public void rowsLoaded(List<String[]> rows) {
+                        tableModel.addRows(rows);
+                        updateStatus("Loading " + file.getName() + "... " + data.size() + " rows");
+                    }
+
+                    @Override
+                    public void loadFinished(int rowCount, boolean cancelled, Exception error) {
+                        indexer.rebuild();
+                        if (error != null) {
+                            showError("Error reading file: " + error.getMessage());
+                        } else if (cancelled) {
+                            updateStatus("Load cancelled. " + data.size() + " rows loaded from " + file.getName());
+                        } else if (headers == null) {
+                            showError("Empty file");
+                        } else {
+                            updateStatus("Loaded " + data.size() + " rows from " + file.getName());
+                        }
+                    }
+                });
+
+        progressPanel.track(loadWorker);
+        loadWorker.execute();
     }
 
     private void saveFile() {
@@ -174,28 +210,17 @@ public class UniversalCsvEditor extends JFrame {
     }
 
     private void saveToFile(File file) {
+        if (headers == null) {
+            showWarning("No data loaded");
+            return;
+        }
         String delimiter = delimiterCombo.getSelectedItem().toString();
 
-        try (BufferedWriter bw = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
-
-            // Write headers
-            bw.write(String.join(delimiter, headers));
-            bw.newLine();
-
-            // Write data
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                String[] row = new String[tableModel.getColumnCount()];
-                for (int j = 0; j < row.length; j++) {
-                    Object value = tableModel.getValueAt(i, j);
-                    row[j] = (value != null) ? value.toString() : "";
-                }
-                bw.write(String.join(delimiter, row));
-                bw.newLine();
-            }
-
-            updateStatus("Saved " + tableModel.getRowCount() + " rows to " + file.getName());
-
+        // Quotes cells with delimiters, quotes or line breaks, so they load back unchanged
+        try {
+            int rows = Converter.write(headers, data,
+                    Converter.openWriter(TableFormat.CSV, new FileOutputStream(file), delimiter, "data"));
+            updateStatus("Saved " + rows + " rows to " + file.getName());
         } catch (IOException ex) {
             showError("Error saving file: " + ex.getMessage());
         }
@@ -205,7 +230,6 @@ public class UniversalCsvEditor extends JFrame {
         String[] newRow = new String[tableModel.getColumnCount()];
         Arrays.fill(newRow, "");
         tableModel.addRow(newRow);
-        data.add(newRow);
         updateStatus("Added new row");
     }
 
@@ -218,7 +242,6 @@ public class UniversalCsvEditor extends JFrame {
 
         int modelRow = table.convertRowIndexToModel(selectedRow);
         tableModel.removeRow(modelRow);
-        data.remove(modelRow);
         updateStatus("Deleted row " + (selectedRow + 1));
     }
 
@@ -231,10 +254,10 @@ public class UniversalCsvEditor extends JFrame {
         JPanel filterPanel = new JPanel(new GridLayout(0, 2, 5, 5));
 
         JComboBox<String> columnCombo = new JComboBox<>(headers);
-        JComboBox<String> operatorCombo = new JComboBox<>(new String[]{
-                "contains", "equals", "starts with", "ends with", "empty", "not empty"
-        });
+        JComboBox<FilterOperator> operatorCombo = new JComboBox<>(FilterOperator.values());
         JTextField valueField = new JTextField();
+        JComboBox<FilterCombination> combineCombo = new JComboBox<>(FilterCombination.values());
+        combineCombo.setEnabled(activeFilter != null);
 
         filterPanel.add(new JLabel("Column:"));
         filterPanel.add(columnCombo);
@@ -242,42 +265,32 @@ public class UniversalCsvEditor extends JFrame {
         filterPanel.add(operatorCombo);
         filterPanel.add(new JLabel("Value:"));
         filterPanel.add(valueField);
+        filterPanel.add(new JLabel("Combine:"));
+        filterPanel.add(combineCombo);
 
         int result = JOptionPane.showConfirmDialog(
                 this, filterPanel, "Filter Data", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
         if (result == JOptionPane.OK_OPTION) {
-            String column = (String) columnCombo.getSelectedItem();
-            String operator = (String) operatorCombo.getSelectedItem();
-            String value = valueField.getText().toLowerCase();
+            FilterCondition condition = new FilterCondition(columnCombo.getSelectedIndex(),
+                    (FilterOperator) operatorCombo.getSelectedItem(), valueField.getText());
 
-            int columnIndex = Arrays.asList(headers).indexOf(column);
+            // Compiled once; the column index answers the condition when it is ready
+            IntPredicate predicate = FilterCompiler.compile(tableModel, indexer.getIndex(), condition);
+            activeFilter = ((FilterCombination) combineCombo.getSelectedItem()).apply(activeFilter, predicate);
 
-            tableModel.setRowCount(0); // Clear table
-            for (String[] row : data) {
-                if (matchesFilter(row, columnIndex, operator, value)) {
-                    tableModel.addRow(row);
-                }
-            }
+            // Only the view is filtered; saving still writes every row
+            TableRowSorter<? extends TableModel> sorter = (TableRowSorter<? extends TableModel>) table.getRowSorter();
+            sorter.setRowFilter(FilterCompiler.toRowFilter(activeFilter));
 
-            updateStatus("Filter applied. Showing " + tableModel.getRowCount() + " rows");
+            updateStatus("Filter applied. Showing " + table.getRowCount() + " of " + data.size() + " rows");
         }
     }
 
-    private boolean matchesFilter(String[] row, int columnIndex, String operator, String value) {
-        if (columnIndex < 0 || columnIndex >= row.length) return false;
-
-        String cellValue = (row[columnIndex] != null) ? row[columnIndex].toLowerCase() : "";
-
-        switch (operator) {
-            case "contains": return cellValue.contains(value);
-            case "equals": return cellValue.equals(value);
-            case "starts with": return cellValue.startsWith(value);
-            case "ends with": return cellValue.endsWith(value);
-            case "empty": return cellValue.isEmpty();
-            case "not empty": return !cellValue.isEmpty();
-            default: return true;
-        }
+    private void clearFilter() {
+        activeFilter = null;
+        ((TableRowSorter<? extends TableModel>) table.getRowSorter()).setRowFilter(null);
+        updateStatus("Filter cleared. Showing all " + data.size() + " rows");
     }
 
     private void sortData() {
@@ -297,6 +310,37 @@ public class UniversalCsvEditor extends JFrame {
         }
     }
 
+    private void showStatistics() {
+        if (headers == null || headers.length == 0) {
+            showWarning("No data loaded");
+            return;
+        }
+
+        // Snapshot on the EDT; the engine aggregates every column in one parallel pass
+        List<String[]> snapshot = new ArrayList<>(data);
+        String[] columns = headers.clone();
+        updateStatus("Computing statistics...");
+
+        new SwingWorker<TableStatistics, Void>() {
+            @Override
+            protected TableStatistics doInBackground() {
+                return StatisticsEngine.compute(columns, snapshot,
+                        (row, column) -> column < row.length ? row[column] : null, StatisticsEngine.DEFAULT_TOP_K);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    TableStatistics statistics = get();
+                    updateStatus("Statistics computed in " + statistics.getElapsedMillis() + " ms");
+                    StatisticsPanel.showDialog(UniversalCsvEditor.this, "Statistics", statistics, null);
+                } catch (Exception e) {
+                    showError("Error computing statistics: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
     private void updateStatus(String message) {
         statusLabel.setText(message);
     }
@@ -0,0 +1,85 @@
+package org.example.Utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.regex.Pattern;
+
+/**
+ * Compares CsvTokenizer with the old lookahead regex split used by CSVCRUD.
+ * Kept with the test sources so it stays out of the application jar; run its main from
+ * the test classpath. Usage: CsvTokenizerBenchmark [file.csv] (a synthetic client
+ * export is generated otherwise)
+ */
+public class CsvTokenizerBenchmark {
+    private static final Pattern REGEX_SPLIT = Pattern.compile(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        String content = args.length > 0
+                ? new String(Files.readAllBytes(Paths.get(args[0])), StandardCharsets.UTF_8)
+                : generateClients(50_000);
+        double megabytes = content.length() / (1024.0 * 1024.0);
+
+        System.out.printf("Input: %.1f MB%n", megabytes);
+        System.out.println("Round   regex MB/s   tokenizer MB/s");
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            long regexFields = runRegex(content);
+            double regexSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            long tokenizerFields = runTokenizer(content);
+            double tokenizerSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%5d %12.1f %16.1f   (fields %d / %d)%n", round,
+                    megabytes / regexSeconds, megabytes / tokenizerSeconds, regexFields, tokenizerFields);
+        }
+    }
+
+    private static long runRegex(String content) throws IOException {
+        long fields = 0;
+        try (BufferedReader br = new BufferedReader(new StringReader(content))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                fields += REGEX_SPLIT.split(line, -1).length;
+            }
+        }
+        return fields;
+    }
+
+    private static long runTokenizer(String content) throws IOException {
+        long fields = 0;
+        try (Reader reader = new StringReader(content);
+             CsvTokenizer tokenizer = new CsvTokenizer(reader, ',')) {
+            String[] record;
+            while ((record = tokenizer.nextRecord()) != null) {
+                fields += record.length;
+            }
+        }
+        return fields;
+    }
+
+    private static String generateClients(int rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ID,First Name,Last Name,Company Name,Email,Address 1,Country,Phone Number,Client Group ID,Creation Date,Notes\n");
+        String notes = "Long note about the client, with commas and \"\"quoted\"\" text. ".repeat(8);
+        for (int i = 0; i < rows; i++) {
+            sb.append(i).append(",Name").append(i).append(",Surname").append(i % 97)
+                    .append(",\"Company ").append(i % 50).append(", S.L.\"")
+                    .append(",user").append(i).append("@example.com")
+                    .append(",\"Street ").append(i % 300).append(", 12\"")
+                    .append(',').append(i % 2 == 0 ? "ES" : "FR")
+                    .append(",+34 600 000 ").append(i % 1000)
+                    .append(',').append(i % 7)
+                    .append(",2024-0").append(1 + i % 9).append("-1").append(i % 10)
+                    .append(",\"").append(notes).append("\"\n");
+        }
+        return sb.toString();
+    }
+}